@@ -0,0 +1,10 @@
+package com.sqlengine.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchQueryRequest {
+    private List<QueryExecutionRequest> items;
+}
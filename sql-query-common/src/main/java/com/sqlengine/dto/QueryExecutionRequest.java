@@ -10,4 +10,6 @@ public class QueryExecutionRequest {
     private String templateId;
     private String databaseConfigId;
     private List<QueryCondition> overrideConditions;
+    /** Continuation token of the previous page (KEYSET pagination only). */
+    private String continuationToken;
 }
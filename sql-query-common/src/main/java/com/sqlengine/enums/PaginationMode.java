@@ -0,0 +1,6 @@
+package com.sqlengine.enums;
+
+public enum PaginationMode {
+    OFFSET,
+    KEYSET
+}
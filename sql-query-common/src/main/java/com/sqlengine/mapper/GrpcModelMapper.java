@@ -1,6 +1,7 @@
 package com.sqlengine.mapper;
 
 import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.enums.PaginationMode;
 import com.sqlengine.enums.QueryOperator;
 import com.sqlengine.enums.SortDirection;
 import com.sqlengine.model.DatabaseConfig;
@@ -60,8 +61,15 @@ public class GrpcModelMapper {
         template.setUpdatedValues(new HashMap<>(proto.getUpdatedValuesMap()));
 
         Map<String, SortDirection> orderMap = new LinkedHashMap<>();
-        proto.getOrderByMap().forEach((k, v) -> orderMap.put(k, SortDirection.valueOf(v.name())));
+        proto.getOrderByColumnsList().forEach(column -> {
+            com.sqlengine.grpc.SortDirection direction = proto.getOrderByMap().get(column);
+            if (direction != null) orderMap.put(column, SortDirection.valueOf(direction.name()));
+        });
+        proto.getOrderByMap().forEach((k, v) -> orderMap.putIfAbsent(k, SortDirection.valueOf(v.name())));
         template.setOrderBy(orderMap);
+        if (!proto.getPaginationMode().isEmpty()) {
+            template.setPaginationMode(PaginationMode.valueOf(proto.getPaginationMode()));
+        }
 
         template.setCreatedAt(LocalDateTime.parse(proto.getCreatedAt()));
         template.setUpdatedAt(LocalDateTime.parse(proto.getUpdatedAt()));
@@ -74,12 +82,21 @@ public class GrpcModelMapper {
         template.setUseMerge(proto.getUseMerge());
         template.setInsertValues(new HashMap<>(proto.getInsertValuesMap()));
         template.setUpsertValues(new HashMap<>(proto.getUpsertValuesMap()));
+        if (proto.getInsertRowsCount() > 0) {
+            template.setInsertRows(proto.getInsertRowsList().stream()
+                    .map(row -> (Map<String, Object>) new LinkedHashMap<String, Object>(row.getValuesMap()))
+                    .collect(Collectors.toList()));
+        }
         template.setReturningFields(proto.getReturningFieldsList());
         template.setPrimaryKeyField(proto.getPrimaryKeyField());
         template.setSqlQuery(proto.getSqlQuery());
         template.setDeleteWithJoin(proto.getDeleteWithJoin());
         template.setDeleteTableAlias(proto.getDeleteTableAlias());
         template.setDdlStatement(proto.getDdlStatement());
+        template.setChunked(proto.getChunked());
+        if (proto.getChunkSize() > 0) template.setChunkSize(proto.getChunkSize());
+        if (proto.getChunkPauseMillis() > 0) template.setChunkPauseMillis(proto.getChunkPauseMillis());
+        if (!proto.getChunkJobId().isEmpty()) template.setChunkJobId(proto.getChunkJobId());
         return template;
     }
 
@@ -175,12 +192,28 @@ public class GrpcModelMapper {
             builder.putAllUpsertValues(template.getUpsertValues().entrySet().stream()
                     .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toString())));
 
+        if (template.getInsertRows() != null)
+            template.getInsertRows().forEach(row -> {
+                com.sqlengine.grpc.InsertRow.Builder rowBuilder = com.sqlengine.grpc.InsertRow.newBuilder();
+                row.forEach((column, value) -> {
+                    if (value != null) rowBuilder.putValues(column, value.toString());
+                });
+                builder.addInsertRows(rowBuilder.build());
+            });
+
         builder.addAllReturningFields(template.getReturningFields() != null ? template.getReturningFields() : List.of());
         builder.setPrimaryKeyField(Optional.ofNullable(template.getPrimaryKeyField()).orElse("id"));
         builder.setSqlQuery(Optional.ofNullable(template.getSqlQuery()).orElse(""));
         builder.setDeleteWithJoin(template.isDeleteWithJoin());
         builder.setDeleteTableAlias(Optional.ofNullable(template.getDeleteTableAlias()).orElse(""));
         builder.setDdlStatement(Optional.ofNullable(template.getDdlStatement()).orElse(""));
+        builder.setPaginationMode(Optional.ofNullable(template.getPaginationMode()).orElse(PaginationMode.OFFSET).name());
+        if (template.getOrderBy() != null)
+            builder.addAllOrderByColumns(template.getOrderBy().keySet());
+        builder.setChunked(template.isChunked());
+        builder.setChunkSize(Optional.ofNullable(template.getChunkSize()).orElse(0));
+        builder.setChunkPauseMillis(Optional.ofNullable(template.getChunkPauseMillis()).orElse(0L));
+        builder.setChunkJobId(Optional.ofNullable(template.getChunkJobId()).orElse(""));
         return builder.build();
     }
 
@@ -0,0 +1,50 @@
+package com.sqlengine.mapper;
+
+import com.google.protobuf.ByteString;
+import com.sqlengine.grpc.ColumnVector;
+import com.sqlengine.grpc.ResultBlock;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns a columnar {@link ResultBlock} back into row maps for callers that need JSON-shaped rows.
+ */
+public class ResultBlockMapper {
+
+    public static List<Map<String, Object>> toRows(ResultBlock block) {
+        int rowCount = block.getRowCount();
+        int columnCount = block.getColumnsCount();
+        List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            rows.add(new LinkedHashMap<>(columnCount * 2));
+        }
+
+        for (int c = 0; c < columnCount; c++) {
+            String name = block.getColumns(c).getName();
+            ColumnVector vector = block.getVectors(c);
+            ByteString nullBitmap = vector.getNullBitmap();
+            for (int r = 0; r < rowCount; r++) {
+                rows.get(r).put(name, isNull(nullBitmap, r) ? null : valueAt(vector, r));
+            }
+        }
+        return rows;
+    }
+
+    private static boolean isNull(ByteString nullBitmap, int row) {
+        int index = row >>> 3;
+        return index < nullBitmap.size() && (nullBitmap.byteAt(index) & (1 << (row & 7))) != 0;
+    }
+
+    private static Object valueAt(ColumnVector vector, int row) {
+        return switch (vector.getValuesCase()) {
+            case INT64VALUES -> vector.getInt64Values().getValues(row);
+            case DOUBLEVALUES -> vector.getDoubleValues().getValues(row);
+            case BOOLVALUES -> vector.getBoolValues().getValues(row);
+            case STRINGVALUES -> vector.getStringValues().getDictionary(vector.getStringValues().getIndices(row));
+            case VALUES_NOT_SET -> null;
+        };
+    }
+}
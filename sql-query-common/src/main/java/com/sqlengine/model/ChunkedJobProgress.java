@@ -0,0 +1,41 @@
+package com.sqlengine.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a chunked DELETE/UPDATE job, saved after every committed chunk so the job resumes
+ * after {@code lastKey} when it is run again after a failure or node restart.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Document("chunked_job_progress")
+@Data
+@NoArgsConstructor
+public class ChunkedJobProgress {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    /** Job id: the template's chunkJobId or one derived from config, table and filter */
+    @Id
+    private String id;
+
+    private String configId;
+    private String tableName;
+    private String queryType;
+
+    /** Primary key of the last row of the last committed chunk, as a string */
+    private String lastKey;
+
+    private long rowsAffected;
+    private int chunks;
+    private Status status;
+    private String error;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+}
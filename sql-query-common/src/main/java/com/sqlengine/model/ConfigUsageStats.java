@@ -0,0 +1,31 @@
+package com.sqlengine.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query traffic per DatabaseConfig, flushed periodically by each execution node. Used to warm the
+ * busiest tenants' pools first on startup.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Document("config_usage_stats")
+@Data
+@NoArgsConstructor
+public class ConfigUsageStats {
+
+    /** DatabaseConfig id */
+    @Id
+    private String id;
+
+    /** Query count decayed exponentially as of {@code lastUsedAt}, so recent traffic weighs more */
+    private double recentQueries;
+
+    private long totalQueries;
+
+    private LocalDateTime lastUsedAt;
+}
@@ -1,6 +1,8 @@
 package com.sqlengine.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sqlengine.enums.PaginationMode;
 import com.sqlengine.enums.SortDirection;
 import com.sqlengine.model.query.CteBlock;
 import com.sqlengine.model.query.JoinConfig;
@@ -11,6 +13,7 @@ import com.sqlengine.model.query.UnionQuery;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -90,6 +93,13 @@ public class QueryTemplate {
     /** Number of rows to skip (for pagination). */
     private Integer offset;
 
+    /**
+     * How pages are addressed. {@code KEYSET} ignores {@code offset}: each page continues after the last
+     * row of the previous one, identified by the continuation token, ordered by {@code orderBy} plus
+     * {@code primaryKeyField} as tiebreaker. Requires {@code limit}; order-by columns must be non-null.
+     */
+    private PaginationMode paginationMode = PaginationMode.OFFSET;
+
     /** List of columns to group the results by. */
     private List<String> groupBy;
 
@@ -106,16 +116,22 @@ public class QueryTemplate {
     /** Key-value pairs for single row insert. */
     private Map<String, Object> insertValues;
 
+    /**
+     * Rows for a bulk insert, one column-to-value map per row; takes precedence over {@code insertValues}.
+     * Rows are written in chunks of multi-row statements, each chunk in its own transaction.
+     */
+    private List<Map<String, Object>> insertRows;
+
     /** If true, use INSERT INTO ... SELECT ... instead of VALUES */
     private boolean insertFromSelect;
 
     /** Columns to insert into (used with insertFromSelect + subqueries) */
     private List<String> insertColumns;
 
-    /** Conflict resolution: unique keys for ON CONFLICT (PostgreSQL) */
+    /** Conflict resolution: unique keys for ON CONFLICT (PostgreSQL/SQLite) and the MERGE match (Oracle/SQL Server) */
     private List<String> conflictColumns;
 
-    /** Columns and values to update on conflict (Upsert behavior) */
+    /** Columns and values to update on conflict; if empty, non-key columns take the incoming values */
     private Map<String, Object> upsertValues;
 
     /** Use REPLACE INTO / INSERT OR REPLACE (MySQL/MariaDB/SQLite) */
@@ -137,4 +153,28 @@ public class QueryTemplate {
 
     private String ddlStatement; // e.g., "CREATE TABLE users (id INT PRIMARY KEY, name VARCHAR(255))"
 
+    // --- Chunked DELETE / UPDATE (large retention jobs) ---
+
+    /** Run a DELETE/UPDATE as a resumable job: walk the primary key in chunks, one commit per chunk */
+    private boolean chunked;
+
+    /** Rows per chunk; defaults to {@code query.chunked.chunk-size} */
+    private Integer chunkSize;
+
+    /** Pause between chunks, e.g. to let replicas catch up; defaults to {@code query.chunked.pause-millis} */
+    private Long chunkPauseMillis;
+
+    /** Identifies the job's stored progress; derived from the config, table and filter when absent */
+    private String chunkJobId;
+
+    /** Content hash of this template as prepared on an execution node; keys compiled plans. Not persisted. */
+    @Transient
+    @JsonIgnore
+    private String templateVersion;
+
+    /** Keyset continuation token of the page being requested, from the previous response. Not persisted. */
+    @Transient
+    @JsonIgnore
+    private String continuationToken;
+
 }
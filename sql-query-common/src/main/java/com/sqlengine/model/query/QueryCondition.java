@@ -22,6 +22,7 @@ public class QueryCondition {
      * <p><b>For DATE fields:</b> format should be {@code yyyy-MM-dd}, e.g., {@code "2024-04-09"}.</p>
      * <p><b>For TIMESTAMP fields:</b> format should be {@code yyyy-MM-dd'T'HH:mm:ss}, e.g., {@code "2024-04-09T14:30:00"}.</p>
      * <p><b>For BOOLEAN fields:</b> use {@code "true"}, {@code "false"}, or {@code "1"}, {@code "0"}.</p>
+     * <p><b>For IN / NOT IN:</b> a JSON array, e.g. {@code "[1, 2, 3]"} or {@code "[\"a\", \"b\"]"}.</p>
      */
     private String value;
 
@@ -0,0 +1,7 @@
+package com.sqlengine.repository;
+
+import com.sqlengine.model.ChunkedJobProgress;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ChunkedJobProgressRepository extends ReactiveMongoRepository<ChunkedJobProgress, String> {
+}
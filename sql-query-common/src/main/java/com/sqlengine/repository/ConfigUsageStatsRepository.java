@@ -0,0 +1,7 @@
+package com.sqlengine.repository;
+
+import com.sqlengine.model.ConfigUsageStats;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ConfigUsageStatsRepository extends ReactiveMongoRepository<ConfigUsageStats, String> {
+}
@@ -1,57 +1,248 @@
 package com.sqlengine.utils;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 
+/**
+ * Casts request values to the Java type of their column's {@link java.sql.Types} code.
+ *
+ * <p>Casters are precompiled per SQL type: {@link #resolve(int)} is meant to be called once per column
+ * when a plan is built, so binding a value is a single function call on its trimmed text.</p>
+ * <ul>
+ *     <li>TIME / TIME WITH TIME ZONE → {@link LocalTime} / {@link OffsetTime}</li>
+ *     <li>TIMESTAMP WITH TIME ZONE → {@link OffsetDateTime} (UTC when the text has no offset)</li>
+ *     <li>BINARY / VARBINARY / LONGVARBINARY / BLOB → {@link ByteBuffer}, from base64 or {@code 0x}/{@code \x} hex</li>
+ *     <li>ARRAY → a typed array parsed from a JSON array ({@code Long[]}, {@code Double[]}, {@code UUID[]}, ...)</li>
+ *     <li>OTHER (PostgreSQL uuid, json, jsonb, ...) → {@link UUID} when the text is a UUID, its JSON text otherwise</li>
+ * </ul>
+ * Collection and map values are passed as their JSON text, so JSON columns receive a document rather than
+ * {@code toString()} output.
+ */
 public class QueryParamCaster {
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<Object>> LIST_TYPE = new TypeReference<>() {};
+
+    private static final Function<String, Object> STRING = text -> text;
+    private static final Map<Integer, Function<String, Object>> CASTERS = new HashMap<>();
+    private static final Map<Integer, Class<?>> JAVA_TYPES = new HashMap<>();
+
+    static {
+        register(Integer.class, Integer::valueOf, Types.INTEGER, Types.SMALLINT, Types.TINYINT);
+        register(Long.class, Long::valueOf, Types.BIGINT);
+        register(Float.class, Float::valueOf, Types.REAL);
+        register(Double.class, Double::valueOf, Types.FLOAT, Types.DOUBLE);
+        register(BigDecimal.class, BigDecimal::new, Types.NUMERIC, Types.DECIMAL);
+        register(Boolean.class, text -> "1".equals(text) || "true".equalsIgnoreCase(text), Types.BOOLEAN, Types.BIT);
+        register(LocalDate.class, LocalDate::parse, Types.DATE);
+        register(LocalTime.class, LocalTime::parse, Types.TIME);
+        register(OffsetTime.class, OffsetTime::parse, Types.TIME_WITH_TIMEZONE);
+        register(LocalDateTime.class, QueryParamCaster::toLocalDateTime, Types.TIMESTAMP);
+        register(OffsetDateTime.class, QueryParamCaster::toOffsetDateTime, Types.TIMESTAMP_WITH_TIMEZONE);
+        register(ByteBuffer.class, QueryParamCaster::toBytes, Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB);
+        register(Object[].class, QueryParamCaster::toArray, Types.ARRAY);
+        register(String.class, QueryParamCaster::toUuidOrText, Types.OTHER);
+        register(String.class, STRING, Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR,
+                Types.LONGNVARCHAR, Types.CLOB, Types.NCLOB, Types.SQLXML, Types.ROWID, Types.DATALINK, Types.JAVA_OBJECT,
+                Types.STRUCT, Types.DISTINCT, Types.REF, Types.REF_CURSOR, Types.NULL);
+    }
+
+    private static void register(Class<?> javaType, Function<String, Object> caster, int... sqlTypes) {
+        for (int sqlType : sqlTypes) {
+            CASTERS.put(sqlType, caster);
+            JAVA_TYPES.put(sqlType, javaType);
+        }
+    }
+
+    /**
+     * The caster for a SQL type; driver-specific codes fall back to the text itself. Casters take the
+     * trimmed text of a non-null value (see {@link #text(Object)}) and throw on malformed input.
+     */
+    public static Function<String, Object> resolve(int sqlType) {
+        return CASTERS.getOrDefault(sqlType, STRING);
+    }
 
     public static Object cast(Object value, int sqlType) {
-        if (value == null) return null;
+        return cast(value, sqlType, resolve(sqlType));
+    }
 
-        String strVal = value.toString().trim();
+    /**
+     * Casts with an already resolved caster, wrapping parse failures with the offending value.
+     */
+    public static Object cast(Object value, int sqlType, Function<String, Object> caster) {
+        if (value == null) return null;
 
+        String strVal = text(value);
         try {
-            switch (sqlType) {
-                case Types.INTEGER:
-                case Types.SMALLINT:
-                case Types.TINYINT:
-                    return Integer.parseInt(strVal);
+            return caster.apply(strVal);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("❌ Failed to cast value: '" + strVal + "' for SQL type: " + sqlType, e);
+        }
+    }
+
+    /**
+     * Text handed to a caster: strings trimmed (without copying when there is nothing to trim),
+     * collections and maps as JSON, anything else via {@code toString()}.
+     */
+    public static String text(Object value) {
+        if (value instanceof String str) {
+            return str.trim();
+        }
+        if (value instanceof Collection<?> || value instanceof Map<?, ?>) {
+            try {
+                return MAPPER.writeValueAsString(value);
+            } catch (Exception e) {
+                throw new IllegalArgumentException("❌ Failed to serialize value: " + value, e);
+            }
+        }
+        return value.toString().trim();
+    }
+
+    /**
+     * Casts a list value (IN / NOT IN) element by element. Accepts a collection, a JSON array such as
+     * {@code ["a","b"]} or {@code [1,2]}, or a single scalar, which becomes a one-element list.
+     */
+    public static List<Object> castList(Object value, int sqlType) {
+        if (value == null) return List.of();
+
+        Collection<?> raw;
+        if (value instanceof Collection<?> collection) {
+            raw = collection;
+        } else {
+            String strVal = value.toString().trim();
+            if (strVal.startsWith("[")) {
+                raw = parseList(strVal);
+            } else {
+                raw = List.of(strVal);
+            }
+        }
 
-                case Types.BIGINT:
-                    return Long.parseLong(strVal);
+        Function<String, Object> caster = resolve(sqlType);
+        List<Object> values = new ArrayList<>(raw.size());
+        for (Object element : raw) {
+            values.add(cast(element, sqlType, caster));
+        }
+        return values;
+    }
 
-                case Types.FLOAT:
-                case Types.REAL:
-                case Types.DOUBLE:
-                    return Double.parseDouble(strVal);
+    /**
+     * Java type produced by {@link #cast(Object, int)} for the SQL type, e.g. to build typed array parameters.
+     */
+    public static Class<?> javaType(int sqlType) {
+        return JAVA_TYPES.getOrDefault(sqlType, String.class);
+    }
 
-                case Types.NUMERIC:
-                case Types.DECIMAL:
-                    return new BigDecimal(strVal);
+    /**
+     * A cast value in the form JDBC {@code setObject} accepts: binary values as {@code byte[]}.
+     */
+    public static Object jdbcValue(Object value) {
+        if (value instanceof ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return bytes;
+        }
+        return value;
+    }
 
-                case Types.BOOLEAN:
-                case Types.BIT:
-                    return "1".equals(strVal) || "true".equalsIgnoreCase(strVal);
+    /**
+     * ISO local date-time, also accepting the SQL form with a space between date and time.
+     */
+    private static Object toLocalDateTime(String text) {
+        if (text.length() > 10 && text.charAt(10) == ' ') {
+            text = text.substring(0, 10) + 'T' + text.substring(11);
+        }
+        return LocalDateTime.parse(text);
+    }
 
-                case Types.DATE:
-                    return LocalDate.parse(strVal, DATE_FORMAT);
+    private static Object toOffsetDateTime(String text) {
+        if (text.length() > 10 && text.charAt(10) == ' ') {
+            text = text.substring(0, 10) + 'T' + text.substring(11);
+        }
+        TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parse(text);
+        LocalDateTime local = LocalDateTime.from(parsed);
+        return parsed.isSupported(ChronoField.OFFSET_SECONDS)
+                ? OffsetDateTime.of(local, ZoneOffset.ofTotalSeconds(parsed.get(ChronoField.OFFSET_SECONDS)))
+                : OffsetDateTime.of(local, ZoneOffset.UTC);
+    }
 
-                case Types.TIMESTAMP:
-                case Types.TIMESTAMP_WITH_TIMEZONE:
-                    return LocalDateTime.parse(strVal, TIMESTAMP_FORMAT);
+    private static Object toBytes(String text) {
+        if (text.startsWith("0x") || text.startsWith("\\x")) {
+            return ByteBuffer.wrap(HexFormat.of().parseHex(text, 2, text.length()));
+        }
+        return ByteBuffer.wrap(Base64.getDecoder().decode(text));
+    }
 
-                default:
-                    return strVal; // fallback: string
-            }
+    private static Object toUuidOrText(String text) {
+        return isUuid(text) ? UUID.fromString(text) : text;
+    }
+
+    /**
+     * A JSON array as an array typed by its elements: integral numbers as {@code Long[]}, other numbers
+     * as {@code Double[]}, booleans as {@code Boolean[]}, UUIDs as {@code UUID[]}, anything else as text.
+     */
+    private static Object toArray(String text) {
+        if (!text.startsWith("[")) {
+            return text; // dialect array literal such as {a,b}, left to the database
+        }
+        List<Object> elements = parseList(text);
+        boolean integral = true, numeric = true, bool = true, uuid = true;
+        for (Object element : elements) {
+            if (element == null) continue;
+            integral &= element instanceof Integer || element instanceof Long;
+            numeric &= element instanceof Number;
+            bool &= element instanceof Boolean;
+            uuid &= element instanceof String str && isUuid(str);
+        }
+
+        Object[] typed;
+        if (elements.isEmpty()) {
+            typed = new String[0];
+        } else if (integral) {
+            typed = elements.stream().map(e -> e == null ? null : ((Number) e).longValue()).toArray(Long[]::new);
+        } else if (numeric) {
+            typed = elements.stream().map(e -> e == null ? null : ((Number) e).doubleValue()).toArray(Double[]::new);
+        } else if (bool) {
+            typed = elements.toArray(Boolean[]::new);
+        } else if (uuid) {
+            typed = elements.stream().map(e -> e == null ? null : UUID.fromString((String) e)).toArray(UUID[]::new);
+        } else {
+            typed = elements.stream().map(e -> e == null ? null : text(e)).toArray(String[]::new);
+        }
+        return typed;
+    }
+
+    private static boolean isUuid(String text) {
+        return text.length() == 36 && text.charAt(8) == '-' && text.charAt(13) == '-'
+                && text.charAt(18) == '-' && text.charAt(23) == '-';
+    }
+
+    private static List<Object> parseList(String text) {
+        try {
+            return MAPPER.readValue(text, LIST_TYPE);
         } catch (Exception e) {
-            throw new IllegalArgumentException("❌ Failed to cast value: '" + strVal + "' for SQL type: " + sqlType, e);
+            throw new IllegalArgumentException("❌ Invalid list value: '" + text + "'", e);
         }
     }
 }
-
@@ -0,0 +1,147 @@
+package com.sqlengine.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Casting one row of bound values: the per-value switch that {@link QueryParamCaster#cast(Object, int)}
+ * used to run against casters resolved once per column with {@link QueryParamCaster#resolve(int)}.
+ *
+ * <p>Run with {@code mvn -pl sql-query-common test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.sqlengine.utils.QueryParamCasterBenchmark}, or from the IDE.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryParamCasterBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final int[] SQL_TYPES = {
+            Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.DECIMAL, Types.BOOLEAN, Types.DATE, Types.TIMESTAMP, Types.VARCHAR
+    };
+
+    @Param({"1", "100"})
+    public int rows;
+
+    private Object[][] values;
+    private Function<String, Object>[] casters;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        values = new Object[rows][];
+        for (int r = 0; r < rows; r++) {
+            values[r] = new Object[]{
+                    String.valueOf(r), 10_000_000_000L + r, "3.25", "12345.6789", "true", "2024-03-01",
+                    "2024-03-01T12:30:00", "customer-" + r
+            };
+        }
+        casters = new Function[SQL_TYPES.length];
+        for (int c = 0; c < SQL_TYPES.length; c++) {
+            casters[c] = QueryParamCaster.resolve(SQL_TYPES[c]);
+        }
+    }
+
+    @Benchmark
+    public void legacySwitch(Blackhole blackhole) {
+        for (Object[] row : values) {
+            for (int c = 0; c < SQL_TYPES.length; c++) {
+                blackhole.consume(legacyCast(row[c], SQL_TYPES[c]));
+            }
+        }
+    }
+
+    @Benchmark
+    public void castPerValue(Blackhole blackhole) {
+        for (Object[] row : values) {
+            for (int c = 0; c < SQL_TYPES.length; c++) {
+                blackhole.consume(QueryParamCaster.cast(row[c], SQL_TYPES[c]));
+            }
+        }
+    }
+
+    @Benchmark
+    public void resolvedCasters(Blackhole blackhole) {
+        for (Object[] row : values) {
+            for (int c = 0; c < SQL_TYPES.length; c++) {
+                blackhole.consume(QueryParamCaster.cast(row[c], SQL_TYPES[c], casters[c]));
+            }
+        }
+    }
+
+    /**
+     * The implementation before resolved casters, kept verbatim as the baseline.
+     */
+    private static Object legacyCast(Object value, int sqlType) {
+        if (value == null) return null;
+
+        String strVal = value.toString().trim();
+
+        try {
+            switch (sqlType) {
+                case Types.INTEGER:
+                case Types.SMALLINT:
+                case Types.TINYINT:
+                    return Integer.parseInt(strVal);
+
+                case Types.BIGINT:
+                    return Long.parseLong(strVal);
+
+                case Types.FLOAT:
+                case Types.REAL:
+                case Types.DOUBLE:
+                    return Double.parseDouble(strVal);
+
+                case Types.NUMERIC:
+                case Types.DECIMAL:
+                    return new BigDecimal(strVal);
+
+                case Types.BOOLEAN:
+                case Types.BIT:
+                    return "1".equals(strVal) || "true".equalsIgnoreCase(strVal);
+
+                case Types.DATE:
+                    return LocalDate.parse(strVal, DATE_FORMAT);
+
+                case Types.TIMESTAMP:
+                case Types.TIMESTAMP_WITH_TIMEZONE:
+                    return LocalDateTime.parse(strVal, TIMESTAMP_FORMAT);
+
+                default:
+                    return strVal;
+            }
+        } catch (Exception e) {
+            throw new IllegalArgumentException("❌ Failed to cast value: '" + strVal + "' for SQL type: " + sqlType, e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(QueryParamCasterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
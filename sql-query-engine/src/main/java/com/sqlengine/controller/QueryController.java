@@ -1,18 +1,27 @@
 package com.sqlengine.controller;
 
+import com.sqlengine.dto.BatchQueryRequest;
+import com.sqlengine.dto.BatchQueryResult;
+import com.sqlengine.dto.CachedQueryTemplate;
 import com.sqlengine.dto.QueryExecutionRequest;
 import com.sqlengine.enums.DatabaseProvider;
 import com.sqlengine.manager.QueryTemplateCacheManager;
+import com.sqlengine.model.DatabaseConfig;
 import com.sqlengine.model.QueryTemplate;
 import com.sqlengine.service.DatabaseConfigService;
 import com.sqlengine.service.GrpcMetadataClientService;
 import com.sqlengine.service.GrpcQueryExecutionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -21,26 +30,125 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class QueryController {
 
+    public static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
     private final GrpcMetadataClientService grpcMetadataClientService;
     private final QueryTemplateCacheManager queryTemplateCacheManager;
     private final DatabaseConfigService databaseConfigService;
     private final GrpcQueryExecutionService executionService;
 
     /**
-     * Run query using templateId and databaseConfigId with optional override conditions
+     * Run query using templateId and databaseConfigId with optional override conditions.
+     * With KEYSET pagination the token for the next page is returned in the {@value #CONTINUATION_TOKEN_HEADER}
+     * header (absent on the last page) and passed back as {@code continuationToken}.
      */
     @PostMapping("/run")
-    public Mono<String> runQuery(@RequestBody QueryExecutionRequest request) {
-        return queryTemplateCacheManager.getById(request.getTemplateId())
+    public Mono<ResponseEntity<String>> runQuery(@RequestBody QueryExecutionRequest request) {
+        return queryTemplateCacheManager.getCachedById(request.getTemplateId())
                 .flatMap(template ->
                         databaseConfigService.findById(request.getDatabaseConfigId())
                                 .flatMap(config ->
-                                        executionService.runQuery(template, config, request.getOverrideConditions())
+                                        executionService.runQueryPage(template, config, request.getOverrideConditions(),
+                                                request.getContinuationToken())
                                 )
                 )
+                .map(response -> {
+                    ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+                    if (!response.getContinuationToken().isEmpty()) {
+                        ok.header(CONTINUATION_TOKEN_HEADER, response.getContinuationToken());
+                    }
+                    return ok.body(response.getJsonResult());
+                })
                 .onErrorResume(ex -> {
                     log.error("❌ Error during query execution", ex);
-                    return Mono.just("❌ Error: " + ex.getMessage());
+                    return Mono.just(ResponseEntity.ok("❌ Error: " + ex.getMessage()));
+                });
+    }
+
+    /**
+     * Streaming variant of /run: rows are forwarded as newline-delimited JSON as soon as each batch
+     * arrives from the execution node. HTTP backpressure is propagated back over gRPC to the database read.
+     */
+    @PostMapping(value = "/run", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Map<String, Object>> runQueryNdjson(@RequestBody QueryExecutionRequest request) {
+        return streamRows(request)
+                .onErrorResume(ex -> {
+                    log.error("❌ Error during streaming query execution", ex);
+                    return Flux.just(Map.of("error", String.valueOf(ex.getMessage())));
+                });
+    }
+
+    /**
+     * Server-Sent-Events variant of /run: one {@code row} event per result row, and a final
+     * {@code error} event if the execution fails mid-stream.
+     */
+    @PostMapping(value = "/run", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Map<String, Object>>> runQueryEvents(@RequestBody QueryExecutionRequest request) {
+        return streamRows(request)
+                .map(row -> ServerSentEvent.builder(row).event("row").build())
+                .onErrorResume(ex -> {
+                    log.error("❌ Error during streaming query execution", ex);
+                    return Flux.just(ServerSentEvent.<Map<String, Object>>builder(Map.of("error", String.valueOf(ex.getMessage())))
+                            .event("error")
+                            .build());
+                });
+    }
+
+    private Flux<Map<String, Object>> streamRows(QueryExecutionRequest request) {
+        return queryTemplateCacheManager.getCachedById(request.getTemplateId())
+                .flatMapMany(template ->
+                        databaseConfigService.findById(request.getDatabaseConfigId())
+                                .switchIfEmpty(Mono.error(new IllegalArgumentException("No DatabaseConfig found for ID: " + request.getDatabaseConfigId())))
+                                .flatMapMany(config ->
+                                        executionService.runQueryRows(template, config, request.getOverrideConditions())
+                                )
+                );
+    }
+
+    /**
+     * Run many templates in one call. Each distinct template and config is looked up once, items are
+     * sent to their execution nodes as batches, and each result is streamed back as NDJSON as soon as
+     * it finishes, tagged with the item's position in the request.
+     */
+    @PostMapping(value = "/run-batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchQueryResult> runBatch(@RequestBody BatchQueryRequest request) {
+        List<QueryExecutionRequest> items = request.getItems() != null ? request.getItems() : List.of();
+
+        Mono<Map<String, CachedQueryTemplate>> templates = Flux.fromIterable(items)
+                .map(QueryExecutionRequest::getTemplateId)
+                .distinct()
+                .flatMap(id -> queryTemplateCacheManager.getCachedById(id)
+                        .map(template -> Map.entry(id, template))
+                        .onErrorResume(ex -> Mono.empty()))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+
+        Mono<Map<String, DatabaseConfig>> configs = Flux.fromIterable(items)
+                .map(QueryExecutionRequest::getDatabaseConfigId)
+                .distinct()
+                .flatMap(id -> databaseConfigService.findById(id).map(config -> Map.entry(id, config)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+
+        return Mono.zip(templates, configs)
+                .flatMapMany(lookups -> {
+                    List<GrpcQueryExecutionService.BatchItem> runnable = new ArrayList<>();
+                    List<BatchQueryResult> unresolved = new ArrayList<>();
+                    for (int i = 0; i < items.size(); i++) {
+                        QueryExecutionRequest item = items.get(i);
+                        CachedQueryTemplate template = lookups.getT1().get(item.getTemplateId());
+                        DatabaseConfig config = lookups.getT2().get(item.getDatabaseConfigId());
+                        if (template == null) {
+                            unresolved.add(new BatchQueryResult(i, null, "QueryTemplate not found with ID: " + item.getTemplateId()));
+                        } else if (config == null) {
+                            unresolved.add(new BatchQueryResult(i, null, "No DatabaseConfig found for ID: " + item.getDatabaseConfigId()));
+                        } else {
+                            runnable.add(new GrpcQueryExecutionService.BatchItem(i, template, config, item.getOverrideConditions()));
+                        }
+                    }
+                    return Flux.fromIterable(unresolved).concatWith(executionService.runBatch(runnable));
+                })
+                .onErrorResume(ex -> {
+                    log.error("❌ Error during batch query execution", ex);
+                    return Flux.just(new BatchQueryResult(-1, null, ex.getMessage()));
                 });
     }
 
@@ -0,0 +1,117 @@
+package com.sqlengine.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Metrics and {@code Vary} for HTTP response compression. Compression itself is Reactor Netty's
+ * ({@code server.compression.*}), which deflates buffers as they are written; responses with a
+ * {@code Content-Length} below {@code min-response-size} go out as-is. NDJSON and SSE are not among the
+ * compressible mime types, so rows are flushed per element.
+ *
+ * <p>Every compressible response carries {@code Vary: Accept-Encoding}, whichever encoding it ends up
+ * with, so caches never serve a gzip body to a client that did not ask for one.</p>
+ */
+@Component
+public class CompressionMetricsWebFilter implements WebFilter {
+
+    private static final String IDENTITY = "identity";
+
+    private final boolean enabled;
+    private final long minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final Counter rawBytes;
+    private final Map<String, Counter> messages;
+
+    public CompressionMetricsWebFilter(@Value("${server.compression.enabled:false}") boolean enabled,
+                                       @Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize,
+                                       @Value("${server.compression.mime-types:application/json}") String[] mimeTypes,
+                                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.minResponseSize = minResponseSize.toBytes();
+        this.mimeTypes = Arrays.stream(mimeTypes).map(MediaType::parseMediaType).toList();
+        this.rawBytes = Counter.builder("query.compression.raw.bytes").tag("transport", "http").register(meterRegistry);
+        this.messages = Map.of(
+                "gzip", messageCounter(meterRegistry, "gzip"),
+                "deflate", messageCounter(meterRegistry, "deflate"),
+                IDENTITY, messageCounter(meterRegistry, IDENTITY));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(exchange);
+        }
+        String accepted = negotiate(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            record(response.getHeaders(), accepted);
+            return Mono.empty();
+        });
+        return chain.filter(exchange);
+    }
+
+    private void record(HttpHeaders headers, String accepted) {
+        if (!isCompressible(headers.getContentType()) || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+        if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        long length = headers.getContentLength();
+        // Same rule as Reactor Netty: bodies of unknown length are always compressed
+        boolean compressed = accepted != null && (length < 0 || length >= minResponseSize);
+        messages.get(compressed ? accepted : IDENTITY).increment();
+        if (compressed && length > 0) {
+            rawBytes.increment(length);
+        }
+    }
+
+    private boolean isCompressible(MediaType contentType) {
+        return contentType != null && mimeTypes.stream().anyMatch(type -> type.isCompatibleWith(contentType));
+    }
+
+    /**
+     * The encoding Netty's compressor picks: gzip over deflate; anything else (or q=0) means identity.
+     */
+    private static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (tokens.length > 1 && tokens[1].trim().replace(" ", "").matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if (coding.equals("gzip")) {
+                return "gzip";
+            }
+            deflate |= coding.equals("deflate");
+        }
+        return deflate ? "deflate" : null;
+    }
+
+    private static Counter messageCounter(MeterRegistry meterRegistry, String encoding) {
+        return Counter.builder("query.compression.messages")
+                .tag("transport", "http")
+                .tag("encoding", encoding)
+                .register(meterRegistry);
+    }
+}
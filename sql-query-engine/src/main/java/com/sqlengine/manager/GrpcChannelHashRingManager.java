@@ -1,64 +1,329 @@
 package com.sqlengine.manager;
 
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Sticky, consistent-hashed gRPC channel manager using SHA-256.
+ * Sticky, consistent-hashed gRPC channel manager using SHA-256, with bounded loads.
+ *
+ * <p>Execution nodes are {@code host:port} endpoints read from {@code grpc.execution.endpoints-file}
+ * (one per line, reloaded periodically), falling back to {@code grpc.execution.endpoints} or the legacy
+ * {@code grpc.execution.host} + {@code grpc.execution.ports}. The ring is an immutable snapshot swapped
+ * atomically when membership changes; channels of removed nodes are shut down gracefully and their load
+ * counters dropped. Channels are only created for members of the current snapshot, so a lookup racing a
+ * removal cannot resurrect a channel to a node that has left.</p>
+ *
+ * <p>A key normally goes to its owner on the ring. Once the owner has more in-flight calls than
+ * {@code ceil(loadFactor * (totalInFlight + 1) / nodes)}, the key spills to the next node clockwise
+ * that is under that bound, so only hot keys move and everything else stays sticky.</p>
  */
+@Slf4j
 @Component
 public class GrpcChannelHashRingManager {
 
-    private final List<Integer> ports;
-    private final String host;
-    private final Map<Integer, ManagedChannel> channelCache = new ConcurrentHashMap<>();
-    private final TreeMap<Integer, Integer> consistentHashRing = new TreeMap<>();
+    private static final int VIRTUAL_NODES = 100;
+
+    private final List<String> configuredEndpoints;
+    private final String endpointsFile;
+    private final double loadFactor;
+
+    private final AtomicReference<RingSnapshot> ring = new AtomicReference<>(RingSnapshot.EMPTY);
+    private final Map<String, ManagedChannel> channelCache = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+    /** Orders channel creation against the removal of a node's channel */
+    private final Object membershipLock = new Object();
 
     public GrpcChannelHashRingManager(
-            @Value("${grpc.execution.ports}") String portsCsv,
-            @Value("${grpc.execution.host}") String host
+            @Value("${grpc.execution.ports:}") String portsCsv,
+            @Value("${grpc.execution.host:localhost}") String host,
+            @Value("${grpc.execution.endpoints:}") String endpointsCsv,
+            @Value("${grpc.execution.endpoints-file:}") String endpointsFile,
+            @Value("${grpc.execution.load-factor:1.25}") double loadFactor
     ) {
-        this.host = host;
-        this.ports = Arrays.stream(portsCsv.split(","))
-                .map(String::trim)
-                .map(Integer::parseInt)
-                .toList();
+        this.endpointsFile = endpointsFile;
+        this.loadFactor = loadFactor;
 
-        buildHashRing();
+        if (StringUtils.hasText(endpointsCsv)) {
+            this.configuredEndpoints = parseEndpoints(Arrays.asList(endpointsCsv.split(",")));
+        } else {
+            this.configuredEndpoints = Arrays.stream(portsCsv.split(","))
+                    .map(String::trim)
+                    .filter(StringUtils::hasText)
+                    .map(port -> host + ":" + Integer.parseInt(port))
+                    .toList();
+        }
+
+        refreshMembership();
     }
 
-    private void buildHashRing() {
-        for (int port : ports) {
-            for (int v = 0; v < 100; v++) {
-                String virtualNodeId = port + "-VN-" + v;
-                int hash = computeHash(virtualNodeId);
-                consistentHashRing.put(hash, port);
+    /**
+     * Re-reads the endpoints file and rebuilds the ring if the membership changed.
+     */
+    @Scheduled(fixedDelayString = "${grpc.execution.endpoints-refresh-ms:10000}")
+    public void refreshMembership() {
+        List<String> endpoints = loadEndpoints();
+        RingSnapshot current = ring.get();
+        if (endpoints.isEmpty() || endpoints.equals(current.endpoints())) {
+            return;
+        }
+
+        RingSnapshot next = RingSnapshot.build(endpoints);
+        if (!ring.compareAndSet(current, next)) {
+            return;
+        }
+        log.info("🔁 Execution ring rebuilt: {} -> {}", current.endpoints(), endpoints);
+
+        synchronized (membershipLock) {
+            for (String removed : current.endpoints()) {
+                if (!next.endpoints().contains(removed)) {
+                    ManagedChannel channel = channelCache.remove(removed);
+                    inFlight.remove(removed);
+                    if (channel != null) {
+                        // In-flight calls finish; new calls already route through the new ring
+                        channel.shutdown();
+                        log.info("🧹 Shut down channel to removed execution node {}", removed);
+                    }
+                }
             }
         }
     }
 
     public ManagedChannel getChannelForKey(String key) {
-        int hash = computeHash(key);
-        Map.Entry<Integer, Integer> entry = consistentHashRing.ceilingEntry(hash);
-        if (entry == null) {
-            entry = consistentHashRing.firstEntry(); // wrap around
-        }
-        int selectedPort = entry.getValue();
-        return channelCache.computeIfAbsent(selectedPort,
-                p -> ManagedChannelBuilder.forAddress(host, p).usePlaintext().build());
+        return getChannelsForKey(key, 1).get(0);
+    }
+
+    /**
+     * Up to {@code count} distinct channels for the key in preference order: the bounded-load choice
+     * first, then the following nodes clockwise on the ring.
+     */
+    public List<ManagedChannel> getChannelsForKey(String key, int count) {
+        while (true) {
+            RingSnapshot snapshot = ring.get();
+            if (snapshot.endpoints().isEmpty()) {
+                throw new IllegalStateException("No gRPC execution endpoints configured");
+            }
+            List<ManagedChannel> channels = channelsForKey(snapshot, key, count);
+            if (channels != null) {
+                return channels;
+            }
+            // A chosen node left the ring while we were picking: pick again from the new snapshot
+        }
+    }
+
+    /**
+     * The channels for the key on one snapshot, or null if one of its nodes has since been removed.
+     */
+    private List<ManagedChannel> channelsForKey(RingSnapshot snapshot, String key, int count) {
+        List<String> owners = snapshot.walk(computeHash(key));
+        int capacity = (int) Math.ceil(loadFactor * (totalInFlight.get() + 1) / owners.size());
+
+        String selected = owners.get(0);
+        for (String endpoint : owners) {
+            if (loadOf(endpoint) < capacity) {
+                selected = endpoint;
+                break;
+            }
+        }
+        if (!selected.equals(owners.get(0))) {
+            log.debug("↪️ Key {} spilled from {} to {} (capacity {})", key, owners.get(0), selected, capacity);
+        }
+
+        List<ManagedChannel> channels = new ArrayList<>(Math.min(count, owners.size()));
+        List<String> chosen = new ArrayList<>(Math.min(count, owners.size()));
+        chosen.add(selected);
+        for (String endpoint : owners) {
+            if (chosen.size() >= count) break;
+            if (!endpoint.equals(selected)) {
+                chosen.add(endpoint);
+            }
+        }
+        for (String endpoint : chosen) {
+            ManagedChannel channel = channelFor(endpoint);
+            if (channel == null) {
+                return null;
+            }
+            channels.add(channel);
+        }
+        return channels;
+    }
+
+    /**
+     * In-flight calls per execution node, as counted by the channel interceptor.
+     */
+    public Map<String, Integer> inFlightByEndpoint() {
+        Map<String, Integer> loads = new LinkedHashMap<>();
+        for (String endpoint : ring.get().endpoints()) {
+            loads.put(endpoint, loadOf(endpoint));
+        }
+        return loads;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channelCache.values().forEach(ManagedChannel::shutdown);
+    }
+
+    private int loadOf(String endpoint) {
+        AtomicInteger load = inFlight.get(endpoint);
+        return load == null ? 0 : load.get();
+    }
+
+    /**
+     * The cached channel to a node, created on first use; null if the node is no longer in the ring.
+     */
+    private ManagedChannel channelFor(String endpoint) {
+        ManagedChannel cached = channelCache.get(endpoint);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (membershipLock) {
+            if (!ring.get().endpoints().contains(endpoint)) {
+                return null;
+            }
+            return channelCache.computeIfAbsent(endpoint, e -> {
+                int separator = e.lastIndexOf(':');
+                return ManagedChannelBuilder.forAddress(e.substring(0, separator), Integer.parseInt(e.substring(separator + 1)))
+                        .usePlaintext()
+                        .intercept(new InFlightCounter(inFlight.computeIfAbsent(e, k -> new AtomicInteger())))
+                        .build();
+            });
+        }
+    }
+
+    private List<String> loadEndpoints() {
+        if (StringUtils.hasText(endpointsFile)) {
+            Path path = Path.of(endpointsFile);
+            if (Files.exists(path)) {
+                try {
+                    List<String> endpoints = parseEndpoints(Files.readAllLines(path));
+                    if (!endpoints.isEmpty()) {
+                        return endpoints;
+                    }
+                    log.warn("⚠️ Endpoints file {} is empty, keeping configured endpoints", endpointsFile);
+                } catch (IOException | IllegalArgumentException e) {
+                    log.error("❌ Failed to read endpoints file {}, keeping current ring", endpointsFile, e);
+                    return ring.get().endpoints();
+                }
+            }
+        }
+        return configuredEndpoints;
+    }
+
+    private List<String> parseEndpoints(List<String> lines) {
+        TreeSet<String> endpoints = new TreeSet<>();
+        for (String line : lines) {
+            String endpoint = line.trim();
+            if (endpoint.isEmpty() || endpoint.startsWith("#")) continue;
+            int separator = endpoint.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid execution endpoint (expected host:port): " + endpoint);
+            }
+            Integer.parseInt(endpoint.substring(separator + 1));
+            endpoints.add(endpoint);
+        }
+        return List.copyOf(endpoints);
     }
 
     /**
      * Generates a stable 32-bit int from the first 8 hex chars of SHA-256 hash.
      */
-    private int computeHash(String key) {
+    private static int computeHash(String key) {
         String sha256Hex = DigestUtils.sha256Hex(key);
         return Integer.parseUnsignedInt(sha256Hex.substring(0, 8), 16);
     }
+
+    /**
+     * Immutable ring: virtual-node hash to endpoint, plus the sorted endpoint list it was built from.
+     */
+    private record RingSnapshot(TreeMap<Integer, String> ring, List<String> endpoints) {
+
+        static final RingSnapshot EMPTY = new RingSnapshot(new TreeMap<>(), List.of());
+
+        static RingSnapshot build(List<String> endpoints) {
+            TreeMap<Integer, String> ring = new TreeMap<>();
+            for (String endpoint : endpoints) {
+                for (int v = 0; v < VIRTUAL_NODES; v++) {
+                    ring.put(computeHash(endpoint + "-VN-" + v), endpoint);
+                }
+            }
+            return new RingSnapshot(ring, endpoints);
+        }
+
+        /**
+         * Distinct endpoints in clockwise order starting at the owner of the hash.
+         */
+        List<String> walk(int hash) {
+            LinkedHashSet<String> owners = new LinkedHashSet<>();
+            for (String endpoint : ring.tailMap(hash, true).values()) {
+                owners.add(endpoint);
+                if (owners.size() == endpoints.size()) return new ArrayList<>(owners);
+            }
+            for (String endpoint : ring.headMap(hash, false).values()) { // wrap around
+                owners.add(endpoint);
+                if (owners.size() == endpoints.size()) break;
+            }
+            return new ArrayList<>(owners);
+        }
+    }
+
+    /**
+     * Counts calls from start until close, which is what the bounded-load check compares against.
+     */
+    private final class InFlightCounter implements ClientInterceptor {
+
+        private final AtomicInteger counter;
+
+        InFlightCounter(AtomicInteger counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                                   CallOptions callOptions, Channel next) {
+            return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+                @Override
+                public void start(Listener<RespT> responseListener, Metadata headers) {
+                    AtomicBoolean released = new AtomicBoolean();
+                    counter.incrementAndGet();
+                    totalInFlight.incrementAndGet();
+                    super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                        @Override
+                        public void onClose(Status status, Metadata trailers) {
+                            if (released.compareAndSet(false, true)) {
+                                counter.decrementAndGet();
+                                totalInFlight.decrementAndGet();
+                            }
+                            super.onClose(status, trailers);
+                        }
+                    }, headers);
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,193 @@
+package com.sqlengine.manager;
+
+import com.sqlengine.model.QueryTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Decides when a read-only query may be hedged to a second execution node and after how long.
+ *
+ * <p>The hedge delay is a percentile of recently observed RunQuery latencies, so only the slow tail
+ * gets a second request. A token bucket caps hedges to {@code budget-percent} of eligible requests
+ * (plus a small burst), so a cluster-wide slowdown cannot double the load.</p>
+ */
+@Slf4j
+@Component
+public class HedgingPolicy {
+
+    private static final int WINDOW = 1024;
+    private static final int MIN_SAMPLES = 50;
+    private static final long TOKEN = 1000;
+    private static final long RECOMPUTE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Pattern READ_ONLY_START = Pattern.compile("^\\s*(SELECT|WITH)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WRITE_KEYWORDS = Pattern.compile(
+            "\\b(INSERT|UPDATE|DELETE|MERGE|UPSERT|REPLACE|CREATE|ALTER|DROP|TRUNCATE|GRANT|REVOKE|CALL|EXEC|EXECUTE|INTO|FOR\\s+UPDATE|FOR\\s+SHARE|LOCK)\\b",
+            Pattern.CASE_INSENSITIVE);
+    /** Functions and constructs that change state even inside a SELECT: sequences, locks, settings, notifications. */
+    private static final Pattern SIDE_EFFECTS = Pattern.compile(
+            "\\b(NEXTVAL|SETVAL|LASTVAL|NEXT\\s+VALUE\\s+FOR|PG_(TRY_)?ADVISORY_(XACT_)?LOCK(_SHARED)?|PG_ADVISORY_UNLOCK(_SHARED|_ALL)?"
+                    + "|GET_LOCK|RELEASE_LOCK|RELEASE_ALL_LOCKS|SET_CONFIG|PG_NOTIFY|TXID_CURRENT|PG_CURRENT_XACT_ID"
+                    + "|PG_TERMINATE_BACKEND|PG_CANCEL_BACKEND|PG_RELOAD_CONF|LO_IMPORT|LO_EXPORT|LO_UNLINK|LO_CREAT|LO_CREATE"
+                    + "|DBLINK|DBLINK_EXEC|DBMS_LOCK|DBMS_PIPE|SP_GETAPPLOCK|SP_RELEASEAPPLOCK)\\b|:=",
+            Pattern.CASE_INSENSITIVE);
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long depositPerRequest;
+    private final long maxTokens;
+
+    private final long[] samples = new long[WINDOW];
+    private final AtomicLong sampleCursor = new AtomicLong();
+    private final AtomicLong tokens;
+    private volatile long delayNanos;
+    private volatile long delayComputedAt;
+
+    public HedgingPolicy(@Value("${grpc.hedging.enabled:false}") boolean enabled,
+                         @Value("${grpc.hedging.delay-percentile:0.95}") double percentile,
+                         @Value("${grpc.hedging.initial-delay-ms:100}") long initialDelayMs,
+                         @Value("${grpc.hedging.min-delay-ms:10}") long minDelayMs,
+                         @Value("${grpc.hedging.max-delay-ms:2000}") long maxDelayMs,
+                         @Value("${grpc.hedging.budget-percent:10}") int budgetPercent,
+                         @Value("${grpc.hedging.max-burst:10}") int maxBurst) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(initialDelayMs);
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.depositPerRequest = TOKEN * budgetPercent / 100;
+        this.maxTokens = TOKEN * maxBurst;
+        this.tokens = new AtomicLong(maxTokens);
+        this.delayNanos = initialDelayNanos;
+        this.delayComputedAt = System.nanoTime() - RECOMPUTE_INTERVAL_NANOS - 1;
+    }
+
+    /**
+     * Whether the template may be sent to two nodes: hedging is on and the query cannot modify data.
+     */
+    public boolean isHedgeable(QueryTemplate template) {
+        return enabled && isReadOnly(template);
+    }
+
+    /**
+     * Native SQL must pass {@link #isReadOnlySql}. A structured SELECT must too for every raw SQL it splices
+     * in: CTE and subquery bodies, join conditions and column expressions, and the same for each UNION
+     * member; a data-modifying CTE such as {@code WITH d AS (DELETE ... RETURNING *)} would otherwise run twice.
+     */
+    static boolean isReadOnly(QueryTemplate template) {
+        if (StringUtils.hasText(template.getSqlQuery())) {
+            return isReadOnlySql(template.getSqlQuery());
+        }
+        if (!"SELECT".equalsIgnoreCase(template.getQueryType())) {
+            return false;
+        }
+        if (template.getCtes() != null && !template.getCtes().stream().allMatch(cte -> isReadOnlySql(cte.getQuery()))) {
+            return false;
+        }
+        if (template.getSubqueries() != null && !template.getSubqueries().stream().allMatch(sub -> isReadOnlySql(sub.getQuery()))) {
+            return false;
+        }
+        if (template.getJoins() != null && !template.getJoins().stream().allMatch(join -> isReadOnlyFragment(join.getOnCondition()))) {
+            return false;
+        }
+        if (template.getSelectedColumns() != null
+                && !template.getSelectedColumns().stream().allMatch(column -> isReadOnlyFragment(column.getExpression()))) {
+            return false;
+        }
+        return template.getUnions() == null
+                || template.getUnions().stream().allMatch(union -> union.getTemplate() != null && isReadOnly(union.getTemplate()));
+    }
+
+    /**
+     * An expression spliced into a statement: no statement separator, comment, write/locking keyword or
+     * side-effecting function.
+     */
+    static boolean isReadOnlyFragment(String fragment) {
+        if (!StringUtils.hasText(fragment)) {
+            return true;
+        }
+        if (fragment.contains(";") || fragment.contains("--") || fragment.contains("/*")) {
+            return false;
+        }
+        return !WRITE_KEYWORDS.matcher(fragment).find() && !SIDE_EFFECTS.matcher(fragment).find();
+    }
+
+    /**
+     * Conservative read-only check for native SQL: a single SELECT/WITH statement without any
+     * data-modifying or locking keyword, {@code SELECT ... INTO} or known side-effecting function
+     * ({@code nextval}, advisory locks, {@code GET_LOCK}, variable assignment). User functions that write
+     * cannot be told apart from reads; keep hedging disabled for configs that call them.
+     */
+    static boolean isReadOnlySql(String sql) {
+        if (!StringUtils.hasText(sql)) {
+            return false;
+        }
+        String trimmed = sql.strip();
+        if (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        if (trimmed.contains(";") || trimmed.contains("--") || trimmed.contains("/*")) {
+            return false;
+        }
+        return READ_ONLY_START.matcher(trimmed).find() && !WRITE_KEYWORDS.matcher(trimmed).find()
+                && !SIDE_EFFECTS.matcher(trimmed).find();
+    }
+
+    /**
+     * Called once per eligible request; earns the budget that hedges spend.
+     */
+    public void onRequest() {
+        tokens.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxTokens, current + deposit));
+    }
+
+    /**
+     * Takes one hedge from the budget, or returns false if the budget is exhausted.
+     */
+    public boolean tryAcquireHedge() {
+        while (true) {
+            long current = tokens.get();
+            if (current < TOKEN) {
+                log.debug("🪙 Hedging budget exhausted, waiting for primary only");
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    public void recordLatency(long nanos) {
+        samples[(int) (sampleCursor.getAndIncrement() % WINDOW)] = nanos;
+    }
+
+    /**
+     * Current hedge delay: the configured percentile of the latency window, recomputed at most once per second.
+     */
+    public Duration hedgeDelay() {
+        long now = System.nanoTime();
+        if (now - delayComputedAt > RECOMPUTE_INTERVAL_NANOS) {
+            delayComputedAt = now;
+            int count = (int) Math.min(sampleCursor.get(), WINDOW);
+            if (count >= MIN_SAMPLES) {
+                long[] window = Arrays.copyOf(samples, count);
+                Arrays.sort(window);
+                long value = window[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+                delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, value));
+            } else {
+                delayNanos = initialDelayNanos;
+            }
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+}
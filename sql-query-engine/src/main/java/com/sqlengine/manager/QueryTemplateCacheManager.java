@@ -53,6 +53,15 @@ public class QueryTemplateCacheManager {
         ).map(CachedQueryTemplate::getTemplate);
     }
 
+    /**
+     * Reactive get by ID including the content hash, which identifies the template version
+     */
+    public Mono<CachedQueryTemplate> getCachedById(String templateId) {
+        return Mono.fromFuture(
+                asyncCache.get(templateId, (key, executor) -> loadFromMongo(key).toFuture())
+        );
+    }
+
 
 
     /**
@@ -1,58 +1,285 @@
 package com.sqlengine.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sqlengine.dto.BatchQueryResult;
+import com.sqlengine.dto.CachedQueryTemplate;
+import com.sqlengine.grpc.BatchItemResult;
+import com.sqlengine.grpc.BatchQueryItem;
+import com.sqlengine.grpc.BatchRunRequest;
+import com.sqlengine.grpc.PrepareTemplateRequest;
+import com.sqlengine.grpc.PrepareTemplateResponse;
+import com.sqlengine.grpc.QueryRunChunk;
 import com.sqlengine.grpc.QueryRunRequest;
 import com.sqlengine.grpc.QueryRunResponse;
-import com.sqlengine.grpc.QueryRunnerServiceGrpc;
+import com.sqlengine.grpc.ReactorQueryRunnerServiceGrpc;
+import com.sqlengine.grpc.ResultEncoding;
 import com.sqlengine.manager.GrpcChannelHashRingManager;
+import com.sqlengine.manager.HedgingPolicy;
 import com.sqlengine.mapper.GrpcModelMapper;
+import com.sqlengine.mapper.ResultBlockMapper;
 import com.sqlengine.model.DatabaseConfig;
-import com.sqlengine.model.QueryTemplate;
 import com.sqlengine.model.query.QueryCondition;
 import io.grpc.ManagedChannel;
-import io.grpc.stub.StreamObserver;
+import io.grpc.Status;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
 import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class GrpcQueryExecutionService {
 
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
     private final GrpcChannelHashRingManager channelManager;
+    private final HedgingPolicy hedgingPolicy;
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public Mono<String> runQuery(QueryTemplate template, DatabaseConfig config, List<QueryCondition> override) {
-        String key = config.getId();
+    /**
+     * Handles returned by PrepareTemplate, keyed by execution node and template version.
+     */
+    private final Cache<String, String> preparedHandles = Caffeine.newBuilder()
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .maximumSize(5000)
+            .build();
 
-        ManagedChannel channel = channelManager.getChannelForKey(key);
-        QueryRunnerServiceGrpc.QueryRunnerServiceStub stub = QueryRunnerServiceGrpc.newStub(channel);
+    public Mono<String> runQuery(CachedQueryTemplate template, DatabaseConfig config, List<QueryCondition> override) {
+        return runQueryPage(template, config, override, null).map(QueryRunResponse::getJsonResult);
+    }
 
-        QueryRunRequest request = QueryRunRequest.newBuilder()
-                .setTemplate(GrpcModelMapper.toProto(template))
-                .setConfig(GrpcModelMapper.toProto(config))
-                .addAllOverrideConditions(override.stream().map(GrpcModelMapper::toProto).toList())
-                .build();
+    /**
+     * Runs the query and returns the full response, including the continuation token of the next
+     * page when the template uses KEYSET pagination.
+     */
+    public Mono<QueryRunResponse> runQueryPage(CachedQueryTemplate template, DatabaseConfig config,
+                                               List<QueryCondition> override, String continuationToken) {
+        if (!hedgingPolicy.isHedgeable(template.getTemplate())) {
+            return runQueryOn(channelManager.getChannelForKey(config.getId()), template, config, override, continuationToken);
+        }
+        return Mono.defer(() -> runHedged(template, config, override, continuationToken));
+    }
 
-        return Mono.create(sink ->
-                stub.runQuery(request, new StreamObserver<>() {
-                    @Override
-                    public void onNext(QueryRunResponse value) {
-                        sink.success(value.getJsonResult());
-                    }
+    private Mono<QueryRunResponse> runHedged(CachedQueryTemplate template, DatabaseConfig config,
+                                             List<QueryCondition> override, String continuationToken) {
+        List<ManagedChannel> channels = channelManager.getChannelsForKey(config.getId(), 2);
+        hedgingPolicy.onRequest();
+        long start = System.nanoTime();
+        Sinks.One<Boolean> primaryFailed = Sinks.one();
+        // A primary cancelled because the hedge won is sampled at its elapsed time, a lower bound of its latency;
+        // sampling completions only would drop exactly the slow calls and shrink the hedge delay over time.
+        Mono<QueryRunResponse> primary = runQueryOn(channels.get(0), template, config, override, continuationToken)
+                .doOnSuccess(result -> hedgingPolicy.recordLatency(System.nanoTime() - start))
+                .doOnCancel(() -> hedgingPolicy.recordLatency(System.nanoTime() - start))
+                .doOnError(error -> primaryFailed.tryEmitValue(true));
+        if (channels.size() < 2) {
+            return primary;
+        }
 
-                    @Override
-                    public void onError(Throwable t) {
-                        sink.error(t);
-                    }
+        // If the primary is still running after the delay, and the budget allows, ask the next node too;
+        // the first answer wins and the other call is cancelled. A primary failing before the delay is not hedged.
+        Mono<QueryRunResponse> hedge = Mono.delay(hedgingPolicy.hedgeDelay())
+                .takeUntilOther(primaryFailed.asMono())
+                .filter(tick -> hedgingPolicy.tryAcquireHedge())
+                .flatMap(tick -> {
+                    log.debug("🏁 Hedging query for template {} to {}", template.getTemplate().getId(), channels.get(1).authority());
+                    return runQueryOn(channels.get(1), template, config, override, continuationToken);
+                });
+        return Mono.firstWithValue(primary, hedge)
+                .onErrorMap(NoSuchElementException.class, this::unwrapHedgeError);
+    }
 
-                    @Override
-                    public void onCompleted() {
+    private Mono<QueryRunResponse> runQueryOn(ManagedChannel channel, CachedQueryTemplate template, DatabaseConfig config,
+                                              List<QueryCondition> override, String continuationToken) {
+        return withPreparedTemplate(channel, template, (stub, handle) ->
+                stub.runQuery(buildRequest(handle, template, config, override)
+                        .setContinuationToken(continuationToken != null ? continuationToken : "")
+                        .build()))
+                .next();
+    }
+
+    /**
+     * firstWithValue reports "all sources failed" as NoSuchElementException; surface the primary's error instead.
+     */
+    private Throwable unwrapHedgeError(NoSuchElementException error) {
+        if (error.getCause() != null) {
+            List<Throwable> errors = Exceptions.unwrapMultiple(error.getCause());
+            if (!errors.isEmpty()) {
+                return errors.get(0);
+            }
+        }
+        return error;
+    }
+
+    /**
+     * Streams the result as rows decoded from the columnar chunks sent by the execution node.
+     */
+    public Flux<Map<String, Object>> runQueryRows(CachedQueryTemplate template, DatabaseConfig config, List<QueryCondition> override) {
+        return runQueryStream(template, config, override)
+                .concatMapIterable(this::toRows);
+    }
+
+    /**
+     * Streams the result as columnar batches. Cancelling the Flux cancels the call, which releases
+     * the database cursor on the execution node; demand is forwarded to the node as gRPC flow control.
+     */
+    public Flux<QueryRunChunk> runQueryStream(CachedQueryTemplate template, DatabaseConfig config, List<QueryCondition> override) {
+        return withPreparedTemplate(channelManager.getChannelForKey(config.getId()), template, (stub, handle) ->
+                stub.runQueryStream(buildRequest(handle, template, config, override)
+                        .setEncoding(ResultEncoding.COLUMNAR)
+                        .build()));
+    }
+
+    /**
+     * Runs the items as one RunBatch call per execution node and merges the result streams, so each
+     * result is emitted as soon as its node reports it. Results carry the item index, not request order.
+     */
+    public Flux<BatchQueryResult> runBatch(List<BatchItem> items) {
+        Map<ManagedChannel, List<BatchItem>> byNode = items.stream()
+                .collect(Collectors.groupingBy(item -> channelManager.getChannelForKey(item.config().getId()),
+                        LinkedHashMap::new, Collectors.toList()));
+        return Flux.fromIterable(byNode.entrySet())
+                .flatMap(entry -> runBatchOnNode(entry.getKey(), entry.getValue()));
+    }
+
+    private Flux<BatchQueryResult> runBatchOnNode(ManagedChannel channel, List<BatchItem> items) {
+        ReactorQueryRunnerServiceGrpc.ReactorQueryRunnerServiceStub stub = ReactorQueryRunnerServiceGrpc.newReactorStub(channel);
+        Map<Integer, BatchItem> byIndex = items.stream().collect(Collectors.toMap(BatchItem::index, item -> item));
+        Set<Integer> reported = ConcurrentHashMap.newKeySet();
+
+        // Prepare each distinct template once for this node before sending the batch
+        return Flux.fromIterable(items)
+                .map(BatchItem::template)
+                .distinct(template -> handleKey(channel, template))
+                .flatMap(template -> handleFor(stub, handleKey(channel, template), template)
+                        .map(handle -> Map.entry(handleKey(channel, template), handle)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMapMany(handles -> {
+                    BatchRunRequest.Builder batch = BatchRunRequest.newBuilder();
+                    for (BatchItem item : items) {
+                        batch.addItems(BatchQueryItem.newBuilder()
+                                .setIndex(item.index())
+                                .setRequest(buildRequest(handles.get(handleKey(channel, item.template())),
+                                        item.template(), item.config(), item.overrides())));
+                    }
+                    return stub.runBatch(batch.build());
+                })
+                .flatMap(result -> {
+                    // The node lost the handle between prepare and run; rerun the item alone, which re-prepares
+                    if (result.getStatusCode() == Status.Code.FAILED_PRECONDITION.value()) {
+                        BatchItem item = byIndex.get(result.getIndex());
+                        return runQuery(item.template(), item.config(), item.overrides())
+                                .map(json -> new BatchQueryResult(item.index(), json, null))
+                                .onErrorResume(ex -> Mono.just(new BatchQueryResult(item.index(), null, ex.getMessage())));
                     }
+                    return Mono.just(toBatchResult(result));
                 })
-        );
+                .doOnNext(result -> reported.add(result.getIndex()))
+                .onErrorResume(ex -> {
+                    log.error("❌ Batch call to {} failed", channel.authority(), ex);
+                    return Flux.fromIterable(items)
+                            .filter(item -> !reported.contains(item.index()))
+                            .map(item -> new BatchQueryResult(item.index(), null, ex.getMessage()));
+                });
     }
-}
 
+    private BatchQueryResult toBatchResult(BatchItemResult result) {
+        return result.getStatusCode() == Status.Code.OK.value()
+                ? new BatchQueryResult(result.getIndex(), result.getJsonResult(), null)
+                : new BatchQueryResult(result.getIndex(), null, result.getError());
+    }
+
+    /**
+     * Runs the call with the template's handle on the given node, preparing it first if this node has
+     * not seen this template version yet. If the node lost the handle (restart, eviction) the template
+     * is re-prepared and the call retried once.
+     */
+    private <T> Flux<T> withPreparedTemplate(ManagedChannel channel, CachedQueryTemplate template,
+                                             BiFunction<ReactorQueryRunnerServiceGrpc.ReactorQueryRunnerServiceStub, String, Publisher<T>> call) {
+        ReactorQueryRunnerServiceGrpc.ReactorQueryRunnerServiceStub stub = ReactorQueryRunnerServiceGrpc.newReactorStub(channel);
+        String key = handleKey(channel, template);
+
+        return handleFor(stub, key, template)
+                .flatMapMany(handle -> call.apply(stub, handle))
+                .onErrorResume(this::isHandleMiss, ex -> {
+                    log.info("♻️ Template handle expired on {}, re-preparing: {}", channel.authority(), ex.getMessage());
+                    preparedHandles.invalidate(key);
+                    return handleFor(stub, key, template).flatMapMany(handle -> call.apply(stub, handle));
+                });
+    }
 
+    private Mono<String> handleFor(ReactorQueryRunnerServiceGrpc.ReactorQueryRunnerServiceStub stub, String key, CachedQueryTemplate template) {
+        String handle = preparedHandles.getIfPresent(key);
+        if (handle != null) {
+            return Mono.just(handle);
+        }
+        PrepareTemplateRequest request = PrepareTemplateRequest.newBuilder()
+                .setTemplate(GrpcModelMapper.toProto(template.getTemplate()))
+                .setTemplateVersion(template.getHash())
+                .build();
+        return stub.prepareTemplate(request)
+                .map(PrepareTemplateResponse::getHandle)
+                .doOnNext(prepared -> preparedHandles.put(key, prepared));
+    }
+
+    private String handleKey(ManagedChannel channel, CachedQueryTemplate template) {
+        return channel.authority() + "|" + template.getTemplate().getId() + "|" + template.getHash();
+    }
+
+    private boolean isHandleMiss(Throwable error) {
+        return Status.fromThrowable(error).getCode() == Status.Code.FAILED_PRECONDITION;
+    }
+
+    private QueryRunRequest.Builder buildRequest(String handle, CachedQueryTemplate template, DatabaseConfig config, List<QueryCondition> override) {
+        QueryRunRequest.Builder builder = QueryRunRequest.newBuilder()
+                .setTemplateHandle(handle)
+                .setTemplateVersion(template.getHash())
+                .setConfigId(config.getId());
+        if (override != null) {
+            builder.addAllOverrideConditions(override.stream().map(GrpcModelMapper::toProto).toList());
+        }
+        return builder;
+    }
+
+    /**
+     * One resolved item of a batch: the position in the caller's request and what to run.
+     */
+    public record BatchItem(int index, CachedQueryTemplate template, DatabaseConfig config, List<QueryCondition> overrides) {
+    }
+
+    private List<Map<String, Object>> toRows(QueryRunChunk chunk) {
+        if (chunk.hasBlock()) {
+            return ResultBlockMapper.toRows(chunk.getBlock());
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(chunk.getRowsCount());
+        for (String row : chunk.getRowsList()) {
+            try {
+                rows.add(objectMapper.readValue(row, ROW_TYPE));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Malformed row in query result chunk", e);
+            }
+        }
+        return rows;
+    }
+}
@@ -1,6 +1,6 @@
 package com.sqlengine.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqlengine.enums.QueryOperator;
 import com.sqlengine.manager.QueryTemplateCacheManager;
 import com.sqlengine.model.QueryTemplate;
 import com.sqlengine.model.query.CteBlock;
@@ -8,13 +8,16 @@ import com.sqlengine.model.query.JoinConfig;
 import com.sqlengine.model.query.QueryCondition;
 import com.sqlengine.model.query.SelectedColumn;
 import com.sqlengine.repository.QueryTemplateRepository;
+import com.sqlengine.utils.QueryParamCaster;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -29,6 +32,9 @@ public class QueryTemplateService {
     private final QueryTemplateRepository repository;
     private final QueryTemplateCacheManager cacheManager;
 
+    @Value("${query.in-list.max-values:10000}")
+    private int maxInListValues;
+
     public Mono<QueryTemplate> save(QueryTemplate template) {
         return repository.findByTemplateName(template.getTemplateName())
                 .flatMap(existing -> Mono.<QueryTemplate>error(
@@ -196,18 +202,23 @@ public class QueryTemplateService {
             }
         }
 
-        // Optional: IN clause size cap
-        if (template.getConditions() != null) {
-            for (QueryCondition condition : template.getConditions()) {
-                if ("IN".equalsIgnoreCase(condition.getOperator().name())) {
-                    try {
-                        List<?> list = new ObjectMapper().readValue(condition.getValue(), List.class);
-                        if (list.size() > 1000) {
-                            throw new IllegalArgumentException("IN clause exceeds allowed limit (1000 values max).");
-                        }
-                    } catch (Exception ignored) {
-                    }
-                }
+        // IN / NOT IN values must be lists within the configured size
+        validateInLists(template.getConditions());
+        validateInLists(template.getHavingConditions());
+    }
+
+    private void validateInLists(List<QueryCondition> conditions) {
+        if (conditions == null) {
+            return;
+        }
+        for (QueryCondition condition : conditions) {
+            if (condition.getOperator() != QueryOperator.IN && condition.getOperator() != QueryOperator.NOT_IN) {
+                continue;
+            }
+            int size = QueryParamCaster.castList(condition.getValue(), Types.VARCHAR).size();
+            if (size > maxInListValues) {
+                throw new IllegalArgumentException("IN clause on '" + condition.getFieldName()
+                        + "' exceeds allowed limit (" + maxInListValues + " values max).");
             }
         }
     }
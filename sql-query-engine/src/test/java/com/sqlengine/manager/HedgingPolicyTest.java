@@ -0,0 +1,138 @@
+package com.sqlengine.manager;
+
+import com.sqlengine.enums.JoinType;
+import com.sqlengine.model.QueryTemplate;
+import com.sqlengine.model.query.CteBlock;
+import com.sqlengine.model.query.JoinConfig;
+import com.sqlengine.model.query.SelectedColumn;
+import com.sqlengine.model.query.SubqueryBlock;
+import com.sqlengine.model.query.UnionQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingPolicyTest {
+
+    @Test
+    void plainSelectsAreReadOnly() {
+        assertTrue(HedgingPolicy.isReadOnlySql("SELECT id, name FROM users WHERE active = 1"));
+        assertTrue(HedgingPolicy.isReadOnlySql("  select count(*) from orders;"));
+        assertTrue(HedgingPolicy.isReadOnlySql("WITH recent AS (SELECT id FROM orders) SELECT * FROM recent"));
+    }
+
+    @Test
+    void dataModifyingCtesAreNotReadOnly() {
+        assertFalse(HedgingPolicy.isReadOnlySql("WITH d AS (DELETE FROM orders WHERE id = 1 RETURNING *) SELECT * FROM d"));
+        assertFalse(HedgingPolicy.isReadOnlySql("WITH u AS (UPDATE users SET seen = true RETURNING id) SELECT id FROM u"));
+        assertFalse(HedgingPolicy.isReadOnlySql("WITH i AS (INSERT INTO audit VALUES (1) RETURNING id) SELECT id FROM i"));
+    }
+
+    @Test
+    void lockingReadsAreNotReadOnly() {
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT * FROM accounts WHERE id = 7 FOR UPDATE"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT * FROM accounts WHERE id = 7 FOR SHARE"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT * FROM accounts WHERE id = 7 LOCK IN SHARE MODE"));
+    }
+
+    @Test
+    void sideEffectingFunctionsAreNotReadOnly() {
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT nextval('order_seq')"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT setval('order_seq', 10)"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT order_seq.NEXTVAL FROM dual"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT NEXT VALUE FOR order_seq"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT pg_advisory_lock(42)"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT pg_try_advisory_xact_lock(42)"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT GET_LOCK('job', 10)"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT @total := SUM(amount) FROM orders"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT amount INTO @total FROM orders WHERE id = 1"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT set_config('app.user', 'x', false)"));
+    }
+
+    @Test
+    void commentsAndSecondStatementsAreNotReadOnly() {
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT 1; DELETE FROM users"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT 1 -- harmless"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT /* DELETE */ 1"));
+        assertFalse(HedgingPolicy.isReadOnlyFragment("a.id = b.id -- DROP"));
+        assertFalse(HedgingPolicy.isReadOnlyFragment("a.id = b.id /* x */"));
+    }
+
+    @Test
+    void keywordsInQuotedLiteralsAreConservativelyNotReadOnly() {
+        // Literals are not parsed (quoting rules differ per dialect), so a keyword inside one still blocks hedging
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT * FROM notes WHERE body = 'please update me'"));
+        assertFalse(HedgingPolicy.isReadOnlySql("SELECT \"delete\" FROM flags"));
+        assertFalse(HedgingPolicy.isReadOnlyFragment("status = 'nextval'"));
+    }
+
+    @Test
+    void nonSelectStatementsAreNotReadOnly() {
+        assertFalse(HedgingPolicy.isReadOnlySql("UPDATE users SET active = 0"));
+        assertFalse(HedgingPolicy.isReadOnlySql("CALL refresh_stats()"));
+        assertFalse(HedgingPolicy.isReadOnlySql("  "));
+        assertFalse(HedgingPolicy.isReadOnlySql(null));
+    }
+
+    @Test
+    void rawSqlQueryDecidesOverTheQueryType() {
+        QueryTemplate select = new QueryTemplate();
+        select.setQueryType("SELECT");
+        select.setSqlQuery("DELETE FROM users");
+        assertFalse(HedgingPolicy.isReadOnly(select));
+
+        QueryTemplate raw = new QueryTemplate();
+        raw.setQueryType("NATIVE");
+        raw.setSqlQuery("SELECT * FROM users");
+        assertTrue(HedgingPolicy.isReadOnly(raw));
+    }
+
+    @Test
+    void structuredSelectsAreCheckedPerSplicedFragment() {
+        assertTrue(HedgingPolicy.isReadOnly(structured()));
+
+        QueryTemplate update = structured();
+        update.setQueryType("UPDATE");
+        assertFalse(HedgingPolicy.isReadOnly(update));
+
+        QueryTemplate cte = structured();
+        cte.setCtes(List.of(new CteBlock("d", "DELETE FROM orders RETURNING *")));
+        assertFalse(HedgingPolicy.isReadOnly(cte));
+
+        QueryTemplate subquery = structured();
+        subquery.setSubqueries(List.of(new SubqueryBlock("s", "SELECT nextval('order_seq')")));
+        assertFalse(HedgingPolicy.isReadOnly(subquery));
+
+        QueryTemplate join = structured();
+        join.setJoins(List.of(new JoinConfig(JoinType.INNER, "customers", "c", "orders.customer_id = c.id; DROP TABLE x")));
+        assertFalse(HedgingPolicy.isReadOnly(join));
+
+        QueryTemplate column = structured();
+        SelectedColumn locking = new SelectedColumn();
+        locking.setExpression("pg_advisory_lock(1)");
+        column.setSelectedColumns(List.of(locking));
+        assertFalse(HedgingPolicy.isReadOnly(column));
+
+        QueryTemplate union = structured();
+        UnionQuery writingMember = new UnionQuery();
+        QueryTemplate member = structured();
+        member.setCtes(List.of(new CteBlock("u", "UPDATE users SET seen = true RETURNING id")));
+        writingMember.setTemplate(member);
+        union.setUnions(List.of(writingMember));
+        assertFalse(HedgingPolicy.isReadOnly(union));
+    }
+
+    private static QueryTemplate structured() {
+        QueryTemplate template = new QueryTemplate();
+        template.setQueryType("SELECT");
+        template.setTableName("orders");
+        template.setCtes(List.of(new CteBlock("recent", "SELECT id FROM orders WHERE created_at > now() - interval '1 day'")));
+        template.setJoins(List.of(new JoinConfig(JoinType.LEFT, "customers", "c", "orders.customer_id = c.id")));
+        SelectedColumn total = new SelectedColumn();
+        total.setExpression("SUM(orders.amount)");
+        template.setSelectedColumns(List.of(total));
+        return template;
+    }
+}
@@ -6,63 +6,257 @@ import io.r2dbc.spi.IsolationLevel;
 import io.r2dbc.spi.Statement;
 import io.r2dbc.spi.TransactionDefinition;
 import io.r2dbc.spi.ValidationDepth;
+import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * R2DBC connection over one pooled JDBC connection.
+ *
+ * <p>Every JDBC call runs on a worker of the factory's executor that is pinned to this connection,
+ * so calls never block the caller and never overlap on the (not thread-safe) JDBC connection.
+ * Query rows are pulled from the {@code ResultSet} on that worker as downstream demand arrives,
+ * at most {@code prefetch} rows ahead.</p>
+ */
+@Slf4j
 public class BlockingConnectionAdapter implements io.r2dbc.spi.Connection {
 
+    @FunctionalInterface
+    public interface JdbcCallable<T> {
+        T call(Connection connection) throws SQLException;
+    }
+
     private final Connection jdbcConnection;
+    private final Scheduler.Worker worker;
+    private final Scheduler scheduler;
+    private final int defaultFetchSize;
+    private final int prefetch;
+    private final Map<String, Savepoint> savepoints = new HashMap<>();
+    private final String productName;
+    private final Runnable onClose;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile boolean autoCommit;
+    private volatile IsolationLevel isolationLevel;
+    private volatile Duration statementTimeout;
+    private volatile boolean readOnlyTransaction;
 
-    public BlockingConnectionAdapter(Connection jdbcConnection) {
+    /**
+     * Must be called on a thread that may block: it reads the connection's current settings.
+     */
+    public BlockingConnectionAdapter(Connection jdbcConnection, Scheduler executor, int defaultFetchSize, int prefetch,
+                                     Runnable onClose) throws SQLException {
         this.jdbcConnection = jdbcConnection;
+        this.onClose = onClose;
+        this.worker = executor.createWorker();
+        this.scheduler = Schedulers.fromExecutor(worker::schedule);
+        this.defaultFetchSize = defaultFetchSize;
+        this.prefetch = prefetch;
+        this.autoCommit = jdbcConnection.getAutoCommit();
+        this.isolationLevel = toIsolationLevel(jdbcConnection.getTransactionIsolation());
+        this.productName = jdbcConnection.getMetaData().getDatabaseProductName();
     }
 
     public Connection getJdbcConnection() {
         return this.jdbcConnection;
     }
 
+    int getDefaultFetchSize() {
+        return defaultFetchSize;
+    }
+
+    /**
+     * Runs a JDBC call on this connection's worker, translating {@link SQLException}s to R2DBC exceptions.
+     */
+    public <T> Mono<T> run(JdbcCallable<T> call) {
+        return Mono.fromCallable(() -> call.call(jdbcConnection))
+                .onErrorMap(SQLException.class, JdbcValues::translate)
+                .subscribeOn(scheduler);
+    }
+
+    private Mono<Void> runVoid(JdbcCallable<?> call) {
+        return run(call).then();
+    }
+
+    /**
+     * Rows of an executed query, read on this connection's worker in requests of at most {@code prefetch}
+     * rows. The statement (and with it the cursor) is closed on completion, error or cancellation.
+     */
+    Flux<JdbcRow> stream(java.sql.Statement statement, ResultSet rs) throws SQLException {
+        JdbcRowMetadata metadata = new JdbcRowMetadata(rs.getMetaData());
+        return Flux.<JdbcRow, ResultSet>generate(() -> rs, (cursor, sink) -> {
+                    try {
+                        if (cursor.next()) {
+                            sink.next(JdbcRow.read(cursor, metadata));
+                        } else {
+                            sink.complete();
+                        }
+                    } catch (SQLException e) {
+                        sink.error(JdbcValues.translate(e));
+                    }
+                    return cursor;
+                }, cursor -> closeOnWorker(statement))
+                .subscribeOn(scheduler)
+                .limitRate(prefetch);
+    }
+
+    void applyStatementTimeout(java.sql.Statement statement) throws SQLException {
+        Duration timeout = statementTimeout;
+        if (timeout != null && !timeout.isZero()) {
+            statement.setQueryTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        }
+    }
+
+    /**
+     * SQLite's driver only returns {@code last_insert_rowid()}, not keys requested by column name.
+     */
+    boolean supportsNamedGeneratedKeys() {
+        return !"SQLite".equalsIgnoreCase(productName);
+    }
+
     @Override
     public Publisher<Void> beginTransaction() {
-        return Mono.error(new UnsupportedOperationException("Reactive transaction not supported in JDBC adapter"));
+        return beginTransaction(EmptyTransactionDefinition.INSTANCE);
     }
 
     @Override
-    public Publisher<Void> close() {
-        return Mono.fromRunnable(() -> {
-            try {
-                jdbcConnection.close();
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to close JDBC connection", e);
+    public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+        IsolationLevel isolation = definition.getAttribute(TransactionDefinition.ISOLATION_LEVEL);
+        Boolean readOnly = definition.getAttribute(TransactionDefinition.READ_ONLY);
+        Duration lockWaitTimeout = definition.getAttribute(TransactionDefinition.LOCK_WAIT_TIMEOUT);
+
+        Mono<Void> begin = runVoid(jdbc -> {
+            if (isolation != null) {
+                jdbc.setTransactionIsolation(toJdbcIsolation(isolation));
+                isolationLevel = isolation;
             }
+            if (Boolean.TRUE.equals(readOnly)) {
+                try {
+                    jdbc.setReadOnly(true);
+                    readOnlyTransaction = true;
+                } catch (SQLException e) {
+                    log.debug("⚠️ {} cannot switch an open connection to read-only: {}", productName, e.getMessage());
+                }
+            }
+            jdbc.setAutoCommit(false);
+            autoCommit = false;
+            return null;
         });
+        return lockWaitTimeout == null ? begin : begin.then(Mono.from(setLockWaitTimeout(lockWaitTimeout)));
     }
 
     @Override
     public Publisher<Void> commitTransaction() {
-        return Mono.error(new UnsupportedOperationException("Not supported"));
+        return runVoid(jdbc -> {
+            if (!jdbc.getAutoCommit()) {
+                jdbc.commit();
+            }
+            endTransaction(jdbc);
+            return null;
+        });
     }
 
     @Override
-    public Batch createBatch() {
-        throw new UnsupportedOperationException("Not supported");
+    public Publisher<Void> rollbackTransaction() {
+        return runVoid(jdbc -> {
+            if (!jdbc.getAutoCommit()) {
+                jdbc.rollback();
+            }
+            endTransaction(jdbc);
+            return null;
+        });
+    }
+
+    private void endTransaction(Connection jdbc) throws SQLException {
+        savepoints.clear();
+        jdbc.setAutoCommit(true);
+        autoCommit = true;
+        if (readOnlyTransaction) {
+            jdbc.setReadOnly(false);
+            readOnlyTransaction = false;
+        }
     }
 
     @Override
     public Publisher<Void> createSavepoint(String name) {
-        return Mono.error(new UnsupportedOperationException("Not supported"));
+        return runVoid(jdbc -> {
+            if (jdbc.getAutoCommit()) {
+                jdbc.setAutoCommit(false);
+                autoCommit = false;
+            }
+            savepoints.put(name, jdbc.setSavepoint(name));
+            return null;
+        });
+    }
+
+    @Override
+    public Publisher<Void> releaseSavepoint(String name) {
+        return runVoid(jdbc -> {
+            Savepoint savepoint = savepoints.remove(name);
+            if (savepoint != null) {
+                try {
+                    jdbc.releaseSavepoint(savepoint);
+                } catch (SQLFeatureNotSupportedException e) {
+                    // Oracle: savepoints are released with the transaction
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+        return runVoid(jdbc -> {
+            Savepoint savepoint = savepoints.get(name);
+            if (savepoint == null) {
+                throw new IllegalArgumentException("Unknown savepoint: " + name);
+            }
+            jdbc.rollback(savepoint);
+            return null;
+        });
+    }
+
+    @Override
+    public Publisher<Void> close() {
+        return runVoid(jdbc -> {
+                    jdbc.close();
+                    return null;
+                })
+                .doFinally(signal -> {
+                    worker.dispose();
+                    if (closed.compareAndSet(false, true)) {
+                        onClose.run();
+                    }
+                });
+    }
+
+    @Override
+    public Batch createBatch() {
+        return new JdbcBatch(this);
     }
 
     @Override
     public Statement createStatement(String sql) {
-        throw new UnsupportedOperationException("Reactive statement execution not supported with JDBC fallback.");
+        return new JdbcStatement(this, sql);
     }
 
     @Override
     public boolean isAutoCommit() {
-        return true;
+        return autoCommit;
     }
 
     @Override
@@ -70,11 +264,7 @@ public class BlockingConnectionAdapter implements io.r2dbc.spi.Connection {
         return new ConnectionMetadata() {
             @Override
             public String getDatabaseProductName() {
-                try {
-                    return jdbcConnection.getMetaData().getDatabaseProductName();
-                } catch (Exception e) {
-                    return "Unknown-Product";
-                }
+                return productName;
             }
 
             @Override
@@ -88,57 +278,99 @@ public class BlockingConnectionAdapter implements io.r2dbc.spi.Connection {
         };
     }
 
-
-
     @Override
-    public Publisher<Void> releaseSavepoint(String name) {
-        return Mono.error(new UnsupportedOperationException("Not supported"));
+    public Publisher<Void> setAutoCommit(boolean autoCommit) {
+        return runVoid(jdbc -> {
+            jdbc.setAutoCommit(autoCommit);
+            this.autoCommit = autoCommit;
+            return null;
+        });
     }
 
     @Override
-    public Publisher<Void> rollbackTransaction() {
-        return Mono.error(new UnsupportedOperationException("Not supported"));
+    public Publisher<Boolean> validate(ValidationDepth depth) {
+        if (depth == ValidationDepth.LOCAL) {
+            return run(jdbc -> !jdbc.isClosed()).onErrorReturn(false);
+        }
+        return run(jdbc -> jdbc.isValid(5)).onErrorReturn(false);
     }
 
     @Override
-    public Publisher<Void> rollbackTransactionToSavepoint(String name) {
-        return Mono.error(new UnsupportedOperationException("Not supported"));
+    public IsolationLevel getTransactionIsolationLevel() {
+        return isolationLevel;
     }
 
     @Override
-    public Publisher<Void> setAutoCommit(boolean autoCommit) {
-        return Mono.error(new UnsupportedOperationException("Not supported"));
+    public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+        return runVoid(jdbc -> {
+            jdbc.setTransactionIsolation(toJdbcIsolation(isolationLevel));
+            this.isolationLevel = isolationLevel;
+            return null;
+        });
     }
 
     @Override
-    public Publisher<Boolean> validate(ValidationDepth depth) {
-        return Mono.just(true); // best effort
+    public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+        return runVoid(jdbc -> {
+            try (java.sql.Statement statement = jdbc.createStatement()) {
+                switch (productName) {
+                    case "Microsoft SQL Server" -> statement.execute("SET LOCK_TIMEOUT " + timeout.toMillis());
+                    case "SQLite" -> statement.execute("PRAGMA busy_timeout = " + timeout.toMillis());
+                    // Oracle has no session lock timeout; waits are bounded per statement (FOR UPDATE WAIT n)
+                    default -> log.debug("⚠️ Lock wait timeout not supported for {}", productName);
+                }
+            }
+            return null;
+        });
     }
 
-
     @Override
-    public Publisher<Void> beginTransaction(TransactionDefinition transactionDefinition) {
-        return Mono.error(new UnsupportedOperationException("Reactive transactions not supported in JDBC adapter"));
+    public Publisher<Void> setStatementTimeout(Duration timeout) {
+        return Mono.fromRunnable(() -> this.statementTimeout = timeout);
     }
 
-    @Override
-    public IsolationLevel getTransactionIsolationLevel() {
-        throw new UnsupportedOperationException("getTransactionIsolationLevel not supported in JDBC adapter");
+    private static int toJdbcIsolation(IsolationLevel level) {
+        if (IsolationLevel.READ_UNCOMMITTED.equals(level)) return Connection.TRANSACTION_READ_UNCOMMITTED;
+        if (IsolationLevel.READ_COMMITTED.equals(level)) return Connection.TRANSACTION_READ_COMMITTED;
+        if (IsolationLevel.REPEATABLE_READ.equals(level)) return Connection.TRANSACTION_REPEATABLE_READ;
+        if (IsolationLevel.SERIALIZABLE.equals(level)) return Connection.TRANSACTION_SERIALIZABLE;
+        throw new IllegalArgumentException("Unsupported isolation level: " + level.asSql());
     }
 
-    @Override
-    public Publisher<Void> setLockWaitTimeout(Duration duration) {
-        return Mono.error(new UnsupportedOperationException("Lock wait timeout not supported in JDBC adapter"));
+    private static IsolationLevel toIsolationLevel(int level) {
+        return switch (level) {
+            case Connection.TRANSACTION_READ_UNCOMMITTED -> IsolationLevel.READ_UNCOMMITTED;
+            case Connection.TRANSACTION_REPEATABLE_READ -> IsolationLevel.REPEATABLE_READ;
+            case Connection.TRANSACTION_SERIALIZABLE -> IsolationLevel.SERIALIZABLE;
+            default -> IsolationLevel.READ_COMMITTED;
+        };
     }
 
-    @Override
-    public Publisher<Void> setStatementTimeout(Duration duration) {
-        return Mono.error(new UnsupportedOperationException("Statement timeout not supported in JDBC adapter"));
+    /**
+     * Closes on the worker so a cancel never races a fetch; directly once the connection is closed.
+     */
+    private void closeOnWorker(java.sql.Statement statement) {
+        try {
+            worker.schedule(() -> closeQuietly(statement));
+        } catch (RejectedExecutionException e) {
+            closeQuietly(statement);
+        }
     }
 
-    @Override
-    public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
-        return Mono.error(new UnsupportedOperationException("Setting isolation level not supported in JDBC adapter"));
+    private static void closeQuietly(java.sql.Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            log.debug("⚠️ Failed to close JDBC statement: {}", e.getMessage());
+        }
     }
 
+    private enum EmptyTransactionDefinition implements TransactionDefinition {
+        INSTANCE;
+
+        @Override
+        public <T> T getAttribute(io.r2dbc.spi.Option<T> option) {
+            return null;
+        }
+    }
 }
@@ -6,31 +6,77 @@ import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.ConnectionFactoryMetadata;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import javax.sql.DataSource;
+import java.sql.SQLException;
 
+/**
+ * R2DBC connection factory over a Hikari pool, for databases without an R2DBC driver (Oracle, SQL Server, SQLite).
+ *
+ * <p>JDBC calls run on the executor chosen by {@code JdbcExecutorManager} (a bounded-elastic scheduler sized
+ * to the pool, or virtual threads), never on Reactor's shared schedulers. {@link JdbcPermits} keep the
+ * number of open connections, and so of concurrent JDBC calls, at the Hikari pool size.</p>
+ *
+ * <p>Waiting for a permit and a Hikari connection happens on a separate acquire scheduler. The pool executor
+ * has one worker per connection, so blocking acquires there would take the workers that open connections
+ * need to finish their work and give their permits back.</p>
+ */
 public class BlockingConnectionFactoryAdapter implements ConnectionFactory {
 
+    public static final String NAME = "JDBC-Fallback-Adapter";
+
     private final HikariDataSource dataSource;
+    private final Scheduler executor;
+    private final Scheduler acquireScheduler;
+    private final JdbcPermits permits;
+    private final int defaultFetchSize;
+    private final int prefetch;
 
-    public BlockingConnectionFactoryAdapter(HikariDataSource dataSource) {
-            this.dataSource = dataSource;
-        }
+    public BlockingConnectionFactoryAdapter(HikariDataSource dataSource, Scheduler executor, Scheduler acquireScheduler,
+                                            JdbcPermits permits, int defaultFetchSize, int prefetch) {
+        this.dataSource = dataSource;
+        this.executor = executor;
+        this.acquireScheduler = acquireScheduler;
+        this.permits = permits;
+        this.defaultFetchSize = defaultFetchSize;
+        this.prefetch = prefetch;
+    }
 
-        public DataSource getDataSource() {
-            return this.dataSource;
-        }
+    public DataSource getDataSource() {
+        return this.dataSource;
+    }
+
+    public Scheduler getExecutor() {
+        return this.executor;
+    }
 
+    /**
+     * Takes a permit (waiting up to Hikari's connection timeout), then a pooled connection, on the acquire
+     * scheduler; the permit is returned when the R2DBC connection closes.
+     */
     @Override
     public Publisher<? extends Connection> create() {
         return Mono.fromCallable(() -> {
-            java.sql.Connection jdbcConn = dataSource.getConnection();
-            return new BlockingConnectionAdapter(jdbcConn);
-        }).subscribeOn(reactor.core.scheduler.Schedulers.boundedElastic());
+                    permits.acquire(dataSource.getConnectionTimeout());
+                    java.sql.Connection jdbcConn = null;
+                    try {
+                        jdbcConn = dataSource.getConnection();
+                        return new BlockingConnectionAdapter(jdbcConn, executor, defaultFetchSize, prefetch, permits::release);
+                    } catch (Exception e) {
+                        if (jdbcConn != null) {
+                            jdbcConn.close();
+                        }
+                        permits.release();
+                        throw e;
+                    }
+                })
+                .onErrorMap(SQLException.class, JdbcValues::translate)
+                .subscribeOn(acquireScheduler);
     }
 
     @Override
     public ConnectionFactoryMetadata getMetadata() {
-        return () -> "JDBC-Fallback-Adapter";
+        return () -> NAME;
     }
 }
@@ -0,0 +1,48 @@
+package com.sqlengine.adapter;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Result;
+import reactor.core.publisher.Flux;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * R2DBC {@link Batch} over {@link Statement#addBatch(String)}: unparameterized statements sent in one
+ * round trip, one update-count {@link Result} per statement.
+ */
+final class JdbcBatch implements Batch {
+
+    private final BlockingConnectionAdapter connection;
+    private final List<String> statements = new ArrayList<>();
+
+    JdbcBatch(BlockingConnectionAdapter connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public Batch add(String sql) {
+        statements.add(sql);
+        return this;
+    }
+
+    @Override
+    public Flux<Result> execute() {
+        List<String> sqls = List.copyOf(statements);
+        return connection.run(jdbc -> {
+                    try (Statement statement = jdbc.createStatement()) {
+                        connection.applyStatementTimeout(statement);
+                        for (String sql : sqls) {
+                            statement.addBatch(sql);
+                        }
+                        List<Result> results = new ArrayList<>(sqls.size());
+                        for (int count : statement.executeBatch()) {
+                            results.add(JdbcResult.ofUpdateCount(Math.max(0, count), Flux.empty()));
+                        }
+                        return results;
+                    }
+                })
+                .flatMapIterable(results -> results);
+    }
+}
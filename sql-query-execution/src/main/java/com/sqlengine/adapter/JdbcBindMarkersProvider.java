@@ -0,0 +1,21 @@
+package com.sqlengine.adapter;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.core.binding.BindMarkersFactory;
+import org.springframework.r2dbc.core.binding.BindMarkersFactoryResolver;
+
+/**
+ * Tells Spring's {@code DatabaseClient} to render named parameters as JDBC {@code ?} markers, bound by
+ * index, for {@link BlockingConnectionFactoryAdapter}. Registered in {@code META-INF/spring.factories}.
+ */
+public class JdbcBindMarkersProvider implements BindMarkersFactoryResolver.BindMarkerFactoryProvider {
+
+    @Override
+    public BindMarkersFactory getBindMarkers(ConnectionFactory connectionFactory) {
+        if (connectionFactory instanceof BlockingConnectionFactoryAdapter
+                || BlockingConnectionFactoryAdapter.NAME.equals(connectionFactory.getMetadata().getName())) {
+            return BindMarkersFactory.anonymous("?");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.sqlengine.adapter;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection leases of one JDBC pool: one permit per Hikari connection, held from {@code create()} until
+ * the R2DBC connection closes. On virtual threads this bounds how many callers wait inside the driver and
+ * Hikari; the rest park here, in arrival order.
+ */
+public final class JdbcPermits {
+
+    private final Semaphore semaphore;
+    /** Callers currently parked on any pool's permits, shared for the node-wide gauge */
+    private final AtomicInteger parked;
+
+    public JdbcPermits(int permits, AtomicInteger parked) {
+        this.semaphore = new Semaphore(permits, true);
+        this.parked = parked;
+    }
+
+    void acquire(long timeoutMillis) throws SQLException {
+        if (semaphore.tryAcquire()) {
+            return;
+        }
+        parked.incrementAndGet();
+        try {
+            if (!semaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after " + timeoutMillis + "ms waiting for a JDBC connection permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a JDBC connection permit", e);
+        } finally {
+            parked.decrementAndGet();
+        }
+    }
+
+    void release() {
+        semaphore.release();
+    }
+
+    public int available() {
+        return semaphore.availablePermits();
+    }
+}
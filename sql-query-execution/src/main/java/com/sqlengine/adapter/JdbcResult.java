@@ -0,0 +1,72 @@
+package com.sqlengine.adapter;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Result of one JDBC execution: streamed rows (a query, or generated keys) and/or an update count.
+ * Rows are read lazily; results whose rows are not consumed still subscribe and cancel, which closes the cursor.
+ */
+final class JdbcResult implements Result {
+
+    private final Flux<JdbcRow> rows;
+    private final Long updateCount;
+    private final Predicate<Segment> filter;
+
+    private JdbcResult(Flux<JdbcRow> rows, Long updateCount, Predicate<Segment> filter) {
+        this.rows = rows;
+        this.updateCount = updateCount;
+        this.filter = filter;
+    }
+
+    static JdbcResult ofRows(Flux<JdbcRow> rows) {
+        return new JdbcResult(rows, null, segment -> true);
+    }
+
+    static JdbcResult ofUpdateCount(long updateCount, Flux<JdbcRow> generatedKeys) {
+        return new JdbcResult(generatedKeys, updateCount, segment -> true);
+    }
+
+    @Override
+    public Publisher<Long> getRowsUpdated() {
+        Mono<Long> count = Mono.justOrEmpty(updateCount).filter(value -> filter.test(updateCountSegment(value)));
+        return rows.take(0).then(count);
+    }
+
+    @Override
+    public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> mappingFunction) {
+        return rows.filter(filter).map(row -> mappingFunction.apply(row, row.getMetadata()));
+    }
+
+    @Override
+    public <T> Publisher<T> map(Function<? super Readable, ? extends T> mappingFunction) {
+        return rows.filter(filter).map(mappingFunction);
+    }
+
+    @Override
+    public Result filter(Predicate<Segment> predicate) {
+        return new JdbcResult(rows, updateCount, filter.and(predicate));
+    }
+
+    @Override
+    public <T> Publisher<T> flatMap(Function<Segment, ? extends Publisher<? extends T>> mappingFunction) {
+        Flux<Segment> segments = rows.cast(Segment.class);
+        if (updateCount != null) {
+            segments = segments.concatWith(Mono.just(updateCountSegment(updateCount)));
+        }
+        return segments.filter(filter).concatMap(mappingFunction);
+    }
+
+    private static UpdateCount updateCountSegment(long value) {
+        return () -> value;
+    }
+}
@@ -0,0 +1,85 @@
+package com.sqlengine.adapter;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * One row copied out of a JDBC {@code ResultSet}, so it stays readable after the cursor moves on.
+ */
+final class JdbcRow implements Row, Result.RowSegment {
+
+    private final JdbcRowMetadata metadata;
+    private final Object[] values;
+
+    private JdbcRow(JdbcRowMetadata metadata, Object[] values) {
+        this.metadata = metadata;
+        this.values = values;
+    }
+
+    /**
+     * Copies the row the cursor is positioned on.
+     */
+    static JdbcRow read(ResultSet rs, JdbcRowMetadata metadata) throws SQLException {
+        Object[] values = new Object[metadata.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = JdbcValues.read(rs, i + 1, metadata.sqlType(i));
+        }
+        return new JdbcRow(metadata, values);
+    }
+
+    @Override
+    public Row row() {
+        return this;
+    }
+
+    @Override
+    public RowMetadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public <T> T get(int index, Class<T> type) {
+        if (index < 0 || index >= values.length) {
+            throw new IndexOutOfBoundsException("Column index " + index + " out of range, " + values.length + " columns");
+        }
+        return convert(values[index], type);
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return convert(values[metadata.indexOf(name)], type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T convert(Object value, Class<T> type) {
+        if (value == null || type == Object.class || type.isInstance(value)) {
+            return (T) value;
+        }
+        if (value instanceof Number number) {
+            if (type == Long.class) return (T) Long.valueOf(number.longValue());
+            if (type == Integer.class) return (T) Integer.valueOf(number.intValue());
+            if (type == Short.class) return (T) Short.valueOf(number.shortValue());
+            if (type == Double.class) return (T) Double.valueOf(number.doubleValue());
+            if (type == Float.class) return (T) Float.valueOf(number.floatValue());
+            if (type == BigDecimal.class) return (T) new BigDecimal(number.toString());
+            if (type == BigInteger.class) return (T) new BigDecimal(number.toString()).toBigInteger();
+            if (type == Boolean.class) return (T) Boolean.valueOf(number.intValue() != 0);
+        }
+        if (value instanceof ByteBuffer buffer && type == byte[].class) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return (T) bytes;
+        }
+        if (type == String.class) {
+            return (T) value.toString();
+        }
+        throw new IllegalArgumentException("Cannot convert " + value.getClass().getName() + " to " + type.getName());
+    }
+}
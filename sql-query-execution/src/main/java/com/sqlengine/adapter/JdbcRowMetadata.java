@@ -0,0 +1,155 @@
+package com.sqlengine.adapter;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Nullability;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Type;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Column metadata of one JDBC {@code ResultSet}, read once and shared by all of its rows.
+ */
+final class JdbcRowMetadata implements RowMetadata {
+
+    private final List<JdbcColumnMetadata> columns;
+    private final Map<String, Integer> indexByName;
+    private final int[] sqlTypes;
+
+    JdbcRowMetadata(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        List<JdbcColumnMetadata> columns = new ArrayList<>(count);
+        Map<String, Integer> indexByName = new HashMap<>();
+        this.sqlTypes = new int[count];
+        for (int i = 0; i < count; i++) {
+            String name = metaData.getColumnLabel(i + 1);
+            int sqlType = metaData.getColumnType(i + 1);
+            sqlTypes[i] = sqlType;
+            columns.add(new JdbcColumnMetadata(name, new JdbcType(metaData.getColumnTypeName(i + 1), javaTypeOf(sqlType)),
+                    metaData.getPrecision(i + 1), metaData.getScale(i + 1),
+                    switch (metaData.isNullable(i + 1)) {
+                        case ResultSetMetaData.columnNoNulls -> Nullability.NON_NULL;
+                        case ResultSetMetaData.columnNullable -> Nullability.NULLABLE;
+                        default -> Nullability.UNKNOWN;
+                    }));
+            indexByName.putIfAbsent(name.toLowerCase(), i);
+        }
+        this.columns = Collections.unmodifiableList(columns);
+        this.indexByName = indexByName;
+    }
+
+    int sqlType(int index) {
+        return sqlTypes[index];
+    }
+
+    int size() {
+        return columns.size();
+    }
+
+    int indexOf(String name) {
+        Integer index = indexByName.get(name.toLowerCase());
+        if (index == null) {
+            throw new NoSuchElementException("Unknown column: " + name);
+        }
+        return index;
+    }
+
+    @Override
+    public ColumnMetadata getColumnMetadata(int index) {
+        if (index < 0 || index >= columns.size()) {
+            throw new IndexOutOfBoundsException("Column index " + index + " out of range, " + columns.size() + " columns");
+        }
+        return columns.get(index);
+    }
+
+    @Override
+    public ColumnMetadata getColumnMetadata(String name) {
+        return columns.get(indexOf(name));
+    }
+
+    @Override
+    public List<? extends ColumnMetadata> getColumnMetadatas() {
+        return columns;
+    }
+
+    @Override
+    public boolean contains(String columnName) {
+        return indexByName.containsKey(columnName.toLowerCase());
+    }
+
+    /**
+     * Java type {@link JdbcValues#read} produces for the column; drivers decide for vendor types.
+     */
+    private static Class<?> javaTypeOf(int sqlType) {
+        return switch (sqlType) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR,
+                 Types.CLOB, Types.NCLOB -> String.class;
+            case Types.INTEGER, Types.SMALLINT, Types.TINYINT -> Integer.class;
+            case Types.BIGINT -> Long.class;
+            case Types.REAL -> Float.class;
+            case Types.FLOAT, Types.DOUBLE -> Double.class;
+            case Types.NUMERIC, Types.DECIMAL -> BigDecimal.class;
+            case Types.BOOLEAN, Types.BIT -> Boolean.class;
+            case Types.DATE -> LocalDate.class;
+            case Types.TIME -> LocalTime.class;
+            case Types.TIMESTAMP -> LocalDateTime.class;
+            case Types.TIMESTAMP_WITH_TIMEZONE -> OffsetDateTime.class;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> ByteBuffer.class;
+            default -> Object.class;
+        };
+    }
+
+    private record JdbcType(String name, Class<?> javaType) implements Type {
+        @Override
+        public Class<?> getJavaType() {
+            return javaType;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    private record JdbcColumnMetadata(String name, Type type, int precision, int scale,
+                                      Nullability nullability) implements ColumnMetadata {
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public Integer getPrecision() {
+            return precision;
+        }
+
+        @Override
+        public Integer getScale() {
+            return scale;
+        }
+
+        @Override
+        public Nullability getNullability() {
+            return nullability;
+        }
+    }
+}
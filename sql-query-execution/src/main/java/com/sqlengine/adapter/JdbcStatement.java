@@ -0,0 +1,295 @@
+package com.sqlengine.adapter;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import reactor.core.publisher.Flux;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * R2DBC {@link Statement} over a JDBC {@link PreparedStatement}.
+ *
+ * <p>Parameters are bound by zero-based index against {@code ?} markers (what Spring's DatabaseClient
+ * renders for this adapter), or by name when the SQL uses {@code :name} markers, which are rewritten to
+ * {@code ?} once per statement. Each {@link #add()} starts another binding set; several sets run as one
+ * JDBC batch and produce one {@link Result} per set. Query results stream through the connection's
+ * executor in {@code fetchSize} round trips.</p>
+ */
+final class JdbcStatement implements Statement {
+
+    private final BlockingConnectionAdapter connection;
+    private final String sql;
+    /** Zero-based indexes of each {@code :name} marker, empty when the SQL uses plain {@code ?} markers */
+    private final Map<String, List<Integer>> namedMarkers = new HashMap<>();
+    private final int parameterCount;
+    private final List<Map<Integer, Object>> bindings = new ArrayList<>();
+    private Map<Integer, Object> current = new LinkedHashMap<>();
+    private String[] generatedColumns;
+    private int fetchSize;
+
+    JdbcStatement(BlockingConnectionAdapter connection, String sql) {
+        this.connection = connection;
+        this.sql = parseNamedMarkers(sql, namedMarkers);
+        this.parameterCount = countMarkers(this.sql);
+        this.fetchSize = connection.getDefaultFetchSize();
+    }
+
+    @Override
+    public Statement add() {
+        bindings.add(current);
+        current = new LinkedHashMap<>();
+        return this;
+    }
+
+    @Override
+    public Statement bind(int index, Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must not be null, use bindNull");
+        }
+        current.put(checkIndex(index), value);
+        return this;
+    }
+
+    @Override
+    public Statement bind(String name, Object value) {
+        indexesOf(name).forEach(index -> bind(index, value));
+        return this;
+    }
+
+    @Override
+    public Statement bindNull(int index, Class<?> type) {
+        current.put(checkIndex(index), new NullValue(JdbcValues.sqlTypeOf(type)));
+        return this;
+    }
+
+    @Override
+    public Statement bindNull(String name, Class<?> type) {
+        indexesOf(name).forEach(index -> bindNull(index, type));
+        return this;
+    }
+
+    @Override
+    public Statement returnGeneratedValues(String... columns) {
+        this.generatedColumns = columns == null ? new String[0] : columns;
+        return this;
+    }
+
+    @Override
+    public Statement fetchSize(int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Fetch size must not be negative");
+        }
+        this.fetchSize = rows;
+        return this;
+    }
+
+    @Override
+    public Flux<Result> execute() {
+        List<Map<Integer, Object>> sets = new ArrayList<>(bindings);
+        if (!current.isEmpty() || sets.isEmpty()) {
+            sets.add(current);
+        }
+        return connection.run(jdbc -> sets.size() == 1 || generatedColumns != null
+                        ? executeEach(jdbc, sets)
+                        : executeBatch(jdbc, sets))
+                .flatMapIterable(results -> results);
+    }
+
+    /**
+     * One execution per binding set. Used for single executions and whenever generated keys are
+     * requested, since drivers differ in whether batches return them.
+     */
+    private List<Result> executeEach(Connection jdbc, List<Map<Integer, Object>> sets) throws SQLException {
+        List<Result> results = new ArrayList<>(sets.size());
+        for (Map<Integer, Object> set : sets) {
+            PreparedStatement statement = prepare(jdbc);
+            try {
+                bindAll(statement, set);
+                if (statement.execute()) {
+                    ResultSet rs = statement.getResultSet();
+                    results.add(JdbcResult.ofRows(connection.stream(statement, rs)));
+                    continue; // the statement stays open until its rows are consumed
+                }
+                long count = Math.max(0, statement.getUpdateCount());
+                if (generatedColumns != null) {
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        results.add(JdbcResult.ofUpdateCount(count, Flux.fromIterable(readAll(keys))));
+                    }
+                } else {
+                    results.add(JdbcResult.ofUpdateCount(count, Flux.empty()));
+                }
+                statement.close();
+            } catch (SQLException | RuntimeException e) {
+                statement.close();
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private List<Result> executeBatch(Connection jdbc, List<Map<Integer, Object>> sets) throws SQLException {
+        try (PreparedStatement statement = prepare(jdbc)) {
+            for (Map<Integer, Object> set : sets) {
+                bindAll(statement, set);
+                statement.addBatch();
+            }
+            List<Result> results = new ArrayList<>(sets.size());
+            for (int count : statement.executeBatch()) {
+                // SUCCESS_NO_INFO: the driver executed the set but does not report how many rows changed; count
+                // it as one row, as BulkLoadService's JDBC batch path does
+                long rows = count == java.sql.Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+                results.add(JdbcResult.ofUpdateCount(rows, Flux.empty()));
+            }
+            return results;
+        }
+    }
+
+    private PreparedStatement prepare(Connection jdbc) throws SQLException {
+        PreparedStatement statement;
+        if (generatedColumns == null) {
+            statement = jdbc.prepareStatement(sql);
+        } else if (generatedColumns.length == 0 || !connection.supportsNamedGeneratedKeys()) {
+            statement = jdbc.prepareStatement(sql, java.sql.Statement.RETURN_GENERATED_KEYS);
+        } else {
+            statement = jdbc.prepareStatement(sql, generatedColumns);
+        }
+        if (fetchSize > 0) {
+            statement.setFetchSize(fetchSize);
+        }
+        connection.applyStatementTimeout(statement);
+        return statement;
+    }
+
+    private void bindAll(PreparedStatement statement, Map<Integer, Object> set) throws SQLException {
+        if (set.size() < parameterCount) {
+            for (int i = 0; i < parameterCount; i++) {
+                if (!set.containsKey(i)) {
+                    throw new IllegalStateException("No value bound for parameter " + i + " of: " + sql);
+                }
+            }
+        }
+        for (Map.Entry<Integer, Object> entry : set.entrySet()) {
+            int jdbcIndex = entry.getKey() + 1;
+            if (entry.getValue() instanceof NullValue nullValue) {
+                statement.setNull(jdbcIndex, nullValue.sqlType());
+            } else {
+                JdbcValues.bind(statement, jdbcIndex, entry.getValue());
+            }
+        }
+    }
+
+    private List<JdbcRow> readAll(ResultSet rs) throws SQLException {
+        JdbcRowMetadata metadata = new JdbcRowMetadata(rs.getMetaData());
+        List<JdbcRow> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(JdbcRow.read(rs, metadata));
+        }
+        return rows;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= parameterCount) {
+            throw new IndexOutOfBoundsException("Parameter index " + index + " out of range, " + parameterCount + " parameters in: " + sql);
+        }
+        return index;
+    }
+
+    private List<Integer> indexesOf(String name) {
+        List<Integer> indexes = namedMarkers.get(name);
+        if (indexes == null) {
+            throw new IllegalArgumentException("No parameter named '" + name + "' in: " + sql);
+        }
+        return indexes;
+    }
+
+    /**
+     * Rewrites {@code :name} markers outside quotes and comments to {@code ?}, recording their positions
+     * in {@code namedMarkers}. {@code ::} (PostgreSQL-style casts) and {@code :=} are left untouched.
+     */
+    static String parseNamedMarkers(String source, Map<String, List<Integer>> namedMarkers) {
+        StringBuilder out = new StringBuilder(source.length());
+        int marker = 0;
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            int skip = skipLiteral(source, i);
+            if (skip > i) {
+                out.append(source, i, skip);
+                i = skip;
+            } else if (c == '?') {
+                out.append(c);
+                marker++;
+                i++;
+            } else if (c == ':' && i + 1 < source.length() && isIdentifierStart(source.charAt(i + 1))
+                    && (i == 0 || source.charAt(i - 1) != ':')) {
+                int end = i + 1;
+                while (end < source.length() && isIdentifierPart(source.charAt(end))) {
+                    end++;
+                }
+                namedMarkers.computeIfAbsent(source.substring(i + 1, end), name -> new ArrayList<>()).add(marker++);
+                out.append('?');
+                i = end;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Index just past the quoted string, quoted identifier or comment starting at {@code i}, or {@code i}.
+     */
+    private static int skipLiteral(String source, int i) {
+        char c = source.charAt(i);
+        if (c == '\'' || c == '"' || c == '`') {
+            int end = source.indexOf(c, i + 1);
+            return end < 0 ? source.length() : end + 1;
+        }
+        if (source.startsWith("--", i)) {
+            int end = source.indexOf('\n', i);
+            return end < 0 ? source.length() : end + 1;
+        }
+        if (source.startsWith("/*", i)) {
+            int end = source.indexOf("*/", i + 2);
+            return end < 0 ? source.length() : end + 2;
+        }
+        return i;
+    }
+
+    static int countMarkers(String source) {
+        int count = 0;
+        int i = 0;
+        while (i < source.length()) {
+            int skip = skipLiteral(source, i);
+            if (skip > i) {
+                i = skip;
+                continue;
+            }
+            if (source.charAt(i) == '?') {
+                count++;
+            }
+            i++;
+        }
+        return count;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private record NullValue(int sqlType) {
+    }
+}
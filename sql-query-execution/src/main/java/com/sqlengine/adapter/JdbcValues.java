@@ -0,0 +1,164 @@
+package com.sqlengine.adapter;
+
+import com.sqlengine.utils.QueryParamCaster;
+import io.r2dbc.spi.Parameter;
+import io.r2dbc.spi.R2dbcBadGrammarException;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.R2dbcPermissionDeniedException;
+import io.r2dbc.spi.R2dbcRollbackException;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLInvalidAuthorizationSpecException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.UUID;
+
+/**
+ * Value conversions between JDBC and the types R2DBC drivers expose: java.time instead of java.sql
+ * dates, {@link ByteBuffer} instead of {@code byte[]}/{@link Blob}, {@link String} instead of {@link Clob},
+ * and {@link R2dbcException} subclasses instead of {@link SQLException}.
+ */
+final class JdbcValues {
+
+    /** SQL Server DATETIMEOFFSET and Oracle TIMESTAMP WITH TIME ZONE, reported with vendor type codes */
+    private static final int MSSQL_DATETIMEOFFSET = -155;
+    private static final int ORACLE_TIMESTAMPTZ = -101;
+
+    private JdbcValues() {
+    }
+
+    /**
+     * Reads column {@code index} (1-based) of the current row.
+     */
+    static Object read(ResultSet rs, int index, int sqlType) throws SQLException {
+        Object value = switch (sqlType) {
+            case Types.DATE -> {
+                Date date = rs.getDate(index);
+                yield date == null ? null : date.toLocalDate();
+            }
+            case Types.TIME -> {
+                Time time = rs.getTime(index);
+                yield time == null ? null : time.toLocalTime();
+            }
+            case Types.TIMESTAMP -> {
+                Timestamp timestamp = rs.getTimestamp(index);
+                yield timestamp == null ? null : timestamp.toLocalDateTime();
+            }
+            case Types.TIMESTAMP_WITH_TIMEZONE, MSSQL_DATETIMEOFFSET, ORACLE_TIMESTAMPTZ -> rs.getObject(index, OffsetDateTime.class);
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> {
+                byte[] bytes = rs.getBytes(index);
+                yield bytes == null ? null : ByteBuffer.wrap(bytes);
+            }
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR,
+                 Types.CLOB, Types.NCLOB -> rs.getString(index);
+            default -> normalize(rs.getObject(index));
+        };
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Object normalize(Object value) throws SQLException {
+        if (value instanceof Timestamp timestamp) return timestamp.toLocalDateTime();
+        if (value instanceof Date date) return date.toLocalDate();
+        if (value instanceof Time time) return time.toLocalTime();
+        if (value instanceof byte[] bytes) return ByteBuffer.wrap(bytes);
+        if (value instanceof Clob clob) return clob.getSubString(1, (int) clob.length());
+        if (value instanceof Blob blob) return ByteBuffer.wrap(blob.getBytes(1, (int) blob.length()));
+        return value;
+    }
+
+    /**
+     * Binds {@code value} to parameter {@code index} (1-based). Accepts R2DBC {@link Parameter}s and
+     * {@link ByteBuffer}s on top of what {@code setObject} takes.
+     */
+    static void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value instanceof Parameter parameter) {
+            if (parameter.getValue() == null) {
+                statement.setNull(index, sqlTypeOf(parameter.getType().getJavaType()));
+                return;
+            }
+            value = parameter.getValue();
+        }
+        if (value == null) {
+            statement.setNull(index, Types.NULL);
+        } else if (value instanceof UUID uuid) {
+            statement.setString(index, uuid.toString());
+        } else {
+            statement.setObject(index, QueryParamCaster.jdbcValue(value));
+        }
+    }
+
+    static int sqlTypeOf(Class<?> type) {
+        if (type == null) return Types.NULL;
+        if (type == String.class || type == UUID.class) return Types.VARCHAR;
+        if (type == Integer.class || type == Short.class || type == Byte.class) return Types.INTEGER;
+        if (type == Long.class || type == BigInteger.class) return Types.BIGINT;
+        if (type == Float.class) return Types.REAL;
+        if (type == Double.class) return Types.DOUBLE;
+        if (type == BigDecimal.class) return Types.DECIMAL;
+        if (type == Boolean.class) return Types.BOOLEAN;
+        if (type == LocalDate.class) return Types.DATE;
+        if (type == LocalTime.class) return Types.TIME;
+        if (type == OffsetTime.class) return Types.TIME_WITH_TIMEZONE;
+        if (type == LocalDateTime.class) return Types.TIMESTAMP;
+        if (type == OffsetDateTime.class) return Types.TIMESTAMP_WITH_TIMEZONE;
+        if (type == ByteBuffer.class || type == byte[].class) return Types.VARBINARY;
+        return Types.VARCHAR;
+    }
+
+    /**
+     * The R2DBC exception matching the JDBC exception's category, so Spring's translation applies unchanged.
+     */
+    static R2dbcException translate(SQLException e) {
+        String reason = e.getMessage();
+        String sqlState = e.getSQLState();
+        int errorCode = e.getErrorCode();
+        if (e instanceof SQLIntegrityConstraintViolationException) {
+            return new R2dbcDataIntegrityViolationException(reason, sqlState, errorCode, e);
+        }
+        if (e instanceof SQLSyntaxErrorException) {
+            return new R2dbcBadGrammarException(reason, sqlState, errorCode, e);
+        }
+        if (e instanceof SQLTimeoutException) {
+            return new R2dbcTimeoutException(reason, sqlState, errorCode, e);
+        }
+        if (e instanceof SQLTransactionRollbackException) {
+            return new R2dbcRollbackException(reason, sqlState, errorCode, e);
+        }
+        if (e instanceof SQLInvalidAuthorizationSpecException) {
+            return new R2dbcPermissionDeniedException(reason, sqlState, errorCode, e);
+        }
+        if (e instanceof SQLTransientException) {
+            return new R2dbcTransientResourceException(reason, sqlState, errorCode, e);
+        }
+        if (sqlState != null && sqlState.startsWith("23")) {
+            return new R2dbcDataIntegrityViolationException(reason, sqlState, errorCode, e);
+        }
+        if (sqlState != null && sqlState.startsWith("42")) {
+            return new R2dbcBadGrammarException(reason, sqlState, errorCode, e);
+        }
+        return new R2dbcNonTransientResourceException(reason, sqlState, errorCode, e);
+    }
+}
@@ -0,0 +1,98 @@
+package com.sqlengine.config;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses each outbound gRPC message only when its serialized size reaches the threshold: large
+ * results and result chunks go out gzip-compressed, small responses stay identity-encoded. gzip is
+ * only used if the client advertised it in {@code grpc-accept-encoding}.
+ *
+ * <p>Bytes saved are estimated from every Nth compressed message, which is gzip-encoded once more
+ * off the wire to measure the current compression ratio.</p>
+ */
+@Slf4j
+@GrpcGlobalServerInterceptor
+public class AdaptiveCompressionInterceptor implements ServerInterceptor {
+
+    private final int thresholdBytes;
+    private final int sampleEvery;
+    private final Counter rawBytes;
+    private final Counter savedBytes;
+    private final Counter compressedMessages;
+    private final Counter identityMessages;
+    private final AtomicLong compressedCount = new AtomicLong();
+    private volatile double ratio = 1.0;
+
+    public AdaptiveCompressionInterceptor(@Value("${grpc.compression.threshold-bytes:8192}") int thresholdBytes,
+                                          @Value("${grpc.compression.sample-every:32}") int sampleEvery,
+                                          MeterRegistry meterRegistry) {
+        this.thresholdBytes = thresholdBytes;
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.rawBytes = Counter.builder("query.compression.raw.bytes").tag("transport", "grpc").register(meterRegistry);
+        this.savedBytes = Counter.builder("query.compression.saved.bytes").tag("transport", "grpc").register(meterRegistry);
+        this.compressedMessages = Counter.builder("query.compression.messages").tag("transport", "grpc").tag("encoding", "gzip").register(meterRegistry);
+        this.identityMessages = Counter.builder("query.compression.messages").tag("transport", "grpc").tag("encoding", "identity").register(meterRegistry);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        ServerCall<ReqT, RespT> adaptive = new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void sendHeaders(Metadata responseHeaders) {
+                // Negotiates gzip for the call; each message then opts in or out below
+                super.setCompression("gzip");
+                super.sendHeaders(responseHeaders);
+            }
+
+            @Override
+            public void sendMessage(RespT message) {
+                int size = message instanceof MessageLite lite ? lite.getSerializedSize() : 0;
+                boolean compress = size >= thresholdBytes;
+                super.setMessageCompression(compress);
+                if (compress) {
+                    record((MessageLite) message, size);
+                } else {
+                    identityMessages.increment();
+                }
+                super.sendMessage(message);
+            }
+        };
+        return next.startCall(adaptive, headers);
+    }
+
+    private void record(MessageLite message, int size) {
+        compressedMessages.increment();
+        rawBytes.increment(size);
+        if (compressedCount.getAndIncrement() % sampleEvery == 0) {
+            ratio = measureRatio(message, size);
+        }
+        savedBytes.increment(size * (1 - ratio));
+    }
+
+    private double measureRatio(MessageLite message, int size) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            message.writeTo(gzip);
+        } catch (IOException e) {
+            log.debug("Failed to sample compression ratio", e);
+            return ratio;
+        }
+        return Math.min(1.0, (double) out.size() / size);
+    }
+}
@@ -32,8 +32,8 @@ public class ConfigUpdateKafkaConsumer {
             switch (update.getEventType()) {
                 case "SAVE":
                 case "UPDATE":
-                    poolManager.evict(update.getConfigId());
-                    poolManager.getDatabaseClientReactive(update.getConfigId()).subscribe();
+                    poolManager.hotSwap(update.getConfigId())
+                            .subscribe(null, e -> log.error("❌ Failed to hot-swap pool for config {}", update.getConfigId(), e));
                     break;
                 case "DELETE":
                     poolManager.evict(update.getConfigId());
@@ -0,0 +1,126 @@
+package com.sqlengine.manager;
+
+import com.sqlengine.model.ConfigUsageStats;
+import com.sqlengine.repository.ConfigUsageStatsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts queries per DatabaseConfig in memory and adds them to {@link ConfigUsageStats} every
+ * {@code query.usage.flush-interval-ms}. Counts decay with a half-life of {@code query.usage.half-life-hours},
+ * so {@link #rankedConfigIds()} orders tenants by recent rather than all-time traffic.
+ *
+ * <p>Each flush is one pipeline upsert that decays and adds in the database, so nodes flushing at the
+ * same time do not overwrite each other's counts. Inline configs (no id) are not tracked.</p>
+ */
+@Slf4j
+@Component
+public class ConfigUsageTracker {
+
+    private final ConfigUsageStatsRepository repository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Duration halfLife;
+    private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public ConfigUsageTracker(ConfigUsageStatsRepository repository, ReactiveMongoTemplate mongoTemplate,
+                              @Value("${query.usage.half-life-hours:24}") long halfLifeHours) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.halfLife = Duration.ofHours(halfLifeHours);
+    }
+
+    public void record(String configId) {
+        if (StringUtils.hasText(configId)) {
+            pending.computeIfAbsent(configId, id -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Config ids with persisted traffic, busiest first.
+     */
+    public Flux<String> rankedConfigIds() {
+        LocalDateTime now = LocalDateTime.now();
+        return repository.findAll()
+                .sort(Comparator.comparingDouble((ConfigUsageStats stats) -> decayed(stats, now)).reversed())
+                .map(ConfigUsageStats::getId);
+    }
+
+    @Scheduled(fixedDelayString = "${query.usage.flush-interval-ms:60000}")
+    public void flush() {
+        flushPending()
+                .onErrorResume(e -> {
+                    log.warn("⚠️ Failed to flush config usage stats: {}", e.toString());
+                    return Mono.empty();
+                })
+                .block(Duration.ofSeconds(30));
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private Mono<Void> flushPending() {
+        LocalDateTime now = LocalDateTime.now();
+        return Flux.fromIterable(pending.keySet())
+                .flatMap(configId -> {
+                    LongAdder counter = pending.remove(configId);
+                    long queries = counter == null ? 0 : counter.sum();
+                    if (queries == 0) {
+                        return Mono.empty();
+                    }
+                    return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(configId)),
+                            AggregationUpdate.from(List.of(addQueries(queries, now))), ConfigUsageStats.class);
+                }, 8)
+                .then();
+    }
+
+    /**
+     * {@code $set} stage doing what {@link #decayed} does, plus the new queries, on the stored document:
+     * {@code recentQueries = recentQueries * 0.5^(elapsed / halfLife) + queries}.
+     */
+    private AggregationOperation addQueries(long queries, LocalDateTime now) {
+        Date at = Date.from(now.atZone(ZoneId.systemDefault()).toInstant());
+        Document elapsedMillis = new Document("$max", List.of(0,
+                new Document("$subtract", List.of(at, new Document("$ifNull", List.of("$lastUsedAt", at))))));
+        Document decay = new Document("$pow", List.of(0.5,
+                new Document("$divide", List.of(elapsedMillis, halfLife.toMillis()))));
+        Document recent = new Document("$add", List.of(
+                new Document("$multiply", List.of(new Document("$ifNull", List.of("$recentQueries", 0)), decay)),
+                queries));
+        Document set = new Document("recentQueries", recent)
+                .append("totalQueries", new Document("$add", List.of(new Document("$ifNull", List.of("$totalQueries", 0)), queries)))
+                .append("lastUsedAt", at);
+        return context -> new Document("$set", set);
+    }
+
+    private double decayed(ConfigUsageStats stats, LocalDateTime now) {
+        if (stats.getLastUsedAt() == null) {
+            return stats.getRecentQueries();
+        }
+        double halfLives = (double) Duration.between(stats.getLastUsedAt(), now).toMillis() / halfLife.toMillis();
+        return stats.getRecentQueries() * Math.pow(0.5, Math.max(halfLives, 0));
+    }
+}
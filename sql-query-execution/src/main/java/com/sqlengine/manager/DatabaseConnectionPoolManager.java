@@ -2,27 +2,41 @@ package com.sqlengine.manager;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.sqlengine.adapter.BlockingConnectionFactoryAdapter;
 import com.sqlengine.dto.CachedR2dbcConnection;
 import com.sqlengine.model.DatabaseConfig;
+import com.sqlengine.plan.QueryPlanCache;
 import com.sqlengine.repository.DatabaseConfigRepository;
 import com.zaxxer.hikari.HikariDataSource;
 import io.r2dbc.pool.ConnectionPool;
 import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
 import io.r2dbc.spi.ConnectionFactories;
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.ValidationDepth;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import javax.sql.DataSource;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import static io.r2dbc.spi.ConnectionFactoryOptions.DATABASE;
@@ -38,23 +52,76 @@ import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
 public class DatabaseConnectionPoolManager {
 
     private final DatabaseConfigRepository repository;
+    private final QueryPlanCache planCache;
+    private final JdbcExecutorManager jdbcExecutors;
+    private final PoolLifecycleManager poolLifecycle;
+    private final ConfigUsageTracker usageTracker;
+    private final PoolWarmupHealthIndicator warmupHealth;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Value("${query.jdbc.fetch-size:500}")
+    private int jdbcFetchSize;
+
+    @Value("${query.jdbc.prefetch:256}")
+    private int jdbcPrefetch;
+
+    @Value("${query.pool.warmup-timeout-seconds:10}")
+    private long warmupTimeoutSeconds;
+
+    @Value("${query.preload.concurrency:16}")
+    private int preloadConcurrency;
+
+    @Value("${query.preload.timeout-seconds:15}")
+    private long preloadTimeoutSeconds;
+
+    @Value("${query.preload.ready-top-n:20}")
+    private int readyTopN;
+
     private final Cache<String, CachedR2dbcConnection> cache = Caffeine.newBuilder()
             .expireAfterAccess(30, TimeUnit.MINUTES)
             .refreshAfterWrite(60, TimeUnit.MINUTES)
             .maximumSize(300)
-            .build(this::loadFromMongoBlocking);
+            .removalListener((String configId, CachedR2dbcConnection pool, RemovalCause cause) ->
+                    poolLifecycle.retire(configId, pool, cause))
+            .build(new CacheLoader<String, CachedR2dbcConnection>() {
+                @Override
+                public CachedR2dbcConnection load(String configId) {
+                    return loadFromMongoBlocking(configId, null);
+                }
+
+                @Override
+                public CachedR2dbcConnection reload(String configId, CachedR2dbcConnection current) {
+                    return loadFromMongoBlocking(configId, current);
+                }
+            });
+
+    private final Cache<String, DatabaseConfig> configCache = Caffeine.newBuilder()
+            .expireAfterAccess(30, TimeUnit.MINUTES)
+            .maximumSize(300)
+            .build();
+
+    /** Pools being warmed by {@link #hotSwap}, keyed by configId and config hash */
+    private final Map<String, CachedR2dbcConnection> warming = new ConcurrentHashMap<>();
 
-    private CachedR2dbcConnection loadFromMongoBlocking(String configId) {
+    /** Config hash of the latest hot swap started per configId, so an older swap finishing late is dropped */
+    private final Map<String, String> latestSwap = new ConcurrentHashMap<>();
+
+    /**
+     * Periodic refresh keeps the current pool when the stored config has not changed.
+     */
+    private CachedR2dbcConnection loadFromMongoBlocking(String configId, CachedR2dbcConnection current) {
         DatabaseConfig config = repository.findById(configId).block();
         if (config == null) {
             throw new IllegalArgumentException("DatabaseConfig not found: " + configId);
         }
+        if (current != null && current.getConfigHash().equals(hashConfig(config.getConfig()))) {
+            return current;
+        }
         return createConnectionFactory(config);
     }
 
     public DatabaseClient getDatabaseClient(DatabaseConfig config) {
+        usageTracker.record(config.getId());
         return DatabaseClient.create(getConnectionFactory(config));
     }
 
@@ -66,45 +133,128 @@ public class DatabaseConnectionPoolManager {
 
         return repository.findById(configId)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("DatabaseConfig not found: " + configId)))
-                .map(config -> {
-                    CachedR2dbcConnection conn = createConnectionFactory(config);
-                    cache.put(configId, conn);
-                    return DatabaseClient.create(conn.getConnectionFactory());
-                });
+                .map(config -> DatabaseClient.create(connectionFor(config).getConnectionFactory()));
     }
 
-    public DataSource getDataSource(DatabaseConfig config) {
-        CachedR2dbcConnection cached = cache.getIfPresent(config.getId());
-        String currentHash = hashConfig(config.getConfig());
+    /**
+     * Resolves a DatabaseConfig by ID on this node, so callers can send only the ID instead of the
+     * credentials. Cached until the config is evicted or hot-swapped by an update message.
+     */
+    public Mono<DatabaseConfig> getDatabaseConfig(String configId) {
+        DatabaseConfig cached = configCache.getIfPresent(configId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
 
-        if (cached != null && cached.getConfigHash().equals(currentHash)) {
-            if (cached.getConnectionFactory() instanceof BlockingConnectionFactoryAdapter) {
-                return ((BlockingConnectionFactoryAdapter) cached.getConnectionFactory()).getDataSource();
-            } else {
-                throw new UnsupportedOperationException("R2DBC connection does not expose JDBC DataSource.");
-            }
+        return repository.findById(configId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("DatabaseConfig not found: " + configId)))
+                .doOnNext(config -> configCache.put(configId, config));
+    }
+
+    public DataSource getDataSource(DatabaseConfig config) {
+        usageTracker.record(config.getId());
+        CachedR2dbcConnection conn = connectionFor(config);
+        if (conn.getConnectionFactory() instanceof BlockingConnectionFactoryAdapter) {
+            return ((BlockingConnectionFactoryAdapter) conn.getConnectionFactory()).getDataSource();
         } else {
-            CachedR2dbcConnection newConn = createConnectionFactory(config);
-            cache.put(config.getId(), newConn);
-            if (newConn.getConnectionFactory() instanceof BlockingConnectionFactoryAdapter) {
-                return ((BlockingConnectionFactoryAdapter) newConn.getConnectionFactory()).getDataSource();
-            } else {
-                throw new UnsupportedOperationException("R2DBC connection does not expose JDBC DataSource.");
-            }
+            throw new UnsupportedOperationException("R2DBC connection does not expose JDBC DataSource.");
         }
     }
 
     private ConnectionFactory getConnectionFactory(DatabaseConfig config) {
-        CachedR2dbcConnection cached = cache.getIfPresent(config.getId());
+        return connectionFor(config).getConnectionFactory();
+    }
+
+    /**
+     * Cached pool for this config, built on a miss. The lookup and build run atomically per configId, so
+     * concurrent misses share one pool; a pool that {@link #hotSwap} is warming for the same config is
+     * adopted instead of building another one.
+     */
+    private CachedR2dbcConnection connectionFor(DatabaseConfig config) {
         String currentHash = hashConfig(config.getConfig());
+        return cache.asMap().compute(config.getId(), (configId, cached) -> {
+            if (cached != null && cached.getConfigHash().equals(currentHash)) {
+                return cached;
+            }
+            CachedR2dbcConnection pending = warming.get(configId + ":" + currentHash);
+            return pending != null ? pending : createConnectionFactory(config);
+        });
+    }
 
-        if (cached != null && cached.getConfigHash().equals(currentHash)) {
-            return cached.getConnectionFactory();
+    /**
+     * Applies an updated config without a cold start: the new pool is built and warmed to {@code minIdle}
+     * validated connections while the current one keeps serving, then replaces it in one cache update.
+     * The replaced pool drains through {@link PoolLifecycleManager}. A pool that fails to warm up within
+     * {@code query.pool.warmup-timeout-seconds} is swapped in anyway, since the new config is authoritative.
+     */
+    public Mono<Void> hotSwap(String configId) {
+        return repository.findById(configId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("DatabaseConfig not found: " + configId)))
+                .flatMap(config -> {
+                    String hash = hashConfig(config.getConfig());
+                    CachedR2dbcConnection current = cache.getIfPresent(configId);
+                    if (current != null && current.getConfigHash().equals(hash)) {
+                        configCache.put(configId, config);
+                        planCache.invalidateConfig(configId);
+                        log.info("♻️ Config {} updated without connection changes, keeping its pool", configId);
+                        return Mono.empty();
+                    }
+
+                    String key = configId + ":" + hash;
+                    latestSwap.put(configId, hash);
+                    boolean[] built = {false};
+                    CachedR2dbcConnection fresh = warming.computeIfAbsent(key, k -> {
+                        built[0] = true;
+                        return createConnectionFactory(config);
+                    });
+                    if (!built[0]) {
+                        return Mono.empty();
+                    }
+
+                    int minIdle = (Integer) config.getConfig().getOrDefault("minIdle", 1);
+                    return warmUp(fresh, minIdle)
+                            .timeout(Duration.ofSeconds(warmupTimeoutSeconds))
+                            .doOnNext(valid -> log.info("🔥 Warmed {} connections for config {}", valid, configId))
+                            .onErrorResume(e -> {
+                                log.warn("⚠️ Warm-up of the new pool for config {} failed, swapping it in cold: {}", configId, e.toString());
+                                return Mono.empty();
+                            })
+                            .then(Mono.fromRunnable(() -> swap(config, hash, fresh)))
+                            .doFinally(signal -> warming.remove(key));
+                })
+                .then();
+    }
+
+    private void swap(DatabaseConfig config, String hash, CachedR2dbcConnection fresh) {
+        String configId = config.getId();
+        if (!hash.equals(latestSwap.get(configId))) {
+            log.info("⏭️ Newer update for config {} in progress, discarding this pool", configId);
+            if (cache.getIfPresent(configId) != fresh) {
+                poolLifecycle.retire(configId, fresh, RemovalCause.REPLACED);
+            }
+            return;
         }
+        cache.put(configId, fresh);
+        configCache.put(configId, config);
+        planCache.invalidateConfig(configId);
+        latestSwap.remove(configId, hash);
+        log.info("🔁 Hot-swapped connection pool for config {}", configId);
+    }
 
-        CachedR2dbcConnection newConn = createConnectionFactory(config);
-        cache.put(config.getId(), newConn);
-        return newConn.getConnectionFactory();
+    /**
+     * Opens {@code connections} connections concurrently and validates each with a round trip before
+     * returning it to the pool; emits how many passed.
+     */
+    private Mono<Long> warmUp(CachedR2dbcConnection pool, int connections) {
+        ConnectionFactory factory = pool.getConnectionFactory();
+        Mono<Integer> prefill = factory instanceof ConnectionPool r2dbcPool ? r2dbcPool.warmup() : Mono.just(0);
+        return prefill.thenMany(Flux.range(0, Math.max(connections, 1)))
+                .flatMap(i -> Mono.usingWhen(
+                        Mono.<Connection>from(factory.create()),
+                        connection -> Mono.from(connection.validate(ValidationDepth.REMOTE)),
+                        Connection::close))
+                .filter(Boolean::booleanValue)
+                .count();
     }
 
     private CachedR2dbcConnection createConnectionFactory(DatabaseConfig config) {
@@ -113,12 +263,15 @@ public class DatabaseConnectionPoolManager {
 
         String driverType = resolveDriver(jdbcUrl);
 
+        CachedR2dbcConnection connection;
         if ("jdbc-fallback".equals(driverType)) {
             log.warn("⚠️ Falling back to JDBC connection for: {}", jdbcUrl);
-            return createJDBCConnectionFallback(cfg);
+            connection = createJDBCConnectionFallback(cfg);
+        } else {
+            connection = createR2DBCConnection(cfg, driverType);
         }
-
-        return createR2DBCConnection(cfg, driverType);
+        poolLifecycle.opened(connection);
+        return connection;
     }
 
     private CachedR2dbcConnection createR2DBCConnection(Map<String, Object> cfg, String driver) {
@@ -156,8 +309,13 @@ public class DatabaseConnectionPoolManager {
         ds.setPassword((String) cfg.get("password"));
         ds.setDriverClassName((String) cfg.get("driverClassName"));
         ds.setMaximumPoolSize((Integer) cfg.getOrDefault("maxPoolSize", 5));
+        String hash = hashConfig(cfg);
+        ds.setPoolName("jdbc-" + hash.substring(0, 8));
 
-        return new CachedR2dbcConnection(new BlockingConnectionFactoryAdapter(ds), hashConfig(cfg));
+        BlockingConnectionFactoryAdapter factory = new BlockingConnectionFactoryAdapter(ds,
+                jdbcExecutors.forPool(ds.getPoolName(), ds.getMaximumPoolSize()), jdbcExecutors.shared(),
+                jdbcExecutors.permits(ds.getMaximumPoolSize()), jdbcFetchSize, jdbcPrefetch);
+        return new CachedR2dbcConnection(factory, hash);
     }
 
     private String hashConfig(Map<String, Object> configMap) {
@@ -176,31 +334,84 @@ public class DatabaseConnectionPoolManager {
         return "jdbc-fallback";
     }
 
+    /**
+     * Closes every live pool on shutdown without waiting for a drain grace period.
+     */
+    @PreDestroy
+    void closePools() {
+        cache.asMap().values().forEach(poolLifecycle::closeNow);
+    }
+
     public void evict(String configId) {
         cache.invalidate(configId);
+        configCache.invalidate(configId);
+        planCache.invalidateConfig(configId);
     }
 
+    /**
+     * Builds pools for up to {@code limit} active configs, busiest tenants first by persisted usage stats,
+     * and opens and validates each pool's initial connections so first queries skip the connect handshake.
+     * Up to {@code query.preload.concurrency} pools warm at once, each within {@code query.preload.timeout-seconds};
+     * progress is reported through {@link PoolWarmupHealthIndicator}. Without usage stats the configs warm in
+     * stored order; if the configs cannot be read after retries nothing is preloaded, so readiness never waits on it.
+     */
     public void preloadConnections(int limit) {
         log.info("🚀 Preloading up to {} active database connections...", limit);
 
-        repository.findAll()
-                .filter(DatabaseConfig::isActive)
-                .take(limit)
-                .collectList()
-                .doOnNext(configs -> {
-                    for (DatabaseConfig config : configs) {
-                        try {
-                            CachedR2dbcConnection cached = createConnectionFactory(config);
-                            cache.put(config.getId(), cached);
-                            log.info("✅ Preloaded DB client for: {}", config.getDatabaseConnectionName());
-                        } catch (Exception e) {
-                            log.error("❌ Failed to preload DB client for: {}", config.getDatabaseConnectionName(), e);
-                        }
-                    }
-                })
-                .subscribe();
+        Mono<List<String>> rankedIds = usageTracker.rankedConfigIds().collectList()
+                .onErrorResume(e -> {
+                    log.warn("⚠️ Could not read usage stats, preloading in stored order: {}", e.toString());
+                    return Mono.just(List.of());
+                });
+        Mono<List<DatabaseConfig>> activeConfigs = repository.findAll().filter(DatabaseConfig::isActive).collectList()
+                .retryWhen(Retry.backoff(3, Duration.ofSeconds(1)))
+                .onErrorResume(e -> {
+                    log.error("❌ Could not read database configs, skipping preload", e);
+                    return Mono.just(List.of());
+                });
+
+        Mono.zip(rankedIds, activeConfigs)
+                .map(tuple -> byRecentTraffic(tuple.getT2(), tuple.getT1()).stream().limit(limit).toList())
+                .doOnNext(configs -> warmupHealth.start(configs.stream().map(DatabaseConfig::getId).toList(), readyTopN))
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(this::preload, preloadConcurrency)
+                .subscribe(
+                        unused -> { },
+                        error -> log.error("❌ Preloading failed", error),
+                        () -> log.info("✅ Preloading finished: {} pools", warmupHealth.progress()));
 
         log.info("✅ Preloading initiated.");
     }
 
+    private static List<DatabaseConfig> byRecentTraffic(List<DatabaseConfig> configs, List<String> rankedIds) {
+        Map<String, Integer> rank = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rank.put(rankedIds.get(i), i);
+        }
+        List<DatabaseConfig> ordered = new ArrayList<>(configs);
+        ordered.sort(Comparator.comparingInt(config -> rank.getOrDefault(config.getId(), Integer.MAX_VALUE)));
+        return ordered;
+    }
+
+    private Mono<Void> preload(DatabaseConfig config) {
+        int initialSize = (Integer) config.getConfig().getOrDefault("minIdle", 1);
+        return Mono.fromCallable(() -> connectionFor(config))
+                .flatMap(pool -> warmUp(pool, initialSize))
+                .flatMap(valid -> valid > 0
+                        ? Mono.just(valid)
+                        : Mono.error(new IllegalStateException("no connection passed validation")))
+                .timeout(Duration.ofSeconds(preloadTimeoutSeconds))
+                .doOnNext(valid -> {
+                    warmupHealth.warmed(config.getId());
+                    log.info("✅ Preloaded DB client for: {} ({} connections) [{}]",
+                            config.getDatabaseConnectionName(), valid, warmupHealth.progress());
+                })
+                .onErrorResume(e -> {
+                    warmupHealth.failed(config.getId(), e.toString());
+                    log.error("❌ Failed to preload DB client for: {}", config.getDatabaseConnectionName(), e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
 }
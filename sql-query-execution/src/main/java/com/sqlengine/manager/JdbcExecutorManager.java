@@ -0,0 +1,152 @@
+package com.sqlengine.manager;
+
+import com.sqlengine.adapter.JdbcPermits;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedulers for every blocking JDBC call on this node (JDBC fallback connections, metadata and schema
+ * lookups, BulkLoad batches), selected by {@code query.jdbc.executor}:
+ * <ul>
+ *     <li>{@code bounded-elastic} (default): one bounded-elastic scheduler per pool, capped at the pool size</li>
+ *     <li>{@code virtual}: one virtual thread per task (Java 21+); concurrency per pool is bounded by
+ *     {@link JdbcPermits} instead of by threads. Falls back to bounded-elastic on older runtimes.</li>
+ * </ul>
+ * Metrics: {@code jdbc.executor.active} (JDBC tasks running on virtual threads),
+ * {@code jdbc.executor.parked} (callers parked waiting for a connection permit) and
+ * {@code jdbc.executor.pinned} (virtual threads that blocked while pinned to their carrier, from JFR).
+ */
+@Slf4j
+@Component
+public class JdbcExecutorManager {
+
+    public static final String VIRTUAL = "virtual";
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadFactory virtualThreads;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger parked = new AtomicInteger();
+    private final Scheduler shared;
+    private RecordingStream pinnedEvents;
+
+    public JdbcExecutorManager(@Value("${query.jdbc.executor:bounded-elastic}") String mode, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        ThreadFactory factory = VIRTUAL.equalsIgnoreCase(mode) ? virtualThreadFactory() : null;
+        if (VIRTUAL.equalsIgnoreCase(mode) && factory == null) {
+            log.warn("⚠️ query.jdbc.executor=virtual needs Java 21+, running JDBC work on bounded-elastic schedulers");
+        }
+        this.virtualThreads = factory;
+        this.shared = factory != null ? virtualScheduler() : Schedulers.boundedElastic();
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("jdbc.executor.active", active, AtomicInteger::get)
+                .description("JDBC tasks running on virtual threads")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.executor.parked", parked, AtomicInteger::get)
+                .description("Callers parked waiting for a JDBC connection permit")
+                .register(meterRegistry);
+        if (isVirtual()) {
+            Counter pinned = Counter.builder("jdbc.executor.pinned")
+                    .description("Virtual threads that blocked while pinned to their carrier thread")
+                    .register(meterRegistry);
+            pinnedEvents = new RecordingStream();
+            pinnedEvents.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20));
+            pinnedEvents.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+            pinnedEvents.startAsync();
+            log.info("🧵 Blocking JDBC work runs on virtual threads");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pinnedEvents != null) {
+            pinnedEvents.close();
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtualThreads != null;
+    }
+
+    /**
+     * Scheduler for one-off blocking JDBC calls that do not go through a pooled R2DBC connection, and for
+     * fallback pools' connection acquires, which must not wait on the pool's own workers.
+     */
+    public Scheduler shared() {
+        return shared;
+    }
+
+    /**
+     * Scheduler for one JDBC fallback pool. Its workers run tasks one at a time, so a worker can be pinned
+     * to a connection, so connection acquires run on {@link #shared()} instead; callers dispose
+     * bounded-elastic schedulers together with the pool.
+     */
+    public Scheduler forPool(String poolName, int maxPoolSize) {
+        if (isVirtual()) {
+            return shared;
+        }
+        return Schedulers.newBoundedElastic(maxPoolSize, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, poolName, 60, true);
+    }
+
+    /**
+     * Disposes a scheduler from {@link #forPool} once its pool is closed; the shared scheduler stays.
+     */
+    public void release(Scheduler scheduler) {
+        if (scheduler != shared) {
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * Connection permits for one JDBC fallback pool, matching its Hikari maximum pool size.
+     */
+    public JdbcPermits permits(int maxPoolSize) {
+        return new JdbcPermits(maxPoolSize, parked);
+    }
+
+    /**
+     * Virtual thread per task. Trampolining makes each worker run its tasks serially, in order.
+     */
+    private Scheduler virtualScheduler() {
+        Executor executor = task -> virtualThreads.newThread(() -> {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        }).start();
+        return Schedulers.fromExecutor(executor, true);
+    }
+
+    /**
+     * {@code Thread.ofVirtual().name("jdbc-virtual-", 0).factory()}, looked up reflectively because the
+     * build targets Java 17; null when the runtime has no virtual threads.
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "jdbc-virtual-", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.sqlengine.manager;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.sqlengine.adapter.BlockingConnectionFactoryAdapter;
+import com.sqlengine.dto.CachedR2dbcConnection;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closes connection pools that {@link DatabaseConnectionPoolManager} no longer hands out (config change,
+ * eviction, expiry, size limit). A retired pool stops lending idle connections, keeps serving the queries
+ * that already hold one for up to {@code query.pool.drain-grace-seconds}, and is then closed.
+ * Counts are published as {@code db.pools.live}, {@code db.pools.draining} and {@code db.pools.closed}.
+ */
+@Slf4j
+@Component
+public class PoolLifecycleManager {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+
+    private final JdbcExecutorManager jdbcExecutors;
+    private final Duration drainGrace;
+    private final AtomicInteger live = new AtomicInteger();
+    private final Set<CachedR2dbcConnection> draining = ConcurrentHashMap.newKeySet();
+    private final Counter closed;
+
+    public PoolLifecycleManager(JdbcExecutorManager jdbcExecutors, MeterRegistry meterRegistry,
+                                @Value("${query.pool.drain-grace-seconds:30}") long drainGraceSeconds) {
+        this.jdbcExecutors = jdbcExecutors;
+        this.drainGrace = Duration.ofSeconds(drainGraceSeconds);
+        Gauge.builder("db.pools.live", live, AtomicInteger::get)
+                .description("Connection pools currently handed out")
+                .register(meterRegistry);
+        Gauge.builder("db.pools.draining", draining, Set::size)
+                .description("Retired connection pools waiting for in-flight queries")
+                .register(meterRegistry);
+        this.closed = Counter.builder("db.pools.closed")
+                .description("Connection pools closed after draining")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a newly built pool.
+     */
+    public void opened(CachedR2dbcConnection connection) {
+        live.incrementAndGet();
+    }
+
+    /**
+     * Caffeine removal listener: drains and closes the removed pool in the background.
+     */
+    public void retire(String configId, CachedR2dbcConnection connection, RemovalCause cause) {
+        if (connection == null || !draining.add(connection)) {
+            return;
+        }
+        live.decrementAndGet();
+        log.info("🧹 Retiring connection pool for config {} ({}), {} in use", configId, cause, inUse(connection.getConnectionFactory()));
+        stopLending(connection.getConnectionFactory());
+
+        Flux.interval(Duration.ZERO, POLL_INTERVAL)
+                .filter(tick -> inUse(connection.getConnectionFactory()) == 0)
+                .next()
+                .timeout(drainGrace)
+                .onErrorResume(TimeoutException.class, e -> {
+                    log.warn("⚠️ Pool for config {} still has {} connections in use after {}s, closing anyway",
+                            configId, inUse(connection.getConnectionFactory()), drainGrace.toSeconds());
+                    return Mono.empty();
+                })
+                .then(close(connection))
+                .doFinally(signal -> draining.remove(connection))
+                .subscribe(
+                        unused -> { },
+                        error -> log.error("❌ Failed to close connection pool for config {}", configId, error),
+                        () -> log.info("✅ Closed connection pool for config {}", configId));
+    }
+
+    public int liveCount() {
+        return live.get();
+    }
+
+    public int drainingCount() {
+        return draining.size();
+    }
+
+    public long closedCount() {
+        return (long) closed.count();
+    }
+
+    /**
+     * Closes pools that are still draining without waiting for their grace period.
+     */
+    @PreDestroy
+    void shutdown() {
+        for (CachedR2dbcConnection connection : draining) {
+            close(connection).onErrorResume(e -> Mono.empty()).block(Duration.ofSeconds(10));
+        }
+    }
+
+    /**
+     * Closes a pool immediately (application shutdown).
+     */
+    public void closeNow(CachedR2dbcConnection connection) {
+        live.decrementAndGet();
+        close(connection).onErrorResume(e -> Mono.empty()).block(Duration.ofSeconds(10));
+    }
+
+    /**
+     * Idle connections are closed now and busy ones when they are returned, so the pool shrinks while draining.
+     */
+    private void stopLending(ConnectionFactory factory) {
+        if (factory instanceof BlockingConnectionFactoryAdapter jdbc && jdbc.getDataSource() instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                pool.softEvictConnections();
+            }
+        }
+    }
+
+    private int inUse(ConnectionFactory factory) {
+        if (factory instanceof ConnectionPool pool) {
+            return pool.getMetrics().map(metrics -> metrics.acquiredSize()).orElse(0);
+        }
+        if (factory instanceof BlockingConnectionFactoryAdapter jdbc && jdbc.getDataSource() instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+
+    private Mono<Void> close(CachedR2dbcConnection connection) {
+        ConnectionFactory factory = connection.getConnectionFactory();
+        Mono<Void> close;
+        if (factory instanceof ConnectionPool pool) {
+            close = pool.disposeLater();
+        } else if (factory instanceof BlockingConnectionFactoryAdapter jdbc) {
+            close = Mono.<Void>fromRunnable(() -> {
+                        ((HikariDataSource) jdbc.getDataSource()).close();
+                        jdbcExecutors.release(jdbc.getExecutor());
+                    })
+                    .subscribeOn(jdbcExecutors.shared());
+        } else {
+            close = Mono.empty();
+        }
+        return close.doOnSuccess(unused -> closed.increment());
+    }
+}
@@ -0,0 +1,65 @@
+package com.sqlengine.manager;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup pool warm-up progress, exposed as the {@code poolWarmup} health contributor and included in the
+ * readiness group. DOWN until preload has started and each of the {@code query.preload.ready-top-n}
+ * busiest tenants is warm; a tenant whose warm-up failed (database unreachable, timeout) stops blocking
+ * readiness and is listed under {@code failed}.
+ */
+@Component
+public class PoolWarmupHealthIndicator implements HealthIndicator {
+
+    private volatile Set<String> required;
+    private final Set<String> warm = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> failed = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+
+    /**
+     * Starts tracking a preload of {@code configIds}, busiest first; the first {@code topN} gate readiness.
+     */
+    void start(List<String> configIds, int topN) {
+        warm.clear();
+        failed.clear();
+        total.set(configIds.size());
+        required = Set.copyOf(configIds.subList(0, Math.min(topN, configIds.size())));
+    }
+
+    void warmed(String configId) {
+        warm.add(configId);
+    }
+
+    void failed(String configId, String reason) {
+        failed.put(configId, reason);
+    }
+
+    String progress() {
+        return (warm.size() + failed.size()) + "/" + total.get();
+    }
+
+    @Override
+    public Health health() {
+        Set<String> gate = required;
+        if (gate == null) {
+            return Health.down().withDetail("preload", "not started").build();
+        }
+        long pending = gate.stream().filter(id -> !warm.contains(id) && !failed.containsKey(id)).count();
+        Health.Builder health = pending == 0 ? Health.up() : Health.down();
+        return health
+                .withDetail("progress", progress())
+                .withDetail("warm", warm.size())
+                .withDetail("topN", gate.size())
+                .withDetail("topNPending", pending)
+                .withDetail("failed", Map.copyOf(failed))
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.sqlengine.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sqlengine.model.QueryTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Templates registered through PrepareTemplate, keyed by a compact handle so RunQuery does not have
+ * to carry the full template on every call. Entries are versioned by the engine's template hash.
+ */
+@Slf4j
+@Component
+public class PreparedTemplateRegistry {
+
+    private final Cache<String, PreparedTemplate> cache = Caffeine.newBuilder()
+            .expireAfterAccess(60, TimeUnit.MINUTES)
+            .maximumSize(2000)
+            .build();
+
+    /**
+     * Registers the template and returns its handle. Preparing the same version twice yields the same handle.
+     */
+    public String register(QueryTemplate template, String version) {
+        String handle = template.getId() + "@" + version;
+        cache.put(handle, new PreparedTemplate(template, version));
+        log.info("📌 Prepared QueryTemplate {} as handle {}", template.getTemplateName(), handle);
+        return handle;
+    }
+
+    /**
+     * Returns a copy of the prepared template so per-request overrides never touch the cached instance.
+     * Empty when the handle is unknown (expired, node restarted) or was prepared for another version.
+     */
+    public Optional<QueryTemplate> lookup(String handle, String version) {
+        PreparedTemplate prepared = cache.getIfPresent(handle);
+        if (prepared == null || (!version.isEmpty() && !prepared.version().equals(version))) {
+            return Optional.empty();
+        }
+        QueryTemplate copy = new QueryTemplate();
+        BeanUtils.copyProperties(prepared.template(), copy);
+        copy.setTemplateVersion(prepared.version());
+        return Optional.of(copy);
+    }
+
+    public void evict(String handle) {
+        cache.invalidate(handle);
+    }
+
+    private record PreparedTemplate(QueryTemplate template, String version) {
+    }
+}
@@ -0,0 +1,362 @@
+package com.sqlengine.manager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sqlengine.model.DatabaseConfig;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for queries, so one tenant cannot take the whole node. A query runs once it holds a
+ * slot:
+ * <ul>
+ *     <li>at most {@code query.admission.max-concurrent} queries run on this node;</li>
+ *     <li>at most {@code maxConcurrentQueries} (config map, default {@code query.admission.per-config-limit})
+ *     run per DatabaseConfig;</li>
+ *     <li>up to {@code maxQueuedQueries} (default {@code query.admission.queue-size}) more wait per DatabaseConfig,
+ *     anything beyond fails fast with RESOURCE_EXHAUSTED.</li>
+ * </ul>
+ * Free slots go to waiting tenants by stride scheduling: each admitted query advances its tenant's pass by
+ * {@code 1 / queryWeight} (config map, default 1) and the waiting tenant with the lowest pass goes next, so
+ * backlogged tenants share the node in proportion to their weights.
+ *
+ * <p>A tenant is a config id; inline configs without one are told apart by a hash of their config map
+ * ({@code inline-<hash>}). Tenants idle for {@code query.admission.tenant-idle-timeout-ms} are dropped
+ * together with their meters.</p>
+ *
+ * <p>Metrics, tagged by {@code config}: {@code query.admission.queued}, {@code query.admission.running},
+ * {@code query.admission.wait} and {@code query.admission.rejected}.</p>
+ */
+@Slf4j
+@Component
+public class QueryAdmissionManager {
+
+    private static final String INLINE = "inline";
+    private static final ObjectMapper MAPPER = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrent;
+    private final int defaultPerConfigLimit;
+    private final int defaultQueueSize;
+    private final long tenantIdleNanos;
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    /** Guards every tenant's queue, running count and pass */
+    private final Object lock = new Object();
+
+    public QueryAdmissionManager(MeterRegistry meterRegistry,
+                                 @Value("${query.admission.max-concurrent:64}") int maxConcurrent,
+                                 @Value("${query.admission.per-config-limit:16}") int defaultPerConfigLimit,
+                                 @Value("${query.admission.queue-size:100}") int defaultQueueSize,
+                                 @Value("${query.admission.tenant-idle-timeout-ms:600000}") long tenantIdleTimeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrent = maxConcurrent;
+        this.defaultPerConfigLimit = defaultPerConfigLimit;
+        this.defaultQueueSize = defaultQueueSize;
+        this.tenantIdleNanos = TimeUnit.MILLISECONDS.toNanos(tenantIdleTimeoutMs);
+        Gauge.builder("query.admission.running.total", running, AtomicInteger::get)
+                .description("Admitted queries running on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} once the config's tenant is admitted; the slot is released when it terminates or is cancelled.
+     */
+    public <T> Mono<T> admit(DatabaseConfig config, Mono<T> work) {
+        return Mono.usingWhen(acquire(config), slot -> work, Slot::release, (slot, error) -> slot.release(), Slot::release);
+    }
+
+    /**
+     * Streaming variant of {@link #admit(DatabaseConfig, Mono)}: the slot is held until the stream terminates.
+     */
+    public <T> Flux<T> admitMany(DatabaseConfig config, Flux<T> work) {
+        return Flux.usingWhen(acquire(config), slot -> work, Slot::release, (slot, error) -> slot.release(), Slot::release);
+    }
+
+    private Mono<Slot> acquire(DatabaseConfig config) {
+        return Mono.create(sink -> {
+            String tenantId = tenantIdOf(config);
+            Tenant tenant;
+            Waiter waiter;
+            List<Waiter> granted;
+            synchronized (lock) {
+                // Looked up under the lock so an eviction cannot drop the tenant this waiter joins
+                tenant = tenants.computeIfAbsent(tenantId, this::newTenant);
+                waiter = new Waiter(tenant, sink, System.nanoTime());
+                tenant.lastUsed = waiter.enqueuedAt;
+                tenant.configure(config.getConfig());
+                if (tenant.queue.size() >= tenant.queueSize) {
+                    tenant.rejected.increment();
+                    log.debug("⛔ Rejected query for config {}: {} running, {} queued", tenant.configId, tenant.running, tenant.queue.size());
+                    sink.error(Status.RESOURCE_EXHAUSTED
+                            .withDescription("Too many queued queries for config " + tenant.configId
+                                    + " (" + tenant.running + " running, " + tenant.queue.size() + " queued)")
+                            .asRuntimeException());
+                    return;
+                }
+                if (!tenant.backlogged()) {
+                    // A tenant that was idle does not bank credit: it starts level with the others
+                    tenant.pass = Math.max(tenant.pass, minPass());
+                }
+                tenant.queue.addLast(waiter);
+                granted = dispatch();
+            }
+            sink.onCancel(() -> {
+                if (waiter.cancel()) {
+                    List<Waiter> next;
+                    synchronized (lock) {
+                        tenant.queue.remove(waiter);
+                        tenant.lastUsed = System.nanoTime();
+                        next = dispatch();
+                    }
+                    grant(next);
+                } else {
+                    waiter.slot.releaseNow();
+                }
+            });
+            grant(granted);
+        });
+    }
+
+    /**
+     * Hands free slots to the waiting tenants with the lowest pass. Called under {@link #lock}; the returned
+     * waiters are completed by {@link #grant} outside it.
+     */
+    private List<Waiter> dispatch() {
+        List<Waiter> granted = new ArrayList<>();
+        while (running.get() < maxConcurrent) {
+            Tenant next = null;
+            for (Tenant tenant : tenants.values()) {
+                if (!tenant.queue.isEmpty() && tenant.running < tenant.limit && (next == null || tenant.pass < next.pass)) {
+                    next = tenant;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            Waiter waiter = next.queue.pollFirst();
+            if (!waiter.take()) {
+                continue;
+            }
+            next.running++;
+            next.pass += 1.0 / next.weight;
+            running.incrementAndGet();
+            granted.add(waiter);
+        }
+        return granted;
+    }
+
+    private void grant(List<Waiter> granted) {
+        for (Waiter waiter : granted) {
+            waiter.tenant.wait.record(Duration.ofNanos(System.nanoTime() - waiter.enqueuedAt));
+            waiter.sink.success(waiter.slot);
+        }
+    }
+
+    private void release(Tenant tenant) {
+        List<Waiter> granted;
+        synchronized (lock) {
+            tenant.running--;
+            tenant.lastUsed = System.nanoTime();
+            running.decrementAndGet();
+            granted = dispatch();
+        }
+        grant(granted);
+    }
+
+    /**
+     * Drops tenants with nothing running or queued for longer than the idle timeout, and their meters, so
+     * configs that stopped sending queries (or one-off inline configs) do not accumulate.
+     */
+    @Scheduled(fixedDelayString = "${query.admission.evict-interval-ms:60000}")
+    public void evictIdleTenants() {
+        long now = System.nanoTime();
+        List<Tenant> evicted = new ArrayList<>();
+        synchronized (lock) {
+            tenants.values().removeIf(tenant -> {
+                boolean idle = !tenant.backlogged() && now - tenant.lastUsed >= tenantIdleNanos;
+                if (idle) {
+                    evicted.add(tenant);
+                }
+                return idle;
+            });
+        }
+        for (Tenant tenant : evicted) {
+            tenant.meters.forEach(meterRegistry::remove);
+        }
+        if (!evicted.isEmpty()) {
+            log.debug("🧹 Evicted {} idle admission tenants", evicted.size());
+        }
+    }
+
+    private static String tenantIdOf(DatabaseConfig config) {
+        if (StringUtils.hasText(config.getId())) {
+            return config.getId();
+        }
+        try {
+            return INLINE + "-" + DigestUtils.sha256Hex(MAPPER.writeValueAsString(config.getConfig())).substring(0, 12);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("❌ Inline config cannot be serialized for admission", e);
+        }
+    }
+
+    private double minPass() {
+        double min = Double.MAX_VALUE;
+        for (Tenant tenant : tenants.values()) {
+            if (tenant.backlogged()) {
+                min = Math.min(min, tenant.pass);
+            }
+        }
+        return min == Double.MAX_VALUE ? 0 : min;
+    }
+
+    private Tenant newTenant(String configId) {
+        Tenant tenant = new Tenant(configId);
+        tenant.meters.add(Gauge.builder("query.admission.queued", tenant, t -> t.queue.size())
+                .tag("config", configId)
+                .description("Queries waiting for admission")
+                .register(meterRegistry));
+        tenant.meters.add(Gauge.builder("query.admission.running", tenant, t -> t.running)
+                .tag("config", configId)
+                .description("Admitted queries running")
+                .register(meterRegistry));
+        tenant.wait = Timer.builder("query.admission.wait")
+                .tag("config", configId)
+                .description("Time from arrival to admission")
+                .register(meterRegistry);
+        tenant.rejected = Counter.builder("query.admission.rejected")
+                .tag("config", configId)
+                .description("Queries rejected with RESOURCE_EXHAUSTED because the queue was full")
+                .register(meterRegistry);
+        tenant.meters.add(tenant.wait);
+        tenant.meters.add(tenant.rejected);
+        return tenant;
+    }
+
+    private final class Tenant {
+        private final String configId;
+        private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        private int running;
+        private double pass;
+        private int limit;
+        private int queueSize;
+        private double weight;
+        private long lastUsed;
+        private Timer wait;
+        private Counter rejected;
+        private final List<Meter> meters = new ArrayList<>(4);
+
+        private Tenant(String configId) {
+            this.configId = configId;
+        }
+
+        /**
+         * Reads the per-config overrides on every admission, so config updates apply without a restart.
+         */
+        private void configure(Map<String, Object> cfg) {
+            limit = intOption(cfg, "maxConcurrentQueries", defaultPerConfigLimit);
+            queueSize = intOption(cfg, "maxQueuedQueries", defaultQueueSize);
+            weight = numberOption(cfg, "queryWeight", 1.0);
+        }
+
+        private boolean backlogged() {
+            return running > 0 || !queue.isEmpty();
+        }
+    }
+
+    private static int intOption(Map<String, Object> cfg, String key, int defaultValue) {
+        return (int) numberOption(cfg, key, defaultValue);
+    }
+
+    /**
+     * A positive number from the config map; stored configs hold numbers, configs sent over gRPC hold
+     * strings. Anything else falls back to the default.
+     */
+    private static double numberOption(Map<String, Object> cfg, String key, double defaultValue) {
+        Object value = cfg == null ? null : cfg.get(key);
+        double parsed;
+        if (value instanceof Number number) {
+            parsed = number.doubleValue();
+        } else if (value instanceof String text && !text.isBlank()) {
+            try {
+                parsed = Double.parseDouble(text.strip());
+            } catch (NumberFormatException e) {
+                log.warn("⚠️ Ignoring non-numeric {} '{}' in config", key, text);
+                return defaultValue;
+            }
+        } else {
+            return defaultValue;
+        }
+        return parsed > 0 ? parsed : defaultValue;
+    }
+
+    private final class Waiter {
+        private final Tenant tenant;
+        private final MonoSink<Slot> sink;
+        private final long enqueuedAt;
+        private final Slot slot;
+        /** 0 waiting, 1 granted, 2 cancelled */
+        private final AtomicInteger state = new AtomicInteger();
+
+        private Waiter(Tenant tenant, MonoSink<Slot> sink, long enqueuedAt) {
+            this.tenant = tenant;
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+            this.slot = new Slot(tenant);
+        }
+
+        private boolean take() {
+            return state.compareAndSet(0, 1);
+        }
+
+        private boolean cancel() {
+            return state.compareAndSet(0, 2);
+        }
+    }
+
+    /**
+     * One admitted query; released exactly once whether it completes, fails or is cancelled.
+     */
+    private final class Slot {
+        private final Tenant tenant;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(Tenant tenant) {
+            this.tenant = tenant;
+        }
+
+        private Mono<Void> release() {
+            return Mono.fromRunnable(this::releaseNow);
+        }
+
+        private void releaseNow() {
+            if (released.compareAndSet(false, true)) {
+                QueryAdmissionManager.this.release(tenant);
+            }
+        }
+    }
+}
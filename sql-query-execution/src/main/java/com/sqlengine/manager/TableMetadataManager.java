@@ -4,21 +4,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.sqlengine.adapter.BlockingConnectionAdapter;
+import com.sqlengine.adapter.BlockingConnectionFactoryAdapter;
+import com.sqlengine.enums.DatabaseProvider;
 import com.sqlengine.model.DatabaseConfig;
+import com.sqlengine.plan.QueryPlanCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -26,13 +32,46 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class TableMetadataManager {
 
+    private final QueryPlanCache planCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final Map<String, Integer> INFORMATION_SCHEMA_TYPES = Map.ofEntries(
+            Map.entry("smallint", Types.SMALLINT), Map.entry("tinyint", Types.TINYINT),
+            Map.entry("mediumint", Types.INTEGER), Map.entry("int", Types.INTEGER), Map.entry("integer", Types.INTEGER),
+            Map.entry("year", Types.INTEGER), Map.entry("bigint", Types.BIGINT),
+            Map.entry("real", Types.REAL), Map.entry("float", Types.REAL),
+            Map.entry("double", Types.DOUBLE), Map.entry("double precision", Types.DOUBLE),
+            Map.entry("numeric", Types.NUMERIC), Map.entry("decimal", Types.DECIMAL),
+            Map.entry("boolean", Types.BOOLEAN), Map.entry("bit", Types.BIT),
+            Map.entry("date", Types.DATE),
+            Map.entry("time", Types.TIME), Map.entry("time without time zone", Types.TIME),
+            Map.entry("time with time zone", Types.TIME_WITH_TIMEZONE),
+            Map.entry("datetime", Types.TIMESTAMP), Map.entry("timestamp", Types.TIMESTAMP),
+            Map.entry("timestamp without time zone", Types.TIMESTAMP),
+            Map.entry("timestamp with time zone", Types.TIMESTAMP_WITH_TIMEZONE),
+            Map.entry("char", Types.CHAR), Map.entry("character", Types.CHAR),
+            Map.entry("varchar", Types.VARCHAR), Map.entry("character varying", Types.VARCHAR),
+            Map.entry("text", Types.VARCHAR), Map.entry("tinytext", Types.VARCHAR),
+            Map.entry("mediumtext", Types.LONGVARCHAR), Map.entry("longtext", Types.LONGVARCHAR),
+            Map.entry("enum", Types.VARCHAR), Map.entry("set", Types.VARCHAR),
+            Map.entry("binary", Types.BINARY), Map.entry("varbinary", Types.VARBINARY), Map.entry("bytea", Types.BINARY),
+            Map.entry("blob", Types.BLOB), Map.entry("tinyblob", Types.BLOB),
+            Map.entry("mediumblob", Types.BLOB), Map.entry("longblob", Types.BLOB),
+            Map.entry("array", Types.ARRAY));
+
     private final Cache<String, Map<String, Integer>> metadataCache = Caffeine.newBuilder()
             .expireAfterWrite(30, TimeUnit.MINUTES)
             .maximumSize(1000)
             .build();
 
+    private final Cache<String, Set<String>> nullableCache = Caffeine.newBuilder()
+            .expireAfterWrite(30, TimeUnit.MINUTES)
+            .maximumSize(1000)
+            .build();
+
+    private record TableColumns(Map<String, Integer> types, Set<String> nullable) {
+    }
+
     /**
      * Fetch column types (SQL types) for a table using JDBC-based DataSource.
      */
@@ -68,31 +107,126 @@ public class TableMetadataManager {
         return columnTypes;
     }
 
+    /**
+     * Column types of a table, by lower-case column name; empty if the table does not exist. JDBC-fallback
+     * connections read the JDBC metadata, native R2DBC connections {@code information_schema.columns}.
+     * Tables that were found are cached like {@link #getColumnTypes}, so {@link #invalidate} covers them too.
+     */
     public Mono<Map<String, Integer>> getColumnTypesReactive(DatabaseConfig config, DatabaseClient dbClient, String tableName) {
+        Map<String, Integer> cached = metadataCache.getIfPresent(generateCacheKey(config, tableName));
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return loadColumns(config, dbClient, tableName).map(TableColumns::types);
+    }
+
+    /**
+     * Lower-case names of the table's columns that are declared nullable, read and cached with the column types.
+     */
+    public Mono<Set<String>> getNullableColumnsReactive(DatabaseConfig config, DatabaseClient dbClient, String tableName) {
+        Set<String> cached = nullableCache.getIfPresent(generateCacheKey(config, tableName));
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return loadColumns(config, dbClient, tableName).map(TableColumns::nullable);
+    }
+
+    private Mono<TableColumns> loadColumns(DatabaseConfig config, DatabaseClient dbClient, String tableName) {
+        String cacheKey = generateCacheKey(config, tableName);
+        Mono<TableColumns> load = dbClient.getConnectionFactory() instanceof BlockingConnectionFactoryAdapter
+                ? loadFromJdbcMetadata(dbClient, tableName)
+                : loadFromInformationSchema(config.getProvider(), dbClient, tableName);
+        return load.doOnNext(columns -> {
+            if (!columns.types().isEmpty()) {
+                metadataCache.put(cacheKey, columns.types());
+                nullableCache.put(cacheKey, columns.nullable());
+            }
+        });
+    }
+
+    private Mono<TableColumns> loadFromJdbcMetadata(DatabaseClient dbClient, String tableName) {
         return dbClient.inConnection(connection -> {
             if (!(connection instanceof BlockingConnectionAdapter)) {
                 return Mono.error(new UnsupportedOperationException("⚠️ Only BlockingConnectionAdapter supported for metadata lookup."));
             }
 
-            return Mono.fromCallable(() -> {
-                java.sql.Connection jdbcConn = ((BlockingConnectionAdapter) connection).getJdbcConnection();
-                ResultSet rs = jdbcConn.getMetaData().getColumns(null, null, tableName, null);
+            return ((BlockingConnectionAdapter) connection).run(jdbcConn -> {
                 Map<String, Integer> columnTypes = new HashMap<>();
-                while (rs.next()) {
-                    columnTypes.put(rs.getString("COLUMN_NAME").toLowerCase(), rs.getInt("DATA_TYPE"));
+                Set<String> nullable = new HashSet<>();
+                try (ResultSet rs = jdbcConn.getMetaData().getColumns(null, null, tableName, null)) {
+                    while (rs.next()) {
+                        String column = rs.getString("COLUMN_NAME").toLowerCase();
+                        columnTypes.put(column, rs.getInt("DATA_TYPE"));
+                        if (rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable) {
+                            nullable.add(column);
+                        }
+                    }
                 }
-                return columnTypes;
-            }).subscribeOn(Schedulers.boundedElastic());
+                return new TableColumns(columnTypes, nullable);
+            });
         });
     }
 
+    /**
+     * Reads the columns of a native R2DBC connection's table from {@code information_schema}, mapping the
+     * type names to {@link Types} codes. A {@code schema.table} name is matched on both parts, a bare name
+     * only in the connection's current database (MySQL/MariaDB) or search path (PostgreSQL), since
+     * {@code information_schema} lists every database or schema the user can see.
+     */
+    private Mono<TableColumns> loadFromInformationSchema(DatabaseProvider provider, DatabaseClient dbClient,
+                                                         String tableName) {
+        int dot = tableName.lastIndexOf('.');
+        String sql = "SELECT column_name, data_type, is_nullable FROM information_schema.columns WHERE LOWER(table_name) = LOWER(:table)"
+                + (dot >= 0 ? " AND LOWER(table_schema) = LOWER(:schema)" : currentSchemaFilter(provider));
+        DatabaseClient.GenericExecuteSpec spec = dbClient.sql(sql).bind("table", tableName.substring(dot + 1));
+        if (dot >= 0) {
+            spec = spec.bind("schema", tableName.substring(0, dot));
+        }
+        DatabaseClient.GenericExecuteSpec query = spec;
+        return Mono.defer(() -> {
+            Map<String, Integer> columnTypes = new HashMap<>();
+            Set<String> nullable = new HashSet<>();
+            return query.map(row -> {
+                        String column = row.get("column_name", String.class).toLowerCase();
+                        columnTypes.put(column, sqlTypeOf(row.get("data_type", String.class)));
+                        if ("YES".equalsIgnoreCase(row.get("is_nullable", String.class))) {
+                            nullable.add(column);
+                        }
+                        return column;
+                    })
+                    .all()
+                    .then(Mono.fromSupplier(() -> new TableColumns(columnTypes, nullable)));
+        });
+    }
+
+    private static String currentSchemaFilter(DatabaseProvider provider) {
+        if (provider == null) {
+            return "";
+        }
+        return switch (provider) {
+            case MYSQL, MARIADB -> " AND table_schema = DATABASE()";
+            case POSTGRESQL -> " AND table_schema = ANY(current_schemas(false))";
+            default -> "";
+        };
+    }
+
+    /**
+     * {@link Types} code for an {@code information_schema} type name (PostgreSQL and MySQL spellings);
+     * anything unknown is {@link Types#OTHER}, which binds as text.
+     */
+    static int sqlTypeOf(String dataType) {
+        return INFORMATION_SCHEMA_TYPES.getOrDefault(dataType == null ? "" : dataType.toLowerCase(), Types.OTHER);
+    }
+
 
     /**
-     * Remove table metadata from cache (e.g., after schema change).
+     * Remove table metadata from cache (e.g., after schema change), along with every compiled plan reading the table.
      */
     public void invalidate(DatabaseConfig config, String tableName) {
         String cacheKey = generateCacheKey(config, tableName);
         metadataCache.invalidate(cacheKey);
+        nullableCache.invalidate(cacheKey);
+        planCache.invalidateTable(config, tableName);
         log.info("♻️ Invalidated metadata cache for table '{}' (key: {})", tableName, cacheKey);
     }
 
@@ -0,0 +1,202 @@
+package com.sqlengine.plan;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqlengine.model.QueryTemplate;
+import com.sqlengine.utils.QueryParamCaster;
+import lombok.Getter;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One named parameter of a compiled {@link QueryPlan}: where its value comes from in the request
+ * template and the caster that turns it into the column's Java type.
+ *
+ * <p>IN / NOT IN conditions read a list value and bind it either as one typed array ({@link #asArray()})
+ * or as a fixed number of element slots ({@link #element(String, int)}); element slots past the end of
+ * the list repeat its last value, which leaves the predicate unchanged. Lists too long for the dialect's
+ * bind parameter limit are bound as one JSON array text ({@link #asJson()}) that the SQL unpacks.</p>
+ */
+@Getter
+public final class BindSlot {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public enum Source { CONDITION, HAVING, SET, SEEK, CONSTANT }
+
+    private final String name;
+    private final Source source;
+    /** Position in conditions/havingConditions, or the key index in the continuation token for SEEK. */
+    private final int position;
+    private final String column;
+    private final int sqlType;
+    private final Object constant;
+    private final Function<Object, Object> caster;
+    /** Index into the list value for element slots, -1 otherwise. */
+    private final int element;
+    /** Whether the whole list value is bound as one array parameter. */
+    private final boolean array;
+    /** Whether the whole list value is bound as one JSON array string. */
+    private final boolean json;
+
+    private BindSlot(String name, Source source, int position, String column, int sqlType, Object constant) {
+        this(name, source, position, column, sqlType, constant, -1, false, false);
+    }
+
+    private BindSlot(String name, Source source, int position, String column, int sqlType, Object constant,
+                     int element, boolean array, boolean json) {
+        this.name = name;
+        this.source = source;
+        this.position = position;
+        this.column = column;
+        this.sqlType = sqlType;
+        this.constant = constant;
+        this.element = element;
+        this.array = array;
+        this.json = json;
+        Function<String, Object> typed = QueryParamCaster.resolve(sqlType);
+        this.caster = raw -> QueryParamCaster.cast(raw, sqlType, typed);
+    }
+
+    public static BindSlot condition(String name, int position, String column, int sqlType) {
+        return new BindSlot(name, Source.CONDITION, position, column, sqlType, null);
+    }
+
+    public static BindSlot having(String name, int position, String column, int sqlType) {
+        return new BindSlot(name, Source.HAVING, position, column, sqlType, null);
+    }
+
+    public static BindSlot set(String name, String column, int sqlType) {
+        return new BindSlot(name, Source.SET, -1, column, sqlType, null);
+    }
+
+    /**
+     * The {@code position}-th key value of the request's keyset continuation token.
+     */
+    public static BindSlot seek(String name, int position, String column, int sqlType) {
+        return new BindSlot(name, Source.SEEK, position, column, sqlType, null);
+    }
+
+    /**
+     * A value fixed at compile time (e.g. conditions of UNION templates, which requests cannot override).
+     */
+    public static BindSlot constant(String name, Object value) {
+        return new BindSlot(name, Source.CONSTANT, -1, null, 0, value);
+    }
+
+    /**
+     * The same source bound as a single typed array (e.g. {@code = ANY(:name)} on PostgreSQL).
+     */
+    public BindSlot asArray() {
+        return new BindSlot(name, source, position, column, sqlType, null, -1, true, false);
+    }
+
+    /**
+     * The same source bound as one JSON array string, e.g. {@code IN (SELECT value FROM OPENJSON(:name))}.
+     */
+    public BindSlot asJson() {
+        return new BindSlot(name, source, position, column, sqlType, null, -1, false, true);
+    }
+
+    /**
+     * The element at {@code index} of the same list source, bound under its own name.
+     */
+    public BindSlot element(String elementName, int index) {
+        return new BindSlot(elementName, source, position, column, sqlType, null, index, false, false);
+    }
+
+    public boolean isList() {
+        return array || json || element >= 0;
+    }
+
+    /**
+     * Reads this slot's raw value from the request template and casts it.
+     */
+    public Object value(QueryTemplate template) {
+        if (source == Source.CONSTANT) {
+            return constant;
+        }
+        if (isList()) {
+            return listValue(values(template));
+        }
+        Object raw = raw(template);
+        try {
+            return caster.apply(raw);
+        } catch (Exception ex) {
+            throw new IllegalArgumentException(String.format("❌ Invalid value '%s' for field '%s'. Expected SQL type: %s",
+                    raw, column, sqlType), ex);
+        }
+    }
+
+    /**
+     * Reads the list value of an IN / NOT IN slot and casts every element.
+     */
+    public List<Object> values(QueryTemplate template) {
+        Object raw = raw(template);
+        try {
+            return QueryParamCaster.castList(raw, sqlType);
+        } catch (Exception ex) {
+            throw new IllegalArgumentException(String.format("❌ Invalid value '%s' for field '%s'. Expected a list of SQL type: %s",
+                    raw, column, sqlType), ex);
+        }
+    }
+
+    /**
+     * This slot's share of an already cast list: the typed array, the JSON text, or its element (padded
+     * with the last value).
+     */
+    public Object listValue(List<Object> values) {
+        if (json) {
+            return jsonText(values);
+        }
+        if (array) {
+            Object typed = Array.newInstance(componentType(values), values.size());
+            for (int i = 0; i < values.size(); i++) {
+                Array.set(typed, i, values.get(i));
+            }
+            return typed;
+        }
+        return values.isEmpty() ? null : values.get(Math.min(element, values.size() - 1));
+    }
+
+    /**
+     * The column's Java type, or the elements' own class when the caster yields several (e.g. UUID or text for OTHER).
+     */
+    private Class<?> componentType(List<Object> values) {
+        Class<?> component = QueryParamCaster.javaType(sqlType);
+        for (Object value : values) {
+            if (value != null && !component.isInstance(value)) {
+                component = value.getClass();
+            }
+        }
+        return component;
+    }
+
+    /**
+     * Numbers and booleans stay JSON scalars; everything else (dates, UUIDs, text) is written as its string form.
+     */
+    private static String jsonText(List<Object> values) {
+        List<Object> scalars = new ArrayList<>(values.size());
+        for (Object value : values) {
+            scalars.add(value == null || value instanceof Number || value instanceof Boolean ? value : String.valueOf(value));
+        }
+        try {
+            return JSON.writeValueAsString(scalars);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("❌ Cannot serialize list value as JSON", e);
+        }
+    }
+
+    private Object raw(QueryTemplate template) {
+        return switch (source) {
+            case CONDITION -> template.getConditions().get(position).getValue();
+            case HAVING -> template.getHavingConditions().get(position).getValue();
+            case SET -> template.getUpdatedValues().get(column);
+            case SEEK -> KeysetCursor.decode(template).get(position);
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.sqlengine.plan;
+
+import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.enums.QueryOperator;
+import com.sqlengine.model.query.QueryCondition;
+import com.sqlengine.strategy.utils.SqlDialectHelper;
+import com.sqlengine.utils.QueryParamCaster;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Renders a single WHERE / HAVING predicate and registers the bind slots it needs.
+ *
+ * <p>IN / NOT IN bind the list as one array ({@code = ANY(:p)} / {@code <> ALL(:p)}) where the dialect
+ * supports it. Elsewhere the list is expanded to a bucketed number of placeholders, so every list
+ * size within a bucket shares one plan, and split into OR (IN) / AND (NOT IN) groups once it exceeds
+ * the dialect's IN-list limit. A list whose placeholders would take the statement past the dialect's
+ * bind parameter limit (SQL Server 2100, SQLite 999) is bound as one JSON array instead and joined
+ * as a derived table ({@link SqlDialectHelper#jsonListSource}).</p>
+ */
+public final class ConditionRenderer {
+
+    private static final int SMALL_BUCKET_LIMIT = 64;
+    /**
+     * Bind parameters kept free for slots placed after a list (later conditions, keyset seek values):
+     * a list expands only if the slots placed so far, its bucket and this reserve fit the dialect limit.
+     */
+    static final int RESERVED_BIND_SLOTS = 100;
+
+    private ConditionRenderer() {
+    }
+
+    /**
+     * Renders {@code condition} against the column of {@code slot}, adding the slots it binds to {@code slots}.
+     */
+    public static String render(QueryCondition condition, BindSlot slot, DatabaseProvider provider, List<BindSlot> slots) {
+        String column = slot.getColumn();
+        QueryOperator operator = condition.getOperator();
+        switch (operator) {
+            case IS_NULL, IS_NOT_NULL -> {
+                return column + " " + operator.getSymbol();
+            }
+            case IN, NOT_IN -> {
+                return renderList(condition, slot, provider, slots);
+            }
+            default -> {
+                slots.add(slot);
+                return column + " " + operator.getSymbol() + " :" + slot.getName();
+            }
+        }
+    }
+
+    /**
+     * The part of a plan's shape that depends on the condition's value: the placeholder bucket of
+     * expanded IN lists, empty for everything else.
+     */
+    public static String shapeOf(QueryCondition condition, DatabaseProvider provider) {
+        if (!isList(condition.getOperator()) || SqlDialectHelper.supportsArrayBinding(provider)) {
+            return "";
+        }
+        // Whether a list is expanded or sent as JSON follows from the buckets of the conditions before it
+        return "#" + bucketSize(listSize(condition));
+    }
+
+    /**
+     * Fails with {@link IllegalArgumentException} if an IN / NOT IN list holds more than {@code maxValues}
+     * values, for requests whose conditions were not validated when their template was saved.
+     */
+    public static void validateListSizes(List<QueryCondition> conditions, int maxValues) {
+        if (conditions == null) {
+            return;
+        }
+        for (QueryCondition condition : conditions) {
+            if (isList(condition.getOperator()) && listSize(condition) > maxValues) {
+                throw new IllegalArgumentException("❌ IN clause on '" + condition.getFieldName()
+                        + "' exceeds allowed limit (" + maxValues + " values max).");
+            }
+        }
+    }
+
+    /**
+     * Placeholder count for a list: the next power of two up to 64, then the next multiple of 64.
+     */
+    static int bucketSize(int size) {
+        if (size <= 1) {
+            return size;
+        }
+        if (size <= SMALL_BUCKET_LIMIT) {
+            return Integer.highestOneBit(size - 1) << 1;
+        }
+        return (size + SMALL_BUCKET_LIMIT - 1) / SMALL_BUCKET_LIMIT * SMALL_BUCKET_LIMIT;
+    }
+
+    private static int listSize(QueryCondition condition) {
+        return QueryParamCaster.castList(condition.getValue(), Types.VARCHAR).size();
+    }
+
+    private static boolean isList(QueryOperator operator) {
+        return operator == QueryOperator.IN || operator == QueryOperator.NOT_IN;
+    }
+
+    private static String renderList(QueryCondition condition, BindSlot slot, DatabaseProvider provider, List<BindSlot> slots) {
+        String column = slot.getColumn();
+        boolean negated = condition.getOperator() == QueryOperator.NOT_IN;
+
+        if (SqlDialectHelper.supportsArrayBinding(provider)) {
+            slots.add(slot.asArray());
+            return column + (negated ? " <> ALL(:" : " = ANY(:") + slot.getName() + ")";
+        }
+
+        int bucket = bucketSize(listSize(condition));
+        if (bucket == 0) {
+            return negated ? "1 = 1" : "1 = 0";
+        }
+
+        if (slots.size() + bucket + RESERVED_BIND_SLOTS > SqlDialectHelper.maxBindParameters(provider)) {
+            slots.add(slot.asJson());
+            return column + " " + condition.getOperator().getSymbol()
+                    + " (" + SqlDialectHelper.jsonListSource(provider, slot.getName()) + ")";
+        }
+
+        int chunkSize = SqlDialectHelper.maxInListSize(provider);
+        StringJoiner groups = new StringJoiner(negated ? " AND " : " OR ");
+        for (int start = 0; start < bucket; start += chunkSize) {
+            StringJoiner placeholders = new StringJoiner(", ", column + " " + condition.getOperator().getSymbol() + " (", ")");
+            int end = start + Math.min(chunkSize, bucket - start);
+            for (int i = start; i < end; i++) {
+                String name = slot.getName() + "_" + i;
+                slots.add(slot.element(name, i));
+                placeholders.add(":" + name);
+            }
+            groups.add(placeholders.toString());
+        }
+        return bucket > chunkSize ? "(" + groups + ")" : groups.toString();
+    }
+}
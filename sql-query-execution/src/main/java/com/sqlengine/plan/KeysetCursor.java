@@ -0,0 +1,148 @@
+package com.sqlengine.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqlengine.enums.PaginationMode;
+import com.sqlengine.enums.SortDirection;
+import com.sqlengine.model.QueryTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keyset (seek) pagination: the sort keys of a template and the opaque continuation token that
+ * carries the last row's key values from one page to the next.
+ *
+ * <p>The keys are the template's {@code orderBy} columns followed by {@code primaryKeyField} as a
+ * tiebreaker (in the direction of the last order-by column), so every row has a unique position. The
+ * token is URL-safe Base64 of {@code {"k": [keys], "v": [values]}}; values travel as strings and are
+ * cast back with the key column's SQL type.</p>
+ */
+public final class KeysetCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private KeysetCursor() {
+    }
+
+    public static boolean isKeyset(QueryTemplate template) {
+        return template.getPaginationMode() == PaginationMode.KEYSET;
+    }
+
+    /**
+     * Whether the request continues a previous page, i.e. the plan needs the seek predicate.
+     */
+    public static boolean hasSeek(QueryTemplate template) {
+        return isKeyset(template) && StringUtils.hasText(template.getContinuationToken());
+    }
+
+    /**
+     * Sort keys in order, ending with the primary key unless it is already one of them.
+     */
+    public static LinkedHashMap<String, SortDirection> keys(QueryTemplate template) {
+        LinkedHashMap<String, SortDirection> keys = new LinkedHashMap<>();
+        SortDirection last = SortDirection.ASC;
+        if (template.getOrderBy() != null) {
+            for (Map.Entry<String, SortDirection> entry : template.getOrderBy().entrySet()) {
+                last = entry.getValue() != null ? entry.getValue() : SortDirection.ASC;
+                keys.put(entry.getKey(), last);
+            }
+        }
+        String primaryKey = StringUtils.hasText(template.getPrimaryKeyField()) ? template.getPrimaryKeyField() : "id";
+        boolean hasPrimaryKey = keys.keySet().stream().anyMatch(key -> columnName(key).equalsIgnoreCase(columnName(primaryKey)));
+        if (!hasPrimaryKey) {
+            keys.put(primaryKey, last);
+        }
+        return keys;
+    }
+
+    /**
+     * Rejects sort keys on nullable columns when the plan is compiled: the seek predicate compares with
+     * {@code <} and {@code >}, which never match NULL, so no token could point past a row with a NULL key.
+     */
+    public static void requireNonNullKeys(QueryTemplate template, Set<String> nullableColumns) {
+        for (String key : keys(template).keySet()) {
+            if (nullableColumns.contains(columnName(key))) {
+                throw new IllegalArgumentException("❌ Keyset pagination cannot order by nullable column '" + key + "'");
+            }
+        }
+    }
+
+    /**
+     * Key values carried by the template's continuation token, in key order.
+     */
+    public static List<String> decode(QueryTemplate template) {
+        List<String> keys = new ArrayList<>(keys(template).keySet());
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(template.getContinuationToken());
+            Map<?, ?> token = MAPPER.readValue(new String(json, StandardCharsets.UTF_8), Map.class);
+            List<?> tokenKeys = (List<?>) token.get("k");
+            List<?> values = (List<?>) token.get("v");
+            if (!keys.equals(tokenKeys) || values == null || values.size() != keys.size()) {
+                throw new IllegalArgumentException("❌ Continuation token does not match the template's order-by keys " + keys);
+            }
+            return values.stream().map(value -> value == null ? null : value.toString()).toList();
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("❌ Invalid continuation token", e);
+        }
+    }
+
+    /**
+     * Token pointing after the last row of a full page; empty when the page is the last one.
+     */
+    public static Optional<String> nextToken(QueryTemplate template, Object result) {
+        if (!isKeyset(template) || !(result instanceof List<?> rows) || rows.isEmpty()
+                || template.getLimit() == null || rows.size() < template.getLimit()) {
+            return Optional.empty();
+        }
+        if (!(rows.get(rows.size() - 1) instanceof Map<?, ?> lastRow)) {
+            return Optional.empty();
+        }
+
+        List<String> keys = new ArrayList<>(keys(template).keySet());
+        List<String> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Object value = valueOf(lastRow, key);
+            if (value == null) {
+                throw new IllegalArgumentException("❌ Keyset pagination requires non-null column '" + key + "' in the result");
+            }
+            values.add(value.toString());
+        }
+
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(Map.of("k", keys, "v", values));
+            return Optional.of(Base64.getUrlEncoder().withoutPadding().encodeToString(json));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode continuation token", e);
+        }
+    }
+
+    /**
+     * Unqualified, lower-cased column of a key such as {@code t.created_at}.
+     */
+    public static String columnName(String key) {
+        return key.substring(key.lastIndexOf('.') + 1).toLowerCase();
+    }
+
+    private static Object valueOf(Map<?, ?> row, String key) {
+        Object value = row.get(key);
+        if (value != null) {
+            return value;
+        }
+        String column = columnName(key);
+        for (Map.Entry<?, ?> entry : row.entrySet()) {
+            if (column.equalsIgnoreCase(String.valueOf(entry.getKey()))) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sqlengine.plan;
+
+import com.sqlengine.model.QueryTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, executable form of a template: the SQL text, its ordered bind slots and the column
+ * types it was compiled against. Shared across requests; only the slot values differ per call.
+ *
+ * @param tables lower-cased tables the plan reads, used to drop it when their metadata is invalidated
+ */
+public record QueryPlan(String sql, List<BindSlot> slots, Map<String, Integer> columnTypes, Set<String> tables) {
+
+    public QueryPlan {
+        slots = List.copyOf(slots);
+        columnTypes = Map.copyOf(columnTypes);
+        tables = Set.copyOf(tables);
+    }
+
+    /**
+     * Values for every slot, read from the request template and cast to their column types.
+     */
+    public Map<String, Object> bindValues(QueryTemplate template) {
+        Map<String, Object> params = new HashMap<>(slots.size() * 2);
+        // List conditions are parsed once and shared by all of their element slots
+        Map<String, List<Object>> lists = new HashMap<>();
+        for (BindSlot slot : slots) {
+            if (slot.isList()) {
+                List<Object> values = lists.computeIfAbsent(slot.getSource() + ":" + slot.getPosition(),
+                        k -> slot.values(template));
+                params.put(slot.getName(), slot.listValue(values));
+            } else {
+                params.put(slot.getName(), slot.value(template));
+            }
+        }
+        return params;
+    }
+
+    public DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, Map<String, Object> params) {
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            spec = spec.bind(entry.getKey(), Parameter.fromOrEmpty(entry.getValue(), Object.class));
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,125 @@
+package com.sqlengine.plan;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.model.DatabaseConfig;
+import com.sqlengine.model.QueryTemplate;
+import com.sqlengine.model.query.QueryCondition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Compiled {@link QueryPlan}s keyed by template version, provider, config and the shape of the
+ * conditions actually present in the request, so a template is compiled once per shape rather than per call.
+ * Hit/miss/eviction counts are published as {@code cache.*{cache=queryPlanCache}}.
+ */
+@Slf4j
+@Component
+public class QueryPlanCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final Cache<PlanKey, QueryPlan> cache;
+
+    public QueryPlanCache(@Value("${query.plan-cache.max-size:5000}") long maxSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "queryPlanCache");
+    }
+
+    /**
+     * Returns the cached plan for the key or compiles and caches it. Templates without a version
+     * (not prepared through PrepareTemplate) are compiled every time.
+     */
+    public Mono<QueryPlan> getOrCompile(String kind, QueryTemplate template, DatabaseConfig config, Supplier<Mono<QueryPlan>> compiler) {
+        if (template.getTemplateVersion() == null) {
+            return compiler.get();
+        }
+        PlanKey key = new PlanKey(kind, template.getTemplateVersion(), config.getProvider(), configKeyOf(config),
+                shapeOf(template, config.getProvider()));
+        QueryPlan cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return compiler.get()
+                .doOnNext(plan -> {
+                    cache.put(key, plan);
+                    log.debug("🧩 Compiled plan for template {} ({}): {}", template.getId(), kind, plan.sql());
+                });
+    }
+
+    /**
+     * Drops every plan of the config that reads the table (schema change, metadata refresh).
+     */
+    public void invalidateTable(DatabaseConfig config, String tableName) {
+        String configId = configKeyOf(config);
+        String table = tableName.toLowerCase();
+        cache.asMap().entrySet().removeIf(entry ->
+                Objects.equals(entry.getKey().configId(), configId) && entry.getValue().tables().contains(table));
+    }
+
+    /**
+     * Drops every plan of the config (config updated or deleted).
+     */
+    public void invalidateConfig(String configId) {
+        cache.asMap().keySet().removeIf(key -> Objects.equals(key.configId(), configId));
+    }
+
+    /**
+     * The config's id, or for an inline config (mapped from the request with an empty id) a hash of its
+     * connection settings, so inline configs pointing at different databases never share a plan.
+     */
+    private static String configKeyOf(DatabaseConfig config) {
+        if (StringUtils.hasText(config.getId())) {
+            return config.getId();
+        }
+        try {
+            return "inline-" + DigestUtils.sha256Hex(MAPPER.writeValueAsString(config.getConfig()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("❌ Inline config cannot be serialized for the plan cache", e);
+        }
+    }
+
+    private String shapeOf(QueryTemplate template, DatabaseProvider provider) {
+        StringBuilder shape = new StringBuilder();
+        appendShape(shape, template.getConditions(), provider);
+        shape.append('|');
+        appendShape(shape, template.getHavingConditions(), provider);
+        if (KeysetCursor.hasSeek(template)) {
+            shape.append("|seek");
+        }
+        return shape.toString();
+    }
+
+    private void appendShape(StringBuilder shape, List<QueryCondition> conditions, DatabaseProvider provider) {
+        if (conditions == null) {
+            return;
+        }
+        for (QueryCondition condition : conditions) {
+            shape.append(condition.getFieldName().toLowerCase())
+                    .append(' ').append(condition.getOperator())
+                    .append(ConditionRenderer.shapeOf(condition, provider))
+                    .append(' ').append(condition.getFilterOperator())
+                    .append(';');
+        }
+    }
+
+    private record PlanKey(String kind, String templateVersion, DatabaseProvider provider, String configId, String shape) {
+    }
+}
@@ -0,0 +1,317 @@
+package com.sqlengine.service;
+
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import com.sqlengine.adapter.BlockingConnectionFactoryAdapter;
+import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.grpc.BulkLoadChunk;
+import com.sqlengine.grpc.BulkLoadRow;
+import com.sqlengine.grpc.BulkLoadSummary;
+import com.sqlengine.manager.DatabaseConnectionPoolManager;
+import com.sqlengine.manager.JdbcExecutorManager;
+import com.sqlengine.manager.TableMetadataManager;
+import com.sqlengine.mapper.GrpcModelMapper;
+import com.sqlengine.model.DatabaseConfig;
+import com.sqlengine.strategy.utils.SqlDialectHelper;
+import com.sqlengine.utils.QueryParamCaster;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Wrapped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Loads a client-streamed sequence of row chunks with the fastest path the target offers:
+ * {@code COPY ... FROM STDIN} on PostgreSQL, multi-row INSERTs on the other R2DBC drivers and
+ * {@code addBatch/executeBatch} on JDBC-fallback connections.
+ *
+ * <p>The table and columns are checked against the table's metadata before any SQL is built, and values
+ * are cast to their column types (COPY hands the text to the server, which parses it per column). Chunks
+ * are pulled from the gRPC stream one at a time, so at most one chunk is held in memory. COPY is a single
+ * statement and loads all rows or none; the other paths commit per chunk.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkLoadService {
+
+    private final DatabaseConnectionPoolManager poolManager;
+    private final TableMetadataManager tableMetadataManager;
+    private final JdbcExecutorManager jdbcExecutors;
+
+    /**
+     * @param admit wraps the load once the header has resolved its config, e.g. to wait for admission
+     */
+    public Mono<BulkLoadSummary> load(Flux<BulkLoadChunk> stream,
+                                      BiFunction<DatabaseConfig, Mono<BulkLoadSummary>, Mono<BulkLoadSummary>> admit) {
+        long start = System.nanoTime();
+        AtomicInteger chunkCount = new AtomicInteger();
+
+        return stream.switchOnFirst((first, chunks) -> {
+                    if (!first.hasValue()) {
+                        return Mono.error(new IllegalArgumentException("❌ BulkLoad stream is empty"));
+                    }
+                    BulkLoadChunk header = first.get();
+                    if (!StringUtils.hasText(header.getTableName()) || header.getColumnsCount() == 0) {
+                        return Mono.error(new IllegalArgumentException("❌ The first BulkLoad chunk must name the table and columns"));
+                    }
+
+                    Flux<BulkLoadChunk> counted = chunks.doOnNext(chunk -> chunkCount.incrementAndGet());
+                    Mono<DatabaseConfig> config = header.hasConfig()
+                            ? Mono.fromSupplier(() -> GrpcModelMapper.toInternal(header.getConfig()))
+                            : poolManager.getDatabaseConfig(header.getConfigId());
+
+                    return config.flatMap(resolved -> admit.apply(resolved,
+                            Mono.defer(() -> load(resolved, header.getTableName(), header.getColumnsList(), counted, start, chunkCount))));
+                })
+                .next();
+    }
+
+    private Mono<BulkLoadSummary> load(DatabaseConfig config, String table, List<String> columns,
+                                       Flux<BulkLoadChunk> chunks, long start, AtomicInteger chunkCount) {
+        DatabaseClient dbClient = poolManager.getDatabaseClient(config);
+        return tableMetadataManager.getColumnTypesReactive(config, dbClient, table)
+                .flatMap(columnTypes -> load(config, dbClient, table, columns, sqlTypesOf(table, columns, columnTypes),
+                        chunks, start, chunkCount));
+    }
+
+    private Mono<BulkLoadSummary> load(DatabaseConfig config, DatabaseClient dbClient, String table, List<String> columns,
+                                       int[] sqlTypes, Flux<BulkLoadChunk> chunks, long start, AtomicInteger chunkCount) {
+        String columnList = String.join(", ", columns);
+
+        if (dbClient.getConnectionFactory() instanceof BlockingConnectionFactoryAdapter) {
+            log.info("📥 BulkLoad into {} via JDBC batch", table);
+            return jdbcBatch(config, table, columns, sqlTypes, chunks)
+                    .map(rows -> summary(rows, chunkCount, "JDBC_BATCH", start));
+        }
+
+        if (config.getProvider() == DatabaseProvider.POSTGRESQL) {
+            log.info("📥 BulkLoad into {} via COPY", table);
+            String sql = "COPY " + table + " (" + columnList + ") FROM STDIN WITH (FORMAT csv)";
+            Flux<ByteBuf> csv = chunks.limitRate(1)
+                    .map(chunk -> Unpooled.wrappedBuffer(toCsv(chunk, columns.size())));
+            return dbClient.inConnection(connection -> {
+                        Connection target = connection instanceof Wrapped<?> wrapped ? (Connection) wrapped.unwrap() : connection;
+                        if (!(target instanceof PostgresqlConnection postgres)) {
+                            return Mono.error(new UnsupportedOperationException("COPY requires a PostgreSQL R2DBC connection"));
+                        }
+                        return postgres.copyIn(sql, csv);
+                    })
+                    .map(rows -> summary(rows, chunkCount, "COPY", start));
+        }
+
+        // r2dbc-mysql only reads LOAD DATA LOCAL INFILE from server-side paths, so stream multi-row INSERTs instead
+        log.info("📥 BulkLoad into {} via multi-row INSERT", table);
+        int rowsPerStatement = Math.max(1, SqlDialectHelper.maxBindParameters(config.getProvider()) / columns.size());
+        List<Function<String, Object>> casters = Arrays.stream(sqlTypes).mapToObj(QueryParamCaster::resolve).toList();
+        TransactionalOperator transactional = TransactionalOperator.create(new R2dbcTransactionManager(dbClient.getConnectionFactory()));
+        return chunks.concatMap(chunk -> insertChunk(dbClient, table, columns, sqlTypes, casters, chunk, rowsPerStatement)
+                        .as(transactional::transactional), 0)
+                .reduce(0L, Long::sum)
+                .map(rows -> summary(rows, chunkCount, "MULTI_ROW_INSERT", start));
+    }
+
+    /**
+     * One chunk as multi-row INSERTs of at most {@code rowsPerStatement} rows; the caller runs it in one transaction.
+     */
+    private Mono<Long> insertChunk(DatabaseClient dbClient, String table, List<String> columns, int[] sqlTypes,
+                                   List<Function<String, Object>> casters, BulkLoadChunk chunk, int rowsPerStatement) {
+        List<BulkLoadRow> rows = chunk.getRowsList();
+        return Flux.range(0, (rows.size() + rowsPerStatement - 1) / rowsPerStatement)
+                .concatMap(part -> {
+                    List<BulkLoadRow> slice = rows.subList(part * rowsPerStatement, Math.min(rows.size(), (part + 1) * rowsPerStatement));
+                    StringJoiner values = new StringJoiner(", ");
+                    for (int r = 0; r < slice.size(); r++) {
+                        checkWidth(slice.get(r), columns.size());
+                        StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+                        for (int c = 0; c < columns.size(); c++) {
+                            placeholders.add(":r" + r + "_c" + c);
+                        }
+                        values.add(placeholders.toString());
+                    }
+
+                    DatabaseClient.GenericExecuteSpec spec = dbClient.sql("INSERT INTO " + table
+                            + " (" + String.join(", ", columns) + ") VALUES " + values);
+                    for (int r = 0; r < slice.size(); r++) {
+                        BulkLoadRow row = slice.get(r);
+                        for (int c = 0; c < columns.size(); c++) {
+                            Object value = isNull(row, c) ? null : QueryParamCaster.cast(row.getValues(c), sqlTypes[c], casters.get(c));
+                            spec = spec.bind("r" + r + "_c" + c, Parameter.fromOrEmpty(value, QueryParamCaster.javaType(sqlTypes[c])));
+                        }
+                    }
+                    return spec.fetch().rowsUpdated();
+                })
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * One prepared INSERT reused for every chunk; each chunk is one executeBatch and one commit.
+     */
+    private Mono<Long> jdbcBatch(DatabaseConfig config, String table, List<String> columns, int[] sqlTypes,
+                                 Flux<BulkLoadChunk> chunks) {
+        return Mono.using(
+                        () -> JdbcBatch.open(poolManager.getDataSource(config), table, columns, sqlTypes),
+                        batch -> chunks.concatMap(chunk -> Mono.fromCallable(() -> batch.write(chunk))
+                                        .subscribeOn(jdbcExecutors.shared()), 0)
+                                .reduce(0L, Long::sum),
+                        JdbcBatch::close)
+                .subscribeOn(jdbcExecutors.shared());
+    }
+
+    private byte[] toCsv(BulkLoadChunk chunk, int columnCount) {
+        StringBuilder csv = new StringBuilder();
+        for (BulkLoadRow row : chunk.getRowsList()) {
+            checkWidth(row, columnCount);
+            for (int c = 0; c < columnCount; c++) {
+                if (c > 0) csv.append(',');
+                // Unquoted empty is NULL in CSV COPY; a quoted value is always a string, even if empty
+                if (!isNull(row, c)) {
+                    csv.append('"').append(row.getValues(c).replace("\"", "\"\"")).append('"');
+                }
+            }
+            csv.append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * SQL types of the loaded columns, in order; fails if the table has no such column or does not exist.
+     */
+    private static int[] sqlTypesOf(String table, List<String> columns, Map<String, Integer> columnTypes) {
+        if (columnTypes.isEmpty()) {
+            throw new IllegalArgumentException("❌ Unknown table for BulkLoad: " + table);
+        }
+        int[] sqlTypes = new int[columns.size()];
+        for (int c = 0; c < columns.size(); c++) {
+            Integer type = columnTypes.get(columns.get(c).toLowerCase());
+            if (type == null) {
+                throw new IllegalArgumentException("❌ Invalid column for BulkLoad: " + columns.get(c));
+            }
+            sqlTypes[c] = type;
+        }
+        return sqlTypes;
+    }
+
+    private static boolean isNull(BulkLoadRow row, int column) {
+        return row.getNullColumnsList().contains(column);
+    }
+
+    private static void checkWidth(BulkLoadRow row, int columnCount) {
+        if (row.getValuesCount() != columnCount) {
+            throw new IllegalArgumentException("❌ BulkLoad row has " + row.getValuesCount() + " values, expected " + columnCount);
+        }
+    }
+
+    private BulkLoadSummary summary(long rows, AtomicInteger chunkCount, String method, long start) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("✅ BulkLoad finished: {} rows in {} chunks via {} ({} ms)", rows, chunkCount.get(), method, elapsedMillis);
+        return BulkLoadSummary.newBuilder()
+                .setRowsLoaded(rows)
+                .setChunks(chunkCount.get())
+                .setMethod(method)
+                .setElapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    /**
+     * JDBC connection and prepared INSERT held for the duration of one BulkLoad call.
+     */
+    private static final class JdbcBatch {
+
+        private final java.sql.Connection connection;
+        private final PreparedStatement statement;
+        private final int[] sqlTypes;
+        private final List<Function<String, Object>> casters;
+        private final boolean bulkCopyEnabled;
+
+        private JdbcBatch(java.sql.Connection connection, PreparedStatement statement, int[] sqlTypes, boolean bulkCopyEnabled) {
+            this.connection = connection;
+            this.statement = statement;
+            this.sqlTypes = sqlTypes;
+            this.casters = Arrays.stream(sqlTypes).mapToObj(QueryParamCaster::resolve).toList();
+            this.bulkCopyEnabled = bulkCopyEnabled;
+        }
+
+        static JdbcBatch open(DataSource dataSource, String table, List<String> columns, int[] sqlTypes) throws SQLException {
+            java.sql.Connection connection = dataSource.getConnection();
+            try {
+                connection.setAutoCommit(false);
+                // SQL Server's counterpart of rewriteBatchedStatements: send batches through the bulk copy API
+                boolean bulkCopy = connection.isWrapperFor(SQLServerConnection.class);
+                if (bulkCopy) {
+                    connection.unwrap(SQLServerConnection.class).setUseBulkCopyForBatchInsert(true);
+                }
+                StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+                columns.forEach(column -> placeholders.add("?"));
+                PreparedStatement statement = connection.prepareStatement("INSERT INTO " + table
+                        + " (" + String.join(", ", columns) + ") VALUES " + placeholders);
+                return new JdbcBatch(connection, statement, sqlTypes, bulkCopy);
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        long write(BulkLoadChunk chunk) throws SQLException {
+            try {
+                for (BulkLoadRow row : chunk.getRowsList()) {
+                    checkWidth(row, sqlTypes.length);
+                    for (int c = 0; c < sqlTypes.length; c++) {
+                        if (isNull(row, c)) {
+                            statement.setNull(c + 1, sqlTypes[c]);
+                        } else {
+                            statement.setObject(c + 1, QueryParamCaster.jdbcValue(
+                                    QueryParamCaster.cast(row.getValues(c), sqlTypes[c], casters.get(c))));
+                        }
+                    }
+                    statement.addBatch();
+                }
+                long rows = 0;
+                for (int count : statement.executeBatch()) {
+                    rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+                }
+                connection.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                statement.clearBatch();
+                connection.rollback();
+                throw e;
+            }
+        }
+
+        void close() {
+            try {
+                statement.close();
+                if (bulkCopyEnabled) {
+                    connection.unwrap(SQLServerConnection.class).setUseBulkCopyForBatchInsert(false);
+                }
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("⚠️ Failed to close BulkLoad connection cleanly", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.sqlengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.manager.TableMetadataManager;
+import com.sqlengine.model.ChunkedJobProgress;
+import com.sqlengine.model.DatabaseConfig;
+import com.sqlengine.model.QueryTemplate;
+import com.sqlengine.model.query.QueryCondition;
+import com.sqlengine.plan.BindSlot;
+import com.sqlengine.plan.ConditionRenderer;
+import com.sqlengine.plan.QueryPlan;
+import com.sqlengine.repository.ChunkedJobProgressRepository;
+import com.sqlengine.strategy.utils.SqlDialectHelper;
+import com.sqlengine.utils.QueryParamCaster;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Runs large DELETE/UPDATE templates ({@code chunked = true}) as a sequence of short transactions
+ * instead of one long statement. Each chunk selects the next {@code chunkSize} matching primary keys
+ * after the last committed key, applies the mutation to that key range and commits, so locks and
+ * undo/WAL stay bounded by one chunk.
+ *
+ * <p>Progress (last committed key, rows, chunks) is saved to {@link ChunkedJobProgress} after every
+ * chunk; running the same job again after a failure or restart continues after that key. A job that
+ * completed starts over on its next run.</p>
+ */
+@Slf4j
+@Service
+public class ChunkedMutationService {
+
+    private final TableMetadataManager tableMetadataManager;
+    private final ChunkedJobProgressRepository progressRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${query.chunked.chunk-size:5000}")
+    private int defaultChunkSize;
+
+    @Value("${query.chunked.pause-millis:0}")
+    private long defaultPauseMillis;
+
+    public ChunkedMutationService(TableMetadataManager tableMetadataManager, ChunkedJobProgressRepository progressRepository) {
+        this.tableMetadataManager = tableMetadataManager;
+        this.progressRepository = progressRepository;
+    }
+
+    /**
+     * @param queryType {@code DELETE} or {@code UPDATE}
+     */
+    public Mono<Object> execute(String queryType, QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
+        return Mono.defer(() -> run(queryType, template, config, dbClient));
+    }
+
+    private Mono<Object> run(String queryType, QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
+        if (template.getJoins() != null && !template.getJoins().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("❌ Chunked " + queryType + " does not support joins"));
+        }
+        if (template.getReturningFields() != null && !template.getReturningFields().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("❌ Chunked " + queryType + " does not support returningFields"));
+        }
+        String jobId = jobIdOf(queryType, template, config);
+        int chunkSize = template.getChunkSize() != null && template.getChunkSize() > 0 ? template.getChunkSize() : defaultChunkSize;
+        long pauseMillis = template.getChunkPauseMillis() != null ? template.getChunkPauseMillis() : defaultPauseMillis;
+
+        return tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
+                .zipWith(progressRepository.findById(jobId)
+                        .filter(progress -> progress.getStatus() != ChunkedJobProgress.Status.COMPLETED)
+                        .map(progress -> {
+                            log.info("⏯️ Resuming chunked {} job {} after key {} ({} rows so far)",
+                                    queryType, jobId, progress.getLastKey(), progress.getRowsAffected());
+                            return progress;
+                        })
+                        .switchIfEmpty(Mono.fromSupplier(() -> newProgress(jobId, queryType, template, config))))
+                .flatMap(tuple -> {
+                    Job job = compile(queryType, template, config, tuple.getT1(), chunkSize);
+                    ChunkedJobProgress progress = tuple.getT2();
+                    progress.setStatus(ChunkedJobProgress.Status.RUNNING);
+                    progress.setError(null);
+                    boolean resumed = progress.getLastKey() != null;
+                    TransactionalOperator transactional = TransactionalOperator.create(new R2dbcTransactionManager(dbClient.getConnectionFactory()));
+
+                    return progressRepository.save(progress)
+                            .flatMap(saved -> runChunk(job, template, saved, transactional, dbClient)
+                                    .expand(current -> current.getStatus() == ChunkedJobProgress.Status.COMPLETED
+                                            ? Mono.empty()
+                                            : Mono.delay(Duration.ofMillis(pauseMillis))
+                                            .then(runChunk(job, template, current, transactional, dbClient)))
+                                    .last())
+                            .onErrorResume(error -> progressRepository.findById(jobId)
+                                    .defaultIfEmpty(progress)
+                                    .flatMap(latest -> {
+                                        // Keeps the last committed key so the next run resumes after it
+                                        latest.setStatus(ChunkedJobProgress.Status.FAILED);
+                                        latest.setError(String.valueOf(error.getMessage()));
+                                        latest.setUpdatedAt(LocalDateTime.now());
+                                        log.error("❌ Chunked {} job {} failed after key {}", queryType, jobId, latest.getLastKey(), error);
+                                        return progressRepository.save(latest);
+                                    })
+                                    .then(Mono.error(error)))
+                            .map(done -> summary(queryType, done, resumed));
+                });
+    }
+
+    /**
+     * One chunk in its own transaction: select the next keys, mutate the range up to the last of them,
+     * commit, then record the new last key.
+     */
+    private Mono<ChunkedJobProgress> runChunk(Job job, QueryTemplate template, ChunkedJobProgress progress,
+                                              TransactionalOperator transactional, DatabaseClient dbClient) {
+        Object afterKey = progress.getLastKey() == null ? null : QueryParamCaster.cast(progress.getLastKey(), job.keyType());
+        Map<String, Object> params = new LinkedHashMap<>(job.selectPlan().bindValues(template));
+        if (afterKey != null) {
+            params.put("after_key", afterKey);
+        }
+
+        Mono<long[]> chunk = job.selectPlan().bind(dbClient.sql(afterKey == null ? job.firstSelectSql() : job.nextSelectSql()), params)
+                .fetch().all()
+                .map(row -> row.get(job.primaryKey()))
+                .collectList()
+                .flatMap(keys -> {
+                    if (keys.isEmpty()) {
+                        return Mono.just(new Object[]{null, 0L, 0});
+                    }
+                    Map<String, Object> mutationParams = new LinkedHashMap<>(job.mutationPlan().bindValues(template));
+                    mutationParams.put("upto_key", keys.get(keys.size() - 1));
+                    if (afterKey != null) {
+                        mutationParams.put("after_key", afterKey);
+                    }
+                    String sql = afterKey == null ? job.firstMutationSql() : job.nextMutationSql();
+                    return job.mutationPlan().bind(dbClient.sql(sql), mutationParams)
+                            .fetch().rowsUpdated()
+                            .map(affected -> new Object[]{keys.get(keys.size() - 1), affected, keys.size()});
+                })
+                .as(transactional::transactional)
+                .map(result -> {
+                    if (result[0] != null) {
+                        progress.setLastKey(result[0].toString());
+                        progress.setRowsAffected(progress.getRowsAffected() + (Long) result[1]);
+                        progress.setChunks(progress.getChunks() + 1);
+                    }
+                    return new long[]{(Long) result[1], (Integer) result[2]};
+                });
+
+        return chunk.flatMap(counts -> {
+            if (counts[1] < job.chunkSize()) {
+                progress.setStatus(ChunkedJobProgress.Status.COMPLETED);
+            }
+            progress.setUpdatedAt(LocalDateTime.now());
+            log.info("🧹 Chunked {} job {}: chunk {} affected {} rows ({} total, last key {})", job.queryType(), progress.getId(),
+                    progress.getChunks(), counts[0], progress.getRowsAffected(), progress.getLastKey());
+            return progressRepository.save(progress);
+        });
+    }
+
+    /**
+     * Key SELECT and key-range mutation. The mutation repeats the filter, so rows inside the range that
+     * do not match are left alone and rows that started matching since the SELECT are included.
+     */
+    private Job compile(String queryType, QueryTemplate template, DatabaseConfig config,
+                        Map<String, Integer> columnTypes, int chunkSize) {
+        String table = template.getTableName();
+        String primaryKey = template.getPrimaryKeyField() != null ? template.getPrimaryKeyField() : "id";
+        Integer keyType = columnTypes.get(primaryKey.toLowerCase());
+        if (keyType == null) {
+            throw new IllegalArgumentException("❌ Chunked " + queryType + " needs primary key column '" + primaryKey + "' on " + table);
+        }
+        DatabaseProvider provider = config.getProvider();
+
+        List<BindSlot> whereSlots = new ArrayList<>();
+        String filter = template.getConditions() != null && !template.getConditions().isEmpty()
+                ? buildWhereClause(template, provider, columnTypes, whereSlots)
+                : "";
+        String where = filter.isBlank() ? "" : "(" + filter + ") AND ";
+
+        String select = "SELECT " + primaryKey + " FROM " + table + " WHERE " + where;
+        String order = " ORDER BY " + primaryKey + SqlDialectHelper.buildLimitOffsetClause(provider, chunkSize, null);
+        String firstSelectSql = select + "1 = 1" + order;
+        String nextSelectSql = select + primaryKey + " > :after_key" + order;
+
+        List<BindSlot> mutationSlots = new ArrayList<>(whereSlots);
+        String mutation;
+        if ("UPDATE".equals(queryType)) {
+            if (template.getUpdatedValues() == null || template.getUpdatedValues().isEmpty()) {
+                throw new IllegalArgumentException("❌ updatedValues are required for UPDATE query");
+            }
+            StringJoiner set = new StringJoiner(", ");
+            for (String column : template.getUpdatedValues().keySet()) {
+                Integer sqlType = columnTypes.get(column.toLowerCase());
+                if (sqlType == null) {
+                    throw new IllegalArgumentException("Invalid column in SET clause: " + column);
+                }
+                set.add(column + " = :set_" + column);
+                mutationSlots.add(BindSlot.set("set_" + column, column, sqlType));
+            }
+            mutation = "UPDATE " + table + " SET " + set + " WHERE " + where;
+        } else {
+            mutation = "DELETE FROM " + table + " WHERE " + where;
+        }
+        String firstMutationSql = mutation + primaryKey + " <= :upto_key";
+        String nextMutationSql = mutation + primaryKey + " > :after_key AND " + primaryKey + " <= :upto_key";
+
+        Set<String> tables = Set.of(table.toLowerCase());
+        return new Job(queryType, primaryKey, keyType, chunkSize,
+                new QueryPlan(firstSelectSql, whereSlots, columnTypes, tables), firstSelectSql, nextSelectSql,
+                new QueryPlan(firstMutationSql, mutationSlots, columnTypes, tables), firstMutationSql, nextMutationSql);
+    }
+
+    /**
+     * Unlike the one-shot strategies, an unknown condition column fails the job: dropping the predicate
+     * would turn a retention job into a chunked wipe of the whole table.
+     */
+    private String buildWhereClause(QueryTemplate template, DatabaseProvider provider, Map<String, Integer> columnTypes, List<BindSlot> slots) {
+        StringJoiner whereJoiner = new StringJoiner(" ");
+        List<QueryCondition> conditions = template.getConditions();
+        for (int i = 0; i < conditions.size(); i++) {
+            QueryCondition condition = conditions.get(i);
+            String field = condition.getFieldName().toLowerCase();
+            if (!columnTypes.containsKey(field)) {
+                throw new IllegalArgumentException("❌ Invalid column in chunked condition: " + condition.getFieldName());
+            }
+            String paramKey = "where_" + field;
+            BindSlot slot = BindSlot.condition(paramKey, i, field, columnTypes.get(field));
+            whereJoiner.add(ConditionRenderer.render(condition, slot, provider, slots));
+            if (condition.getFilterOperator() != null) {
+                whereJoiner.add(condition.getFilterOperator());
+            }
+        }
+        return whereJoiner.toString();
+    }
+
+    /**
+     * The template's chunkJobId, or a hash of what makes two runs the same job: type, config, table,
+     * filter and SET values.
+     */
+    private String jobIdOf(String queryType, QueryTemplate template, DatabaseConfig config) {
+        if (StringUtils.hasText(template.getChunkJobId())) {
+            return template.getChunkJobId();
+        }
+        try {
+            Map<String, Object> identity = new LinkedHashMap<>();
+            identity.put("type", queryType);
+            identity.put("config", config.getId());
+            identity.put("table", template.getTableName());
+            identity.put("conditions", template.getConditions());
+            identity.put("updatedValues", template.getUpdatedValues());
+            return queryType.toLowerCase() + "-" + DigestUtils.sha256Hex(objectMapper.writeValueAsString(identity)).substring(0, 24);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to derive chunked job id", e);
+        }
+    }
+
+    private ChunkedJobProgress newProgress(String jobId, String queryType, QueryTemplate template, DatabaseConfig config) {
+        ChunkedJobProgress progress = new ChunkedJobProgress();
+        progress.setId(jobId);
+        progress.setConfigId(config.getId());
+        progress.setTableName(template.getTableName());
+        progress.setQueryType(queryType);
+        progress.setStartedAt(LocalDateTime.now());
+        progress.setUpdatedAt(progress.getStartedAt());
+        log.info("🚀 Starting chunked {} job {} on {}", queryType, jobId, template.getTableName());
+        return progress;
+    }
+
+    private Object summary(String queryType, ChunkedJobProgress progress, boolean resumed) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("jobId", progress.getId());
+        summary.put("DELETE".equals(queryType) ? "rowsDeleted" : "rowsUpdated", progress.getRowsAffected());
+        summary.put("chunks", progress.getChunks());
+        summary.put("resumed", resumed);
+        summary.put("status", progress.getStatus().name());
+        if (progress.getLastKey() != null) {
+            summary.put("lastKey", progress.getLastKey());
+        }
+        return summary;
+    }
+
+    private record Job(String queryType, String primaryKey, int keyType, int chunkSize,
+                       QueryPlan selectPlan, String firstSelectSql, String nextSelectSql,
+                       QueryPlan mutationPlan, String firstMutationSql, String nextMutationSql) {
+    }
+}
@@ -1,22 +1,46 @@
 package com.sqlengine.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sqlengine.grpc.BatchItemResult;
+import com.sqlengine.grpc.BatchQueryItem;
+import com.sqlengine.grpc.BatchRunRequest;
+import com.sqlengine.grpc.BulkLoadChunk;
+import com.sqlengine.grpc.BulkLoadSummary;
 import com.sqlengine.grpc.ColumnInfo;
+import com.sqlengine.grpc.PrepareTemplateRequest;
+import com.sqlengine.grpc.PrepareTemplateResponse;
+import com.sqlengine.grpc.QueryRunChunk;
 import com.sqlengine.grpc.QueryRunRequest;
 import com.sqlengine.grpc.QueryRunResponse;
-import com.sqlengine.grpc.QueryRunnerServiceGrpc;
+import com.sqlengine.grpc.ReactorQueryRunnerServiceGrpc;
+import com.sqlengine.grpc.ResultBlock;
+import com.sqlengine.grpc.ResultEncoding;
 import com.sqlengine.grpc.TableSchemaRequest;
 import com.sqlengine.grpc.TableSchemaResponse;
 import com.sqlengine.manager.DatabaseConnectionPoolManager;
+import com.sqlengine.manager.JdbcExecutorManager;
+import com.sqlengine.manager.PreparedTemplateRegistry;
+import com.sqlengine.manager.QueryAdmissionManager;
 import com.sqlengine.mapper.GrpcModelMapper;
 import com.sqlengine.model.DatabaseConfig;
 import com.sqlengine.model.QueryTemplate;
+import com.sqlengine.plan.ConditionRenderer;
+import com.sqlengine.plan.KeysetCursor;
 import com.sqlengine.repository.DatabaseConfigRepository;
 import com.sqlengine.strategy.QueryExecutionStrategy;
 import com.sqlengine.strategy.QueryExecutionStrategyFactory;
-import io.grpc.stub.StreamObserver;
+import com.sqlengine.strategy.utils.ResultBlockEncoder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.sql.DataSource;
@@ -25,103 +49,324 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Reactor-native gRPC endpoint. Results flow as Mono/Flux from R2DBC to the transport: outbound
+ * demand drives the database cursor, and a client cancellation cancels the R2DBC subscription,
+ * which returns the connection to the pool. Each query first waits for admission by
+ * {@link QueryAdmissionManager}, which shares the node fairly between tenants.
+ */
 @Slf4j
-@Service
-public class QueryRunnerServiceImpl extends QueryRunnerServiceGrpc.QueryRunnerServiceImplBase {
+@GrpcService
+public class QueryRunnerServiceImpl extends ReactorQueryRunnerServiceGrpc.QueryRunnerServiceImplBase {
 
     private final QueryExecutionStrategyFactory strategyFactory;
     private final DatabaseConnectionPoolManager poolManager;
     private final DatabaseConfigRepository repository;
+    private final PreparedTemplateRegistry preparedTemplates;
+    private final BulkLoadService bulkLoadService;
+    private final JdbcExecutorManager jdbcExecutors;
+    private final QueryAdmissionManager admission;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Value("${query.stream.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${query.batch.per-config-parallelism:4}")
+    private int defaultPerConfigParallelism;
+
+    @Value("${query.in-list.max-values:10000}")
+    private int maxInListValues;
 
     public QueryRunnerServiceImpl(QueryExecutionStrategyFactory strategyFactory,
-                                  DatabaseConnectionPoolManager poolManager, DatabaseConfigRepository repository) {
+                                  DatabaseConnectionPoolManager poolManager, DatabaseConfigRepository repository,
+                                  PreparedTemplateRegistry preparedTemplates, BulkLoadService bulkLoadService,
+                                  JdbcExecutorManager jdbcExecutors, QueryAdmissionManager admission) {
         this.strategyFactory = strategyFactory;
         this.poolManager = poolManager;
         this.repository = repository;
+        this.preparedTemplates = preparedTemplates;
+        this.bulkLoadService = bulkLoadService;
+        this.jdbcExecutors = jdbcExecutors;
+        this.admission = admission;
     }
 
     @Override
-    public void runQuery(QueryRunRequest request, StreamObserver<QueryRunResponse> responseObserver) {
-        try {
-            // Convert to internal model
-            QueryTemplate template = GrpcModelMapper.toInternal(request.getTemplate());
-            DatabaseConfig config = GrpcModelMapper.toInternal(request.getConfig());
+    public Mono<PrepareTemplateResponse> prepareTemplate(Mono<PrepareTemplateRequest> request) {
+        return request.map(req -> {
+                    if (!req.hasTemplate() || req.getTemplateVersion().isEmpty()) {
+                        throw new IllegalArgumentException("PrepareTemplate requires a template and templateVersion");
+                    }
+                    String handle = preparedTemplates.register(GrpcModelMapper.toInternal(req.getTemplate()), req.getTemplateVersion());
+                    return PrepareTemplateResponse.newBuilder()
+                            .setHandle(handle)
+                            .setTemplateVersion(req.getTemplateVersion())
+                            .build();
+                })
+                .onErrorMap(this::toStatus);
+    }
 
-            if (!request.getOverrideConditionsList().isEmpty()) {
-                template.setConditions(request.getOverrideConditionsList().stream()
-                        .map(GrpcModelMapper::toInternal).collect(Collectors.toList()));
-            }
+    @Override
+    public Mono<QueryRunResponse> runQuery(Mono<QueryRunRequest> request) {
+        return request.flatMap(this::execute)
+                .doOnError(error -> log.error("Query execution failed", error))
+                .onErrorMap(this::toStatus);
+    }
+
+    /**
+     * Runs every item of the batch and emits each result as soon as it completes, tagged with the item's
+     * index. Items sharing a DatabaseConfig run at most {@code perConfigParallelism} at a time so one
+     * batch cannot take over that config's pool; a failing item yields an error result, not a failed call.
+     */
+    @Override
+    public Flux<BatchItemResult> runBatch(Mono<BatchRunRequest> request) {
+        return request.flatMapMany(batch -> {
+            int parallelism = batch.getPerConfigParallelism() > 0 ? batch.getPerConfigParallelism() : defaultPerConfigParallelism;
+            log.info("📦 Running batch of {} queries", batch.getItemsCount());
+            return Flux.fromIterable(batch.getItemsList())
+                    .groupBy(this::configKeyOf)
+                    .flatMap(group -> group.flatMap(this::runBatchItem, parallelism), Math.max(1, batch.getItemsCount()));
+        });
+    }
+
+    /**
+     * Client-streaming load: the first chunk names the target table and columns, every chunk carries rows.
+     * The load waits for admission under the header's config like any other query.
+     */
+    @Override
+    public Mono<BulkLoadSummary> bulkLoad(Flux<BulkLoadChunk> request) {
+        return bulkLoadService.load(request, admission::admit)
+                .doOnError(error -> log.error("Bulk load failed", error))
+                .onErrorMap(this::toStatus);
+    }
 
-            DatabaseClient dbClient = poolManager.getDatabaseClient(config);
+    private Mono<BatchItemResult> runBatchItem(BatchQueryItem item) {
+        return execute(item.getRequest())
+                .map(response -> BatchItemResult.newBuilder()
+                        .setIndex(item.getIndex())
+                        .setJsonResult(response.getJsonResult())
+                        .build())
+                .onErrorResume(error -> {
+                    log.warn("⚠️ Batch item {} failed: {}", item.getIndex(), error.getMessage());
+                    Status status = Status.fromThrowable(toStatus(error));
+                    return Mono.just(BatchItemResult.newBuilder()
+                            .setIndex(item.getIndex())
+                            .setError(String.valueOf(status.getDescription()))
+                            .setStatusCode(status.getCode().value())
+                            .build());
+                });
+    }
+
+    private String configKeyOf(BatchQueryItem item) {
+        QueryRunRequest request = item.getRequest();
+        return request.hasConfig() ? request.getConfig().getId() : request.getConfigId();
+    }
+
+    private Mono<QueryRunResponse> execute(QueryRunRequest req) {
+        return resolve(req).flatMap(resolved -> admission.admit(resolved.config(), run(req, resolved)));
+    }
 
-            if (template.getSqlQuery() != null && !template.getSqlQuery().isBlank()) {
-                dbClient.sql(template.getSqlQuery())
+    /**
+     * The pool is looked up only once the query is admitted: a pool taken before queueing could be
+     * hot-swapped or evicted, and closed, while the query waits.
+     */
+    private Mono<QueryRunResponse> run(QueryRunRequest req, ResolvedTemplate template) {
+        return Mono.defer(() -> {
+            ResolvedRequest resolved = connect(template);
+            if (req.getEncoding() == ResultEncoding.COLUMNAR) {
+                // A single block holding the whole result; large results should use RunQueryStream
+                return columnarBlocks(resolved, Integer.MAX_VALUE)
+                        .next()
+                        .defaultIfEmpty(ResultBlock.getDefaultInstance())
+                        .map(block -> QueryRunResponse.newBuilder().setBlock(block).build());
+            }
+
+            if (resolved.isNativeSql()) {
+                return resolved.dbClient().sql(resolved.template().getSqlQuery())
                         .fetch()
                         .all()
                         .collectList()
-                        .map(result -> QueryRunResponse.newBuilder().setJsonResult(result.toString()).build())
-                        .subscribe(responseObserver::onNext,
-                                error -> {
-                                    responseObserver.onError(error);
-                                    log.error("Native SQL execution failed", error);
-                                },
-                                responseObserver::onCompleted);
-            } else {
-                QueryExecutionStrategy strategy = strategyFactory.getStrategy(template.getQueryType());
-
-                strategy.execute(template, config, dbClient)
-                        .map(Object::toString)
-                        .map(result -> QueryRunResponse.newBuilder().setJsonResult(result).build())
-                        .subscribe(responseObserver::onNext,
-                                error -> {
-                                    responseObserver.onError(error);
-                                    log.error("Query execution failed", error);
-                                },
-                                responseObserver::onCompleted);
+                        .map(result -> QueryRunResponse.newBuilder().setJsonResult(result.toString()).build());
             }
 
-        } catch (Exception e) {
-            responseObserver.onError(e);
-        }
+            QueryExecutionStrategy strategy = strategyFactory.getStrategy(resolved.template().getQueryType());
+            return strategy.execute(resolved.template(), resolved.config(), resolved.dbClient())
+                    .map(result -> {
+                        QueryRunResponse.Builder response = QueryRunResponse.newBuilder().setJsonResult(result.toString());
+                        KeysetCursor.nextToken(resolved.template(), result).ifPresent(response::setContinuationToken);
+                        return response.build();
+                    });
+        });
     }
 
+    /**
+     * Streams the result in row batches. reactor-grpc only requests the next chunk while the call is
+     * ready for more outbound messages, so a slow consumer throttles the read instead of filling the heap.
+     */
+    @Override
+    public Flux<QueryRunChunk> runQueryStream(Mono<QueryRunRequest> request) {
+        return request.flatMapMany(req -> resolve(req).flatMapMany(template -> {
+                    int batchSize = req.getBatchSize() > 0 ? req.getBatchSize() : defaultBatchSize;
+                    return admission.admitMany(template.config(), Flux.defer(() -> {
+                        ResolvedRequest resolved = connect(template);
+                        return req.getEncoding() == ResultEncoding.COLUMNAR
+                                ? toColumnarChunks(columnarBlocks(resolved, batchSize))
+                                : toChunks(streamRows(resolved), batchSize);
+                    }));
+                }))
+                .doOnCancel(() -> log.info("🛑 Client cancelled RunQueryStream, releasing database cursor"))
+                .doOnError(error -> log.error("Streaming query execution failed", error))
+                .onErrorMap(this::toStatus);
+    }
 
     @Override
-    public void getTableSchema(TableSchemaRequest request, StreamObserver<TableSchemaResponse> responseObserver) {
-        String configId = request.getConfigId();
-        String tableName = request.getTableName();
-
-        repository.findById(configId)
-                .flatMap(config -> Mono.fromCallable(() -> {
-                    DataSource ds = poolManager.getDataSource(config);
-                    List<ColumnInfo> columns = new ArrayList<>();
-
-                    try (Connection conn = ds.getConnection()) {
-                        DatabaseMetaData meta = conn.getMetaData();
-                        try (ResultSet rs = meta.getColumns(null, null, tableName, null)) {
-                            while (rs.next()) {
-                                columns.add(ColumnInfo.newBuilder()
-                                        .setName(rs.getString("COLUMN_NAME"))
-                                        .setType(rs.getString("TYPE_NAME"))
-                                        .setSize(rs.getInt("COLUMN_SIZE"))
-                                        .setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable)
-                                        .setRemarks(rs.getString("REMARKS"))
-                                        .build());
-                            }
-                        }
-                    }
+    public Mono<TableSchemaResponse> getTableSchema(Mono<TableSchemaRequest> request) {
+        return request.flatMap(req -> repository.findById(req.getConfigId())
+                        .switchIfEmpty(Mono.error(new IllegalArgumentException("DatabaseConfig not found: " + req.getConfigId())))
+                        .flatMap(config -> Mono.fromCallable(() -> loadTableSchema(config, req.getTableName()))
+                                .subscribeOn(jdbcExecutors.shared())))
+                .onErrorMap(this::toStatus);
+    }
 
-                    return TableSchemaResponse.newBuilder()
-                            .addAllColumns(columns)
-                            .build();
-                }))
-                .subscribe(
-                        responseObserver::onNext,
-                        responseObserver::onError,
-                        responseObserver::onCompleted
-                );
+    private TableSchemaResponse loadTableSchema(DatabaseConfig config, String tableName) throws Exception {
+        DataSource ds = poolManager.getDataSource(config);
+        List<ColumnInfo> columns = new ArrayList<>();
+
+        try (Connection conn = ds.getConnection()) {
+            DatabaseMetaData meta = conn.getMetaData();
+            try (ResultSet rs = meta.getColumns(null, null, tableName, null)) {
+                while (rs.next()) {
+                    columns.add(ColumnInfo.newBuilder()
+                            .setName(rs.getString("COLUMN_NAME"))
+                            .setType(rs.getString("TYPE_NAME"))
+                            .setSize(rs.getInt("COLUMN_SIZE"))
+                            .setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable)
+                            .setRemarks(rs.getString("REMARKS"))
+                            .build());
+                }
+            }
+        }
+
+        return TableSchemaResponse.newBuilder()
+                .addAllColumns(columns)
+                .build();
+    }
+
+    /**
+     * Resolves the template from its prepared handle (or the inline template) and the config from its
+     * ID (or the inline config). An unknown or stale handle fails with FAILED_PRECONDITION so the
+     * caller can re-prepare and retry.
+     */
+    private Mono<ResolvedTemplate> resolve(QueryRunRequest request) {
+        Mono<QueryTemplate> template;
+        if (!request.getTemplateHandle().isEmpty()) {
+            template = Mono.justOrEmpty(preparedTemplates.lookup(request.getTemplateHandle(), request.getTemplateVersion()))
+                    .switchIfEmpty(Mono.error(() -> Status.FAILED_PRECONDITION
+                            .withDescription("Template handle not prepared: " + request.getTemplateHandle())
+                            .asRuntimeException()));
+        } else {
+            template = Mono.fromSupplier(() -> {
+                QueryTemplate inline = GrpcModelMapper.toInternal(request.getTemplate());
+                inline.setTemplateVersion(DigestUtils.sha256Hex(request.getTemplate().toByteArray()));
+                return inline;
+            });
+        }
+
+        Mono<DatabaseConfig> config = request.hasConfig()
+                ? Mono.fromSupplier(() -> GrpcModelMapper.toInternal(request.getConfig()))
+                : poolManager.getDatabaseConfig(request.getConfigId());
+
+        return Mono.zip(template, config).map(tuple -> {
+            QueryTemplate resolved = tuple.getT1();
+            if (!request.getOverrideConditionsList().isEmpty()) {
+                resolved.setConditions(request.getOverrideConditionsList().stream()
+                        .map(GrpcModelMapper::toInternal).collect(Collectors.toList()));
+            }
+            if (!request.getContinuationToken().isEmpty()) {
+                resolved.setContinuationToken(request.getContinuationToken());
+            }
+            // Override and inline conditions never went through template validation
+            ConditionRenderer.validateListSizes(resolved.getConditions(), maxInListValues);
+            ConditionRenderer.validateListSizes(resolved.getHavingConditions(), maxInListValues);
+            return new ResolvedTemplate(resolved, tuple.getT2());
+        });
+    }
+
+    private ResolvedRequest connect(ResolvedTemplate template) {
+        return new ResolvedRequest(template.template(), template.config(), poolManager.getDatabaseClient(template.config()));
+    }
+
+    private Flux<Map<String, Object>> streamRows(ResolvedRequest resolved) {
+        if (resolved.isNativeSql()) {
+            return resolved.dbClient().sql(resolved.template().getSqlQuery()).fetch().all();
+        }
+        return strategyFactory.getStrategy(resolved.template().getQueryType())
+                .executeStream(resolved.template(), resolved.config(), resolved.dbClient());
+    }
+
+    private Flux<ResultBlock> columnarBlocks(ResolvedRequest resolved, int batchSize) {
+        if (resolved.isNativeSql()) {
+            return ResultBlockEncoder.encode(resolved.dbClient().sql(resolved.template().getSqlQuery()), Map.of(), batchSize);
+        }
+        return strategyFactory.getStrategy(resolved.template().getQueryType())
+                .executeColumnar(resolved.template(), resolved.config(), resolved.dbClient(), batchSize);
+    }
+
+    private Flux<QueryRunChunk> toChunks(Flux<Map<String, Object>> rows, int batchSize) {
+        AtomicLong sequence = new AtomicLong();
+        return rows.map(this::toJson)
+                .buffer(batchSize)
+                .map(batch -> QueryRunChunk.newBuilder()
+                        .setSequence(sequence.getAndIncrement())
+                        .addAllRows(batch)
+                        .build())
+                .concatWith(Mono.fromSupplier(() -> lastChunk(sequence)));
+    }
+
+    private Flux<QueryRunChunk> toColumnarChunks(Flux<ResultBlock> blocks) {
+        AtomicLong sequence = new AtomicLong();
+        return blocks.map(block -> QueryRunChunk.newBuilder()
+                        .setSequence(sequence.getAndIncrement())
+                        .setBlock(block)
+                        .build())
+                .concatWith(Mono.fromSupplier(() -> lastChunk(sequence)));
+    }
+
+    private QueryRunChunk lastChunk(AtomicLong sequence) {
+        return QueryRunChunk.newBuilder()
+                .setSequence(sequence.getAndIncrement())
+                .setLast(true)
+                .build();
+    }
+
+    private String toJson(Map<String, Object> row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize result row", e);
+        }
+    }
+
+    private Throwable toStatus(Throwable error) {
+        if (error instanceof StatusRuntimeException) {
+            return error;
+        }
+        Status status = error instanceof IllegalArgumentException ? Status.INVALID_ARGUMENT : Status.INTERNAL;
+        return status.withDescription(error.getMessage()).withCause(error).asRuntimeException();
+    }
+
+    private record ResolvedTemplate(QueryTemplate template, DatabaseConfig config) {
+    }
+
+    private record ResolvedRequest(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
+        boolean isNativeSql() {
+            return template.getSqlQuery() != null && !template.getSqlQuery().isBlank();
+        }
     }
 
 }
@@ -1,20 +1,22 @@
 package com.sqlengine.strategy;
 
 import com.sqlengine.enums.DatabaseProvider;
-import com.sqlengine.enums.JoinType;
 import com.sqlengine.manager.TableMetadataManager;
 import com.sqlengine.model.DatabaseConfig;
 import com.sqlengine.model.QueryTemplate;
 import com.sqlengine.model.query.JoinConfig;
 import com.sqlengine.model.query.QueryCondition;
-import com.sqlengine.utils.QueryParamCaster;
+import com.sqlengine.plan.BindSlot;
+import com.sqlengine.plan.ConditionRenderer;
+import com.sqlengine.plan.QueryPlan;
+import com.sqlengine.plan.QueryPlanCache;
+import com.sqlengine.service.ChunkedMutationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.Parameter;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
@@ -25,6 +27,8 @@ import java.util.*;
 public class DeleteQueryExecutionStrategy implements QueryExecutionStrategy {
 
     private final TableMetadataManager tableMetadataManager;
+    private final QueryPlanCache planCache;
+    private final ChunkedMutationService chunkedMutationService;
 
     private static final Set<DatabaseProvider> NATIVE_JOIN_DELETE_SUPPORTED = Set.of(
             DatabaseProvider.MYSQL, DatabaseProvider.MARIADB, DatabaseProvider.MSSQL
@@ -37,30 +41,37 @@ public class DeleteQueryExecutionStrategy implements QueryExecutionStrategy {
 
     @Override
     public Mono<Object> execute(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
-        return tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
-                .flatMap(columnTypes -> {
-                    if (template.getSqlQuery() != null && !template.getSqlQuery().isBlank()) {
-                        return bindAndReturnResults(dbClient, template.getSqlQuery(), new HashMap<>())
-                                .collectList().cast(Object.class);
-                    }
+        if (template.isChunked()) {
+            return chunkedMutationService.execute(getType(), template, config, dbClient);
+        }
 
-                    if (template.getJoins() != null && !template.getJoins().isEmpty()) {
-                        if (NATIVE_JOIN_DELETE_SUPPORTED.contains(config.getProvider())) {
-                            return nativeDeleteWithJoin(template, config, dbClient, columnTypes).cast(Object.class);
-                        } else {
-                            return emulateDeleteWithJoin(template, config, dbClient, columnTypes).cast(Object.class);
-                        }
-                    } else {
-                        return simpleDelete(template, config, dbClient, columnTypes).cast(Object.class);
-                    }
+        if (template.getSqlQuery() != null && !template.getSqlQuery().isBlank()) {
+            return bindParams(dbClient, template.getSqlQuery(), new HashMap<>())
+                    .fetch().all().collectList().cast(Object.class);
+        }
+
+        boolean hasJoins = template.getJoins() != null && !template.getJoins().isEmpty();
+        if (hasJoins && !NATIVE_JOIN_DELETE_SUPPORTED.contains(config.getProvider())) {
+            return tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
+                    .flatMap(columnTypes -> emulateDeleteWithJoin(template, config, dbClient, columnTypes));
+        }
+
+        String kind = hasJoins ? "DELETE_JOIN" : getType();
+        return planCache.getOrCompile(kind, template, config, () ->
+                        tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
+                                .map(columnTypes -> hasJoins
+                                        ? compileNativeDeleteWithJoin(template, config, columnTypes)
+                                        : compileSimpleDelete(template, config, columnTypes)))
+                .flatMap(plan -> {
+                    DatabaseClient.GenericExecuteSpec spec = plan.bind(dbClient.sql(plan.sql()), plan.bindValues(template));
+                    return rowsDeleted(spec, returns(template, config));
                 });
     }
 
-    private Mono<Flux<Map<String, Object>>> nativeDeleteWithJoin(QueryTemplate template,
-                                                                 DatabaseConfig config,
-                                                                 DatabaseClient dbClient,
-                                                                 Map<String, Integer> columnTypes) {
-        Map<String, Object> params = new HashMap<>();
+    private QueryPlan compileNativeDeleteWithJoin(QueryTemplate template,
+                                                  DatabaseConfig config,
+                                                  Map<String, Integer> columnTypes) {
+        List<BindSlot> slots = new ArrayList<>();
         StringBuilder sql = new StringBuilder("DELETE ").append(template.getTableName()).append(" FROM ")
                 .append(template.getTableName());
 
@@ -74,46 +85,43 @@ public class DeleteQueryExecutionStrategy implements QueryExecutionStrategy {
         }
 
         if (template.getConditions() != null && !template.getConditions().isEmpty()) {
-            sql.append(" WHERE ").append(buildWhereClause(template, columnTypes, params));
+            sql.append(" WHERE ").append(buildWhereClause(template, config.getProvider(), columnTypes, slots));
         }
 
-        if (template.getReturningFields() != null && !template.getReturningFields().isEmpty()
-                && supportsReturning(config.getProvider())) {
+        if (returns(template, config)) {
             sql.append(" RETURNING ").append(String.join(", ", template.getReturningFields()));
         }
 
         log.debug("🧨 Native DELETE WITH JOIN SQL: {}", sql);
-        return Mono.just(bindAndReturnResults(dbClient, sql.toString(), params));
+        return new QueryPlan(sql.toString(), slots, columnTypes, Set.of(template.getTableName().toLowerCase()));
     }
 
-    private Mono<Flux<Map<String, Object>>> simpleDelete(QueryTemplate template,
-                                                         DatabaseConfig config,
-                                                         DatabaseClient dbClient,
-                                                         Map<String, Integer> columnTypes) {
-        Map<String, Object> params = new HashMap<>();
+    private QueryPlan compileSimpleDelete(QueryTemplate template,
+                                          DatabaseConfig config,
+                                          Map<String, Integer> columnTypes) {
+        List<BindSlot> slots = new ArrayList<>();
         StringBuilder sql = new StringBuilder("DELETE FROM ").append(template.getTableName());
 
         if (template.getConditions() != null && !template.getConditions().isEmpty()) {
-            sql.append(" WHERE ").append(buildWhereClause(template, columnTypes, params));
+            sql.append(" WHERE ").append(buildWhereClause(template, config.getProvider(), columnTypes, slots));
         }
 
-        if (template.getReturningFields() != null && !template.getReturningFields().isEmpty()
-                && supportsReturning(config.getProvider())) {
+        if (returns(template, config)) {
             sql.append(" RETURNING ").append(String.join(", ", template.getReturningFields()));
         }
 
         log.debug("🧹 Simple DELETE SQL: {}", sql);
-        return Mono.just(bindAndReturnResults(dbClient, sql.toString(), params));
+        return new QueryPlan(sql.toString(), slots, columnTypes, Set.of(template.getTableName().toLowerCase()));
     }
 
-    private Mono<Flux<Map<String, Object>>> emulateDeleteWithJoin(QueryTemplate template,
-                                                                  DatabaseConfig config,
-                                                                  DatabaseClient dbClient,
-                                                                  Map<String, Integer> columnTypes) {
+    private Mono<Object> emulateDeleteWithJoin(QueryTemplate template,
+                                               DatabaseConfig config,
+                                               DatabaseClient dbClient,
+                                               Map<String, Integer> columnTypes) {
 
         String primaryKey = template.getPrimaryKeyField() != null ? template.getPrimaryKeyField() : "id";
         String alias = "t0";
-        Map<String, Object> params = new HashMap<>();
+        List<BindSlot> slots = new ArrayList<>();
 
         StringBuilder selectSql = new StringBuilder("SELECT ").append(alias).append(".").append(primaryKey)
                 .append(" FROM ").append(template.getTableName()).append(" ").append(alias);
@@ -127,22 +135,20 @@ public class DeleteQueryExecutionStrategy implements QueryExecutionStrategy {
         }
 
         if (template.getConditions() != null && !template.getConditions().isEmpty()) {
-            selectSql.append(" WHERE ").append(buildWhereClause(template, columnTypes, params));
+            selectSql.append(" WHERE ").append(buildWhereClause(template, config.getProvider(), columnTypes, slots));
         }
 
         String idSelectionSql = selectSql.toString();
         log.debug("📌 Emulated DELETE ID query: {}", idSelectionSql);
 
-        DatabaseClient.GenericExecuteSpec spec = dbClient.sql(idSelectionSql);
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            spec = spec.bind(entry.getKey(), Parameter.fromOrEmpty(entry.getValue(), Object.class));
-        }
+        QueryPlan selectPlan = new QueryPlan(idSelectionSql, slots, columnTypes, Set.of(template.getTableName().toLowerCase()));
+        DatabaseClient.GenericExecuteSpec spec = selectPlan.bind(dbClient.sql(idSelectionSql), selectPlan.bindValues(template));
 
         return spec.fetch().all()
                 .map(row -> row.get(primaryKey))
                 .collectList()
                 .flatMap(ids -> {
-                    if (ids.isEmpty()) return Mono.just(Flux.just(Map.of("rowsDeleted", 0)));
+                    if (ids.isEmpty()) return Mono.just(Map.of("rowsDeleted", 0L));
 
                     StringBuilder deleteSql = new StringBuilder("DELETE FROM ")
                             .append(template.getTableName())
@@ -153,30 +159,45 @@ public class DeleteQueryExecutionStrategy implements QueryExecutionStrategy {
                     Map<String, Object> deleteParams = new HashMap<>();
                     deleteParams.put("ids", ids);
 
-                    if (template.getReturningFields() != null && !template.getReturningFields().isEmpty()
-                            && supportsReturning(config.getProvider())) {
+                    boolean returning = returns(template, config);
+                    if (returning) {
                         deleteSql.append(" RETURNING ").append(String.join(", ", template.getReturningFields()));
                     }
 
-                    return Mono.just(bindAndReturnResults(dbClient, deleteSql.toString(), deleteParams));
+                    return rowsDeleted(bindParams(dbClient, deleteSql.toString(), deleteParams), returning);
                 });
     }
 
+    private boolean returns(QueryTemplate template, DatabaseConfig config) {
+        return template.getReturningFields() != null && !template.getReturningFields().isEmpty()
+                && supportsReturning(config.getProvider());
+    }
+
+    private Mono<Object> rowsDeleted(DatabaseClient.GenericExecuteSpec spec, boolean returning) {
+        if (returning) {
+            return spec.fetch().all().collectList()
+                    .map(returned -> Map.of("rowsDeleted", returned.size(), "returning", returned));
+        }
+        return spec.fetch().rowsUpdated()
+                .map(rowsDeleted -> Map.of("rowsDeleted", rowsDeleted));
+    }
+
     private boolean supportsReturning(DatabaseProvider provider) {
         return provider == DatabaseProvider.POSTGRESQL
                 || provider == DatabaseProvider.ORACLE
                 || provider == DatabaseProvider.MSSQL;
     }
 
-    private String buildWhereClause(QueryTemplate template, Map<String, Integer> columnTypes, Map<String, Object> params) {
+    private String buildWhereClause(QueryTemplate template, DatabaseProvider provider, Map<String, Integer> columnTypes, List<BindSlot> slots) {
         StringJoiner whereJoiner = new StringJoiner(" ");
-        for (QueryCondition condition : template.getConditions()) {
+        List<QueryCondition> conditions = template.getConditions();
+        for (int i = 0; i < conditions.size(); i++) {
+            QueryCondition condition = conditions.get(i);
             String field = condition.getFieldName().toLowerCase();
-            Object rawValue = condition.getValue();
             if (!columnTypes.containsKey(field)) continue;
             String paramKey = "where_" + field;
-            params.put(paramKey, QueryParamCaster.cast(rawValue, columnTypes.get(field)));
-            whereJoiner.add(field + " " + condition.getOperator().getSymbol() + " :" + paramKey);
+            BindSlot slot = BindSlot.condition(paramKey, i, field, columnTypes.get(field));
+            whereJoiner.add(ConditionRenderer.render(condition, slot, provider, slots));
             if (condition.getFilterOperator() != null) {
                 whereJoiner.add(condition.getFilterOperator());
             }
@@ -184,11 +205,11 @@ public class DeleteQueryExecutionStrategy implements QueryExecutionStrategy {
         return whereJoiner.toString();
     }
 
-    private Flux<Map<String, Object>> bindAndReturnResults(DatabaseClient dbClient, String sql, Map<String, Object> params) {
+    private DatabaseClient.GenericExecuteSpec bindParams(DatabaseClient dbClient, String sql, Map<String, Object> params) {
         DatabaseClient.GenericExecuteSpec spec = dbClient.sql(sql);
         for (Map.Entry<String, Object> entry : params.entrySet()) {
             spec = spec.bind(entry.getKey(), Parameter.fromOrEmpty(entry.getValue(), Object.class));
         }
-        return spec.fetch().all();
+        return spec;
     }
 }
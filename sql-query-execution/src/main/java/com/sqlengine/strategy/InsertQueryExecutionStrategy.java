@@ -4,16 +4,23 @@ import com.sqlengine.enums.DatabaseProvider;
 import com.sqlengine.manager.TableMetadataManager;
 import com.sqlengine.model.DatabaseConfig;
 import com.sqlengine.model.QueryTemplate;
+import com.sqlengine.strategy.utils.ReturningEmulation;
+import com.sqlengine.strategy.utils.SqlDialectHelper;
+import com.sqlengine.strategy.utils.UpsertSqlBuilder;
 import com.sqlengine.utils.QueryParamCaster;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.Parameter;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,6 +30,15 @@ public class InsertQueryExecutionStrategy implements QueryExecutionStrategy {
 
     private final TableMetadataManager tableMetadataManager;
 
+    @Value("${query.insert.max-rows-per-statement:1000}")
+    private int maxRowsPerStatement;
+
+    @Value("${query.insert.max-bytes-per-statement:1048576}")
+    private int maxBytesPerStatement;
+
+    @Value("${query.insert.chunk-concurrency:4}")
+    private int chunkConcurrency;
+
     @Override
     public String getType() {
         return "INSERT";
@@ -30,6 +46,9 @@ public class InsertQueryExecutionStrategy implements QueryExecutionStrategy {
 
     @Override
     public Mono<Object> execute(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
+        if (template.getInsertRows() != null && !template.getInsertRows().isEmpty()) {
+            return bulkInsert(template, config, dbClient);
+        }
         if (template.getInsertValues() == null || template.getInsertValues().isEmpty()) {
             return Mono.error(new IllegalArgumentException("❌ insertValues are required for INSERT query"));
         }
@@ -41,24 +60,49 @@ public class InsertQueryExecutionStrategy implements QueryExecutionStrategy {
         StringJoiner columnsJoiner = new StringJoiner(", ");
         StringJoiner valuesJoiner = new StringJoiner(", ");
         Map<String, Object> params = new HashMap<>();
+        List<String> columns = new ArrayList<>();
+        List<String> valueParams = new ArrayList<>();
 
         insertValues.forEach((col, val) -> {
             columnsJoiner.add(col);
             String paramKey = "val_" + col;
             valuesJoiner.add(":" + paramKey);
             params.put(paramKey, val);
+            columns.add(col);
+            valueParams.add(paramKey);
         });
 
+        boolean upsert = UpsertSqlBuilder.isUpsert(template);
+        boolean returning = returningFields != null && !returningFields.isEmpty();
+        boolean nativeReturning = returning && ReturningEmulation.supportsReturning(config.getProvider());
+        if (returning && upsert && !nativeReturning) {
+            return Mono.error(upsertReturningUnsupported(config.getProvider()));
+        }
+
         StringBuilder sql = new StringBuilder();
-        sql.append("INSERT INTO ").append(table)
-                .append(" (").append(columnsJoiner).append(") ")
-                .append("VALUES (").append(valuesJoiner).append(")");
-
-        // ✅ DB-native RETURNING support
-        if (returningFields != null && !returningFields.isEmpty()) {
-            if (supportsReturning(config.getProvider())) {
-                sql.append(" RETURNING ").append(String.join(", ", returningFields));
+        if (upsert) {
+            Map<String, String> updateParams = new LinkedHashMap<>();
+            if (template.getUpsertValues() != null) {
+                template.getUpsertValues().forEach((col, val) -> {
+                    String paramKey = "ups_" + col;
+                    updateParams.put(col, paramKey);
+                    params.put(paramKey, val);
+                });
+            }
+            try {
+                sql.append(UpsertSqlBuilder.build(config.getProvider(), template, columns, List.of(valueParams), updateParams));
+            } catch (IllegalArgumentException e) {
+                return Mono.error(e);
             }
+        } else {
+            sql.append("INSERT INTO ").append(table)
+                    .append(" (").append(columnsJoiner).append(") ")
+                    .append("VALUES (").append(valuesJoiner).append(")");
+        }
+
+        // ✅ DB-native RETURNING support; elsewhere it is emulated via generated keys
+        if (nativeReturning) {
+            sql.append(" RETURNING ").append(String.join(", ", returningFields));
         }
 
         log.debug("🟢 Generated INSERT SQL: {}", sql);
@@ -68,60 +112,414 @@ public class InsertQueryExecutionStrategy implements QueryExecutionStrategy {
             spec = spec.bind(entry.getKey(), Parameter.fromOrEmpty(entry.getValue(), Object.class));
         }
 
+        if (returning && !nativeReturning) {
+            log.info("ℹ️ Emulating RETURNING clause via generated keys...");
+            return emulateReturningAfterInsert(template, dbClient, spec);
+        }
+
         return spec.fetch().all().collectList().flatMap(result -> {
             if (!result.isEmpty()) {
                 return Mono.just(result);
             }
-
-            // 🔁 Emulate RETURNING logic
-            if (returningFields != null && !returningFields.isEmpty() && !supportsReturning(config.getProvider())) {
-                log.info("ℹ️ Emulating RETURNING clause...");
-                return emulateReturningAfterInsert(template, config, dbClient);
-            }
-
-            return Mono.just(Map.of("inserted", 1));
+            return Mono.just(Map.of(upsert ? "upserted" : "inserted", 1));
         });
     }
 
+    /**
+     * Runs the INSERT and reads the returning fields back by primary key, in one transaction: the key
+     * is the inserted value when the template sets it, otherwise the driver's generated key.
+     */
     private Mono<Object> emulateReturningAfterInsert(QueryTemplate template,
-                                                     DatabaseConfig config,
-                                                     DatabaseClient dbClient) {
+                                                     DatabaseClient dbClient,
+                                                     DatabaseClient.GenericExecuteSpec insert) {
+        String table = template.getTableName();
+        String primaryKey = primaryKeyOf(template);
+        Object explicitKey = template.getInsertValues().entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(primaryKey) && entry.getValue() != null)
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+        TransactionalOperator transactional = TransactionalOperator.create(new R2dbcTransactionManager(dbClient.getConnectionFactory()));
+
+        Mono<List<Object>> keys = explicitKey != null
+                ? insert.fetch().rowsUpdated().thenReturn(List.of(explicitKey))
+                : insert.filter(statement -> statement.returnGeneratedValues(primaryKey))
+                .fetch().all()
+                .mapNotNull(row -> ReturningEmulation.keyOf(row, primaryKey))
+                .collectList();
+
+        return keys.flatMap(ids -> ReturningEmulation.selectByKeys(dbClient, table, template.getReturningFields(), primaryKey, ids))
+                .as(transactional::transactional)
+                .cast(Object.class);
+    }
 
+    /**
+     * Inserts {@code insertRows} in chunks bounded by rows, bind parameters and estimated bytes per
+     * statement. Each chunk is one multi-row {@code VALUES} statement (or a parameter batch where the
+     * dialect has no multi-row VALUES) in its own transaction; chunks run with bounded concurrency and
+     * a failed chunk is rolled back and reported without stopping the others. Upsert templates turn
+     * each chunk into one upsert statement (see {@link UpsertSqlBuilder}).
+     *
+     * <p>Where RETURNING is emulated and the rows do not carry their primary key, a chunk is instead
+     * sent as one single-row INSERT with a binding set per row, so every execution reports its own
+     * generated key. Emulated RETURNING is not available for upserts, which cannot tell inserted
+     * from updated rows.</p>
+     */
+    private Mono<Object> bulkInsert(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
         String table = template.getTableName();
-        Map<String, Object> insertValues = template.getInsertValues();
-        List<String> returningFields = template.getReturningFields();
+        List<Map<String, Object>> rows = template.getInsertRows();
+        List<String> columns = bulkColumnsOf(template);
+        DatabaseProvider provider = config.getProvider();
+        TransactionalOperator transactional = TransactionalOperator.create(new R2dbcTransactionManager(dbClient.getConnectionFactory()));
 
         return tableMetadataManager.getColumnTypesReactive(config, dbClient, table)
                 .flatMap(columnTypes -> {
-                    StringJoiner whereJoiner = new StringJoiner(" AND ");
-                    Map<String, Object> params = new HashMap<>();
-
-                    insertValues.forEach((col, val) -> {
-                        if (columnTypes.containsKey(col.toLowerCase())) {
-                            Object casted = QueryParamCaster.cast(val, columnTypes.get(col.toLowerCase()));
-                            String key = "w_" + col;
-                            whereJoiner.add(col + " = :" + key);
-                            params.put(key, casted);
+                    for (String column : columns) {
+                        if (!columnTypes.containsKey(column.toLowerCase())) {
+                            return Mono.error(new IllegalArgumentException("❌ Invalid column in insertRows: " + column));
                         }
-                    });
+                    }
+                    Map<String, Object> upsertValues = castUpsertValues(template, columnTypes);
+                    boolean returning = template.getReturningFields() != null && !template.getReturningFields().isEmpty();
+                    boolean nativeReturning = returning && ReturningEmulation.supportsReturning(provider);
+                    if (returning && !nativeReturning && UpsertSqlBuilder.isUpsert(template)) {
+                        return Mono.error(upsertReturningUnsupported(provider));
+                    }
+                    String primaryKey = primaryKeyOf(template);
+                    int keyIndex = indexOfIgnoreCase(columns, primaryKey);
+                    // Emulated RETURNING without inserted keys needs one generated key per row
+                    boolean keyPerRow = returning && !nativeReturning && keyIndex < 0;
+                    if (keyPerRow && !columnTypes.containsKey(primaryKey.toLowerCase())) {
+                        return Mono.error(new IllegalArgumentException("❌ primaryKeyField '" + primaryKey
+                                + "' is not a column of " + table + ", RETURNING cannot be emulated"));
+                    }
+                    List<String> keyColumns = nativeReturning ? template.getReturningFields()
+                            : keyPerRow ? List.of(primaryKey)
+                            : List.of();
+                    List<RowChunk> chunks = chunk(rows, columns, provider, upsertValues.size(),
+                            SqlDialectHelper.supportsMultiRowValues(provider) && !keyPerRow);
+                    log.info("📥 Bulk insert of {} rows into {} in {} chunks", rows.size(), table, chunks.size());
 
-                    String sql = "SELECT " + String.join(", ", returningFields)
-                            + " FROM " + table + " WHERE " + whereJoiner;
+                    return Flux.fromIterable(chunks)
+                            .flatMapSequential(chunk -> Mono.defer(() -> insertChunk(chunk, template, columns, columnTypes, upsertValues, keyColumns, keyPerRow, keyIndex, provider, dbClient))
+                                    .as(transactional::transactional)
+                                    .onErrorResume(error -> {
+                                        log.warn("⚠️ Bulk insert chunk {} (rows {}..{}) rolled back: {}", chunk.index(),
+                                                chunk.fromRow(), chunk.fromRow() + chunk.rows().size() - 1, error.getMessage());
+                                        Map<String, Object> failed = chunkResult(chunk, 0, List.of());
+                                        failed.put("error", String.valueOf(error.getMessage()));
+                                        return Mono.just(failed);
+                                    }), Math.max(1, chunkConcurrency))
+                            .collectList()
+                            .map(results -> {
+                                long inserted = results.stream().mapToLong(r -> ((Number) r.get("inserted")).longValue()).sum();
+                                long failedChunks = results.stream().filter(r -> r.containsKey("error")).count();
+                                Map<String, Object> summary = new LinkedHashMap<>();
+                                summary.put("inserted", inserted);
+                                summary.put("failedChunks", failedChunks);
+                                summary.put("chunks", results);
+                                return (Object) summary;
+                            });
+                });
+    }
 
-                    log.debug("🧩 Emulated RETURNING SQL: {}", sql);
+    /**
+     * Writes one chunk; where RETURNING is emulated, the chunk's rows are then read back by primary key
+     * within the chunk's transaction and reported as its {@code generatedKeys}.
+     */
+    private Mono<Map<String, Object>> insertChunk(RowChunk chunk, QueryTemplate template, List<String> columns,
+                                                  Map<String, Integer> columnTypes, Map<String, Object> upsertValues,
+                                                  List<String> keyColumns, boolean keyPerRow, int keyIndex,
+                                                  DatabaseProvider provider, DatabaseClient dbClient) {
+        Object[][] values = castChunk(chunk, columns, columnTypes);
+        Mono<Map<String, Object>> written = writeChunk(chunk, values, template, columns, columnTypes, upsertValues,
+                keyColumns, keyPerRow, provider, dbClient);
+        List<String> returningFields = template.getReturningFields();
+        if (returningFields == null || returningFields.isEmpty() || ReturningEmulation.supportsReturning(provider)) {
+            return written;
+        }
 
-                    DatabaseClient.GenericExecuteSpec spec = dbClient.sql(sql);
-                    for (Map.Entry<String, Object> entry : params.entrySet()) {
-                        spec = spec.bind(entry.getKey(), Parameter.fromOrEmpty(entry.getValue(), Object.class));
+        String primaryKey = primaryKeyOf(template);
+        return written.flatMap(result -> ReturningEmulation.selectByKeys(dbClient, template.getTableName(), returningFields,
+                        primaryKey, chunkKeys(result, values, keyIndex, primaryKey))
+                .map(returned -> {
+                    result.remove("generatedKeys");
+                    if (!returned.isEmpty()) {
+                        result.put("generatedKeys", returned);
                     }
+                    return result;
+                }));
+    }
 
-                    return spec.fetch().all().collectList().cast(Object.class);
-                });
+    /**
+     * Primary keys of a written chunk: the inserted key values if the key column was inserted,
+     * otherwise the generated keys, one per row (see {@link #writeChunk}).
+     */
+    private List<Object> chunkKeys(Map<String, Object> result, Object[][] values, int keyIndex, String primaryKey) {
+        List<Object> ids = new ArrayList<>(values.length);
+        if (keyIndex >= 0) {
+            for (Object[] row : values) {
+                if (row[keyIndex] != null) ids.add(row[keyIndex]);
+            }
+            return ids;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> generated = (List<Map<String, Object>>) result.getOrDefault("generatedKeys", List.of());
+        generated.forEach(row -> {
+            Object key = ReturningEmulation.keyOf(row, primaryKey);
+            if (key != null) ids.add(key);
+        });
+        return ids;
+    }
+
+    /**
+     * Writes a chunk as one multi-row VALUES statement, or as a single-row statement with one binding
+     * set per row where the dialect has no multi-row VALUES or {@code keyPerRow} is set. The inserted
+     * count is the driver's; with {@code keyColumns}, the key rows are reported as {@code generatedKeys}
+     * and a per-row write that does not return one key per row fails the chunk.
+     */
+    private Mono<Map<String, Object>> writeChunk(RowChunk chunk, Object[][] values, QueryTemplate template, List<String> columns,
+                                                 Map<String, Integer> columnTypes, Map<String, Object> upsertValues,
+                                                 List<String> keyColumns, boolean keyPerRow, DatabaseProvider provider,
+                                                 DatabaseClient dbClient) {
+        String table = template.getTableName();
+        String columnList = String.join(", ", columns);
+        boolean upsert = UpsertSqlBuilder.isUpsert(template);
+        List<String> upsertColumns = new ArrayList<>(upsertValues.keySet());
+        Map<String, String> updateParams = new LinkedHashMap<>();
+        for (int u = 0; u < upsertColumns.size(); u++) {
+            updateParams.put(upsertColumns.get(u), "u" + u);
+        }
+
+        if (!SqlDialectHelper.supportsMultiRowValues(provider) || keyPerRow) {
+            // One single-row statement; the other rows are added to its parameter batch
+            List<String> rowParams = new ArrayList<>();
+            StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+            for (int c = 0; c < columns.size(); c++) {
+                rowParams.add("c" + c);
+                placeholders.add(":c" + c);
+            }
+            String sql = upsert
+                    ? UpsertSqlBuilder.build(provider, template, columns, List.of(rowParams), updateParams)
+                    : "INSERT INTO " + table + " (" + columnList + ") VALUES " + placeholders;
+            DatabaseClient.GenericExecuteSpec spec = dbClient.sql(sql);
+            for (int c = 0; c < columns.size(); c++) {
+                spec = spec.bind("c" + c, Parameter.fromOrEmpty(values[0][c], javaTypeOf(columns.get(c), columnTypes)));
+            }
+            spec = bindUpsertValues(spec, upsertColumns, upsertValues, columnTypes);
+            String[] keys = keyColumns.toArray(String[]::new);
+            if (keys.length > 0) {
+                spec = spec.filter(statement -> statement.returnGeneratedValues(keys));
+            }
+            spec = spec.filter(statement -> {
+                for (int r = 1; r < values.length; r++) {
+                    statement.add();
+                    for (int c = 0; c < columns.size(); c++) {
+                        if (values[r][c] == null) {
+                            statement.bindNull(c, javaTypeOf(columns.get(c), columnTypes));
+                        } else {
+                            statement.bind(c, values[r][c]);
+                        }
+                    }
+                    // upsertValues follow the row's parameters in the statement text
+                    for (int u = 0; u < upsertColumns.size(); u++) {
+                        Object value = upsertValues.get(upsertColumns.get(u));
+                        if (value == null) {
+                            statement.bindNull(columns.size() + u, javaTypeOf(upsertColumns.get(u), columnTypes));
+                        } else {
+                            statement.bind(columns.size() + u, value);
+                        }
+                    }
+                }
+                return statement;
+            });
+            if (keys.length == 0) {
+                return spec.fetch().rowsUpdated().map(count -> chunkResult(chunk, count, List.of()));
+            }
+            return spec.fetch().all()
+                    .collectList()
+                    .flatMap(generated -> generated.size() == values.length
+                            ? Mono.just(chunkResult(chunk, generated.size(), generated))
+                            : Mono.error(new IllegalStateException("❌ Driver returned " + generated.size()
+                            + " generated keys for " + values.length + " inserted rows")));
+        }
+
+        StringJoiner rowsJoiner = new StringJoiner(", ");
+        List<List<String>> rowParams = new ArrayList<>();
+        Map<String, Parameter> params = new HashMap<>();
+        for (int r = 0; r < values.length; r++) {
+            StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+            List<String> names = new ArrayList<>();
+            for (int c = 0; c < columns.size(); c++) {
+                String name = "r" + r + "_c" + c;
+                placeholders.add(":" + name);
+                names.add(name);
+                params.put(name, Parameter.fromOrEmpty(values[r][c], javaTypeOf(columns.get(c), columnTypes)));
+            }
+            rowsJoiner.add(placeholders.toString());
+            rowParams.add(names);
+        }
+
+        String sql = upsert
+                ? UpsertSqlBuilder.build(provider, template, columns, rowParams, updateParams)
+                : "INSERT INTO " + table + " (" + columnList + ") VALUES " + rowsJoiner;
+        DatabaseClient.GenericExecuteSpec spec = dbClient.sql(sql);
+        for (Map.Entry<String, Parameter> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        spec = bindUpsertValues(spec, upsertColumns, upsertValues, columnTypes);
+
+        if (keyColumns.isEmpty()) {
+            return spec.fetch().rowsUpdated().map(count -> chunkResult(chunk, count, List.of()));
+        }
+        // Only PostgreSQL reads keys from a multi-row statement: its RETURNING yields one row per inserted row
+        String[] keys = keyColumns.toArray(String[]::new);
+        return spec.filter(statement -> statement.returnGeneratedValues(keys))
+                .fetch().all()
+                .collectList()
+                .map(generated -> chunkResult(chunk, generated.size(), generated));
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindUpsertValues(DatabaseClient.GenericExecuteSpec spec, List<String> upsertColumns,
+                                                               Map<String, Object> upsertValues, Map<String, Integer> columnTypes) {
+        for (int u = 0; u < upsertColumns.size(); u++) {
+            String column = upsertColumns.get(u);
+            spec = spec.bind("u" + u, Parameter.fromOrEmpty(upsertValues.get(column), javaTypeOf(column, columnTypes)));
+        }
+        return spec;
+    }
+
+    /**
+     * {@code upsertValues} cast to their column types, in SET order.
+     */
+    private Map<String, Object> castUpsertValues(QueryTemplate template, Map<String, Integer> columnTypes) {
+        Map<String, Object> casted = new LinkedHashMap<>();
+        if (template.getUpsertValues() == null) {
+            return casted;
+        }
+        template.getUpsertValues().forEach((column, value) -> {
+            Integer sqlType = columnTypes.get(column.toLowerCase());
+            if (sqlType == null) {
+                throw new IllegalArgumentException("❌ Invalid column in upsertValues: " + column);
+            }
+            casted.put(column, QueryParamCaster.cast(value, sqlType));
+        });
+        return casted;
+    }
+
+    /**
+     * Splits the rows so no statement exceeds the configured rows and bytes, the dialect's bind
+     * parameter limit (less the {@code reservedParams} shared by every row) or its VALUES row limit;
+     * the last two only apply to {@code multiRow} statements.
+     */
+    private List<RowChunk> chunk(List<Map<String, Object>> rows, List<String> columns, DatabaseProvider provider,
+                                 int reservedParams, boolean multiRow) {
+        int maxRows = Math.max(1, maxRowsPerStatement);
+        if (multiRow) {
+            maxRows = Math.min(maxRows, Math.max(1, (SqlDialectHelper.maxBindParameters(provider) - reservedParams) / columns.size()));
+            maxRows = Math.min(maxRows, SqlDialectHelper.maxValuesRows(provider));
+        }
+
+        List<RowChunk> chunks = new ArrayList<>();
+        int start = 0;
+        long bytes = 0;
+        for (int r = 0; r < rows.size(); r++) {
+            long rowBytes = estimateBytes(rows.get(r), columns);
+            int size = r - start;
+            if (size > 0 && (size >= maxRows || bytes + rowBytes > maxBytesPerStatement)) {
+                chunks.add(new RowChunk(chunks.size(), start, rows.subList(start, r)));
+                start = r;
+                bytes = 0;
+            }
+            bytes += rowBytes;
+        }
+        chunks.add(new RowChunk(chunks.size(), start, rows.subList(start, rows.size())));
+        return chunks;
     }
 
-    private boolean supportsReturning(DatabaseProvider provider) {
-        return provider == DatabaseProvider.POSTGRESQL
-                || provider == DatabaseProvider.ORACLE
-                || provider == DatabaseProvider.MSSQL;
+    private long estimateBytes(Map<String, Object> row, List<String> columns) {
+        long bytes = 0;
+        for (String column : columns) {
+            Object value = row.get(column);
+            bytes += (value == null ? 4 : value.toString().length()) + 4;
+        }
+        return bytes;
+    }
+
+    private Object[][] castChunk(RowChunk chunk, List<String> columns, Map<String, Integer> columnTypes) {
+        Object[][] values = new Object[chunk.rows().size()][columns.size()];
+        int[] sqlTypes = new int[columns.size()];
+        List<Function<String, Object>> casters = new ArrayList<>(columns.size());
+        for (int c = 0; c < columns.size(); c++) {
+            sqlTypes[c] = columnTypes.get(columns.get(c).toLowerCase());
+            casters.add(QueryParamCaster.resolve(sqlTypes[c]));
+        }
+        for (int r = 0; r < values.length; r++) {
+            Map<String, Object> row = chunk.rows().get(r);
+            for (int c = 0; c < columns.size(); c++) {
+                String column = columns.get(c);
+                Object raw = row.get(column);
+                try {
+                    values[r][c] = QueryParamCaster.cast(raw, sqlTypes[c], casters.get(c));
+                } catch (Exception ex) {
+                    throw new IllegalArgumentException(String.format("❌ Invalid value '%s' for field '%s' in row %d",
+                            raw, column, chunk.fromRow() + r), ex);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * {@code insertColumns} if given, otherwise every column appearing in any row (first-seen order).
+     */
+    private List<String> bulkColumnsOf(QueryTemplate template) {
+        if (template.getInsertColumns() != null && !template.getInsertColumns().isEmpty()) {
+            return template.getInsertColumns();
+        }
+        LinkedHashSet<String> columns = new LinkedHashSet<>();
+        template.getInsertRows().forEach(row -> columns.addAll(row.keySet()));
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("❌ insertRows must contain at least one column");
+        }
+        return new ArrayList<>(columns);
+    }
+
+    private Class<?> javaTypeOf(String column, Map<String, Integer> columnTypes) {
+        return QueryParamCaster.javaType(columnTypes.get(column.toLowerCase()));
+    }
+
+    private IllegalArgumentException upsertReturningUnsupported(DatabaseProvider provider) {
+        return new IllegalArgumentException("❌ returningFields on an upsert need native RETURNING, which " + provider
+                + " does not have: inserted and updated rows cannot be told apart");
+    }
+
+    private Map<String, Object> chunkResult(RowChunk chunk, long inserted, List<Map<String, Object>> generatedKeys) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("chunk", chunk.index());
+        result.put("fromRow", chunk.fromRow());
+        result.put("rows", chunk.rows().size());
+        result.put("inserted", inserted);
+        if (!generatedKeys.isEmpty()) {
+            result.put("generatedKeys", generatedKeys);
+        }
+        return result;
+    }
+
+    private record RowChunk(int index, int fromRow, List<Map<String, Object>> rows) {
+    }
+
+    private String primaryKeyOf(QueryTemplate template) {
+        return template.getPrimaryKeyField() != null ? template.getPrimaryKeyField() : "id";
+    }
+
+    private int indexOfIgnoreCase(List<String> columns, String column) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
     }
 }
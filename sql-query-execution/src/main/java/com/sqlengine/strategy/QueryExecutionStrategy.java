@@ -1,11 +1,46 @@
 package com.sqlengine.strategy;
 
+import com.sqlengine.grpc.ResultBlock;
 import com.sqlengine.model.DatabaseConfig;
 import com.sqlengine.model.QueryTemplate;
+import com.sqlengine.strategy.utils.ResultBlockEncoder;
+import org.reactivestreams.Publisher;
 import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 public interface QueryExecutionStrategy {
     String getType();
     Mono<Object> execute(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient);
+
+    /**
+     * Emits result rows one by one instead of collecting them. Strategies that can read
+     * straight from the database cursor override this; the default adapts {@link #execute}.
+     */
+    @SuppressWarnings("unchecked")
+    default Flux<Map<String, Object>> executeStream(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
+        return execute(template, config, dbClient).flatMapMany(result -> {
+            if (result instanceof List<?> rows) {
+                return Flux.fromIterable((List<Map<String, Object>>) rows);
+            }
+            if (result instanceof Publisher<?> rows) {
+                return Flux.from((Publisher<Map<String, Object>>) rows);
+            }
+            if (result instanceof Map<?, ?> row) {
+                return Flux.just((Map<String, Object>) row);
+            }
+            return Flux.just(Map.of("result", result));
+        });
+    }
+
+    /**
+     * Emits the result as columnar blocks of up to {@code batchSize} rows. The default encodes the
+     * row maps from {@link #executeStream}; strategies reading a cursor can encode straight from the rows.
+     */
+    default Flux<ResultBlock> executeColumnar(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient, int batchSize) {
+        return ResultBlockEncoder.encodeMaps(executeStream(template, config, dbClient), batchSize);
+    }
 }
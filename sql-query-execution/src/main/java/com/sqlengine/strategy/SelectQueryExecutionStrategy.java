@@ -2,6 +2,8 @@ package com.sqlengine.strategy;
 
 import com.sqlengine.enums.DatabaseProvider;
 import com.sqlengine.enums.JoinType;
+import com.sqlengine.enums.SortDirection;
+import com.sqlengine.grpc.ResultBlock;
 import com.sqlengine.manager.TableMetadataManager;
 import com.sqlengine.model.DatabaseConfig;
 import com.sqlengine.model.QueryTemplate;
@@ -11,20 +13,30 @@ import com.sqlengine.model.query.QueryCondition;
 import com.sqlengine.model.query.SelectedColumn;
 import com.sqlengine.model.query.SubqueryBlock;
 import com.sqlengine.model.query.UnionQuery;
+import com.sqlengine.plan.BindSlot;
+import com.sqlengine.plan.ConditionRenderer;
+import com.sqlengine.plan.KeysetCursor;
+import com.sqlengine.plan.QueryPlan;
+import com.sqlengine.plan.QueryPlanCache;
+import com.sqlengine.strategy.utils.ResultBlockEncoder;
 import com.sqlengine.strategy.utils.SqlDialectHelper;
-import com.sqlengine.utils.QueryParamCaster;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.Parameter;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.sql.Types;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Component("select")
@@ -32,6 +44,10 @@ import java.util.StringJoiner;
 public class SelectQueryExecutionStrategy implements QueryExecutionStrategy {
 
     private final TableMetadataManager tableMetadataManager;
+    private final QueryPlanCache planCache;
+
+    @Value("${query.stream.fetch-size:500}")
+    private int fetchSize;
 
     @Override
     public String getType() {
@@ -48,10 +64,76 @@ public class SelectQueryExecutionStrategy implements QueryExecutionStrategy {
                 });
     }
 
+    @Override
+    public Flux<Map<String, Object>> executeStream(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
+        AtomicBoolean emitted = new AtomicBoolean(false);
+        return buildSpec(template, config, dbClient, false)
+                .flatMapMany(select -> select.spec().fetch().all())
+                .doOnNext(row -> emitted.set(true))
+                .onErrorResume(ex -> {
+                    // Rows already sent downstream cannot be taken back, so only retry a failure before the first row
+                    if (emitted.get()) {
+                        return Flux.error(ex);
+                    }
+                    log.warn("⚠️ Initial streaming query failed. Retrying with fresh metadata: {}", ex.getMessage());
+                    tableMetadataManager.invalidate(config, template.getTableName());
+                    return buildSpec(template, config, dbClient, true).flatMapMany(select -> select.spec().fetch().all());
+                });
+    }
+
+    /**
+     * Encodes rows straight from the R2DBC {@code Row}s into column vectors, without building a map per row.
+     */
+    @Override
+    public Flux<ResultBlock> executeColumnar(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient, int batchSize) {
+        AtomicBoolean emitted = new AtomicBoolean(false);
+        return buildSpec(template, config, dbClient, false)
+                .flatMapMany(select -> ResultBlockEncoder.encode(select.spec(), select.columnTypes(), batchSize))
+                .doOnNext(block -> emitted.set(true))
+                .onErrorResume(ex -> {
+                    if (emitted.get()) {
+                        return Flux.error(ex);
+                    }
+                    log.warn("⚠️ Initial columnar query failed. Retrying with fresh metadata: {}", ex.getMessage());
+                    tableMetadataManager.invalidate(config, template.getTableName());
+                    return buildSpec(template, config, dbClient, true)
+                            .flatMapMany(select -> ResultBlockEncoder.encode(select.spec(), select.columnTypes(), batchSize));
+                });
+    }
+
     private Mono<Object> runWithMetadata(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient, boolean isRetry) {
-        return tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
+        return buildSpec(template, config, dbClient, isRetry)
+                .flatMap(select -> select.spec().fetch().all().collectList().cast(Object.class));
+    }
+
+    private Mono<PreparedSelect> buildSpec(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient, boolean isRetry) {
+        return planCache.getOrCompile(getType(), template, config, () -> compilePlan(template, config, dbClient))
+                .map(plan -> {
+                    if (isRetry) {
+                        log.info("🔁 Retrying with refreshed metadata...");
+                    }
+
+                    // Fetch size lets drivers read through a cursor, so downstream demand paces the database
+                    DatabaseClient.GenericExecuteSpec spec = dbClient.sql(plan.sql())
+                            .filter(statement -> statement.fetchSize(fetchSize));
+                    return new PreparedSelect(plan.bind(spec, plan.bindValues(template)), plan.columnTypes());
+                });
+    }
+
+    /**
+     * Builds the SQL text and bind slots for the template; validation of CTEs, joins, group-by and keyset
+     * sort keys happens here once per plan instead of on every request.
+     */
+    private Mono<QueryPlan> compilePlan(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
+        Mono<Void> keysetCheck = !KeysetCursor.isKeyset(template) ? Mono.empty()
+                : tableMetadataManager.getNullableColumnsReactive(config, dbClient, template.getTableName())
+                        .doOnNext(nullable -> KeysetCursor.requireNonNullKeys(template, nullable))
+                        .then();
+        return keysetCheck.then(Mono.defer(() -> tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())))
                 .flatMap(columnTypes -> {
-                    Map<String, Object> params = new HashMap<>();
+                    List<BindSlot> slots = new ArrayList<>();
+                    Set<String> tables = new HashSet<>();
+                    tables.add(template.getTableName().toLowerCase());
                     StringBuilder sql = new StringBuilder();
 
                     // CTE Block (WITH ...)
@@ -67,38 +149,38 @@ public class SelectQueryExecutionStrategy implements QueryExecutionStrategy {
                         sql.append(cteJoiner).append(" ");
                     }
 
-                    String baseQuery = buildSingleQuery(template, columnTypes, params,config.getProvider());
+                    String baseQuery = buildSingleQuery(template, columnTypes, slots, config.getProvider());
                     sql.append(baseQuery);
 
                     // Union queries (fallback to blocking metadata call for unions)
                     if (template.getUnions() != null && !template.getUnions().isEmpty()) {
+                        if (KeysetCursor.isKeyset(template)) {
+                            return Mono.error(new IllegalArgumentException("❌ Keyset pagination is not supported with UNION queries"));
+                        }
                         for (UnionQuery union : template.getUnions()) {
                             QueryTemplate unionTemplate = union.getTemplate();
                             Map<String, Integer> unionColumnTypes = tableMetadataManager.getColumnTypes(config, null, unionTemplate.getTableName()); // ⚠️ fallback to blocking
-                            Map<String, Object> unionParams = new HashMap<>();
-                            String unionSql = buildSingleQuery(unionTemplate, unionColumnTypes, unionParams, config.getProvider());
+                            List<BindSlot> unionSlots = new ArrayList<>();
+                            String unionSql = buildSingleQuery(unionTemplate, unionColumnTypes, unionSlots, config.getProvider());
                             sql.append(union.isUnionAll() ? " UNION ALL " : " UNION ").append(unionSql);
-                            params.putAll(unionParams);
+                            // Union conditions are not overridable, so their values are fixed in the plan
+                            for (BindSlot slot : unionSlots) {
+                                slots.add(BindSlot.constant(slot.getName(), slot.value(unionTemplate)));
+                            }
+                            tables.add(unionTemplate.getTableName().toLowerCase());
                         }
                     }
 
-                    if (isRetry) {
-                        log.info("🔁 Retrying with refreshed metadata...");
-                    }
-
                     log.debug("🟢 Final SQL: {}", sql);
-
-                    DatabaseClient.GenericExecuteSpec spec = dbClient.sql(sql.toString());
-                    for (Map.Entry<String, Object> entry : params.entrySet()) {
-                        spec = spec.bind(entry.getKey(), Parameter.fromOrEmpty(entry.getValue(), Object.class));
-                    }
-
-                    return spec.fetch().all().collectList().cast(Object.class);
+                    return Mono.just(new QueryPlan(sql.toString(), slots, columnTypes, tables));
                 });
     }
 
+    private record PreparedSelect(DatabaseClient.GenericExecuteSpec spec, Map<String, Integer> columnTypes) {
+    }
+
 
-    private String buildSingleQuery(QueryTemplate template, Map<String, Integer> columnTypes, Map<String, Object> params, DatabaseProvider provider) {
+    private String buildSingleQuery(QueryTemplate template, Map<String, Integer> columnTypes, List<BindSlot> slots, DatabaseProvider provider) {
         StringBuilder sql = new StringBuilder();
 
         if (template.isDistinct()) {
@@ -147,29 +229,28 @@ public class SelectQueryExecutionStrategy implements QueryExecutionStrategy {
             }
         }
 
+        String where = "";
         if (template.getConditions() != null && !template.getConditions().isEmpty()) {
             StringJoiner whereJoiner = new StringJoiner(" ");
-            for (QueryCondition condition : template.getConditions()) {
+            List<QueryCondition> conditions = template.getConditions();
+            for (int i = 0; i < conditions.size(); i++) {
+                QueryCondition condition = conditions.get(i);
                 String field = condition.getFieldName().toLowerCase();
-                Object rawValue = condition.getValue();
                 if (!columnTypes.containsKey(field)) continue;
-                int sqlType = columnTypes.get(field);
-                try {
-                    Object casted = QueryParamCaster.cast(rawValue, sqlType);
-                    params.put(field, casted);
-                } catch (Exception ex) {
-                    String message = String.format("❌ Invalid value '%s' for field '%s'. Expected SQL type: %s",
-                            rawValue, field, sqlType);
-                    log.error(message);
-                    throw new IllegalArgumentException(message, ex);
-                }
-
-                whereJoiner.add(field + " " + condition.getOperator().getSymbol() + " :" + field);
+                BindSlot slot = BindSlot.condition(field, i, field, columnTypes.get(field));
+                whereJoiner.add(ConditionRenderer.render(condition, slot, provider, slots));
                 if (condition.getFilterOperator() != null) {
                     whereJoiner.add(condition.getFilterOperator());
                 }
             }
-            sql.append(" WHERE ").append(whereJoiner);
+            where = whereJoiner.toString();
+        }
+        if (KeysetCursor.hasSeek(template)) {
+            String seek = buildSeekPredicate(template, columnTypes, slots, provider);
+            where = where.isEmpty() ? seek : "(" + where + ") AND " + seek;
+        }
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(where);
         }
 
         if (template.getGroupBy() != null && !template.getGroupBy().isEmpty()) {
@@ -186,16 +267,12 @@ public class SelectQueryExecutionStrategy implements QueryExecutionStrategy {
 
         if (template.getHavingConditions() != null && !template.getHavingConditions().isEmpty()) {
             StringJoiner havingJoiner = new StringJoiner(" ");
-            for (QueryCondition condition : template.getHavingConditions()) {
+            List<QueryCondition> havingConditions = template.getHavingConditions();
+            for (int i = 0; i < havingConditions.size(); i++) {
+                QueryCondition condition = havingConditions.get(i);
                 String field = condition.getFieldName().toLowerCase();
-                Object rawValue = condition.getValue();
-                try {
-                    Object casted = QueryParamCaster.cast(rawValue, Types.VARCHAR);
-                    params.put("having_" + field, casted);
-                } catch (Exception ex) {
-                    throw new IllegalArgumentException("❌ Invalid HAVING value for field: " + field, ex);
-                }
-                havingJoiner.add(field + " " + condition.getOperator().getSymbol() + " :" + "having_" + field);
+                BindSlot slot = BindSlot.having("having_" + field, i, field, Types.VARCHAR);
+                havingJoiner.add(ConditionRenderer.render(condition, slot, provider, slots));
                 if (condition.getFilterOperator() != null) {
                     havingJoiner.add(condition.getFilterOperator());
                 }
@@ -203,15 +280,23 @@ public class SelectQueryExecutionStrategy implements QueryExecutionStrategy {
             sql.append(" HAVING ").append(havingJoiner);
         }
 
-        if (template.getOrderBy() != null && !template.getOrderBy().isEmpty()) {
+        // Keyset pages always sort by the full key, including the primary-key tiebreaker
+        Map<String, SortDirection> orderBy = KeysetCursor.isKeyset(template) ? KeysetCursor.keys(template) : template.getOrderBy();
+        if (orderBy != null && !orderBy.isEmpty()) {
             StringJoiner orderJoiner = new StringJoiner(", ");
-            template.getOrderBy().forEach((column, direction) -> {
+            orderBy.forEach((column, direction) -> {
                 orderJoiner.add(column + " " + direction.name());
             });
             sql.append(" ORDER BY ").append(orderJoiner);
         }
 
-        if (template.getLimit() != null || template.getOffset() != null) {
+        if (KeysetCursor.isKeyset(template)) {
+            if (template.getLimit() == null || template.getLimit() <= 0) {
+                throw new IllegalArgumentException("❌ Keyset pagination requires a limit");
+            }
+            // The seek predicate replaces OFFSET, so deep pages cost the same as the first
+            sql.append(SqlDialectHelper.buildLimitOffsetClause(provider, template.getLimit(), null));
+        } else if (template.getLimit() != null || template.getOffset() != null) {
             sql.append(SqlDialectHelper.buildLimitOffsetClause(provider, template.getLimit(), template.getOffset()));
         }
 
@@ -219,5 +304,24 @@ public class SelectQueryExecutionStrategy implements QueryExecutionStrategy {
         return sql.toString();
     }
 
+    /**
+     * Seek predicate continuing after the key values of the request's continuation token.
+     */
+    private String buildSeekPredicate(QueryTemplate template, Map<String, Integer> columnTypes,
+                                      List<BindSlot> slots, DatabaseProvider provider) {
+        List<String> columns = new ArrayList<>();
+        List<SortDirection> directions = new ArrayList<>();
+        List<String> params = new ArrayList<>();
+        int position = 0;
+        for (Map.Entry<String, SortDirection> key : KeysetCursor.keys(template).entrySet()) {
+            String column = KeysetCursor.columnName(key.getKey());
+            String param = "seek_" + position;
+            slots.add(BindSlot.seek(param, position, column, columnTypes.getOrDefault(column, Types.VARCHAR)));
+            columns.add(key.getKey());
+            directions.add(key.getValue());
+            params.add(param);
+            position++;
+        }
+        return SqlDialectHelper.buildSeekPredicate(provider, columns, directions, params);
+    }
 }
-
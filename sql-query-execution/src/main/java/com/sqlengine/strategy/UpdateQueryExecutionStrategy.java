@@ -2,22 +2,30 @@
 package com.sqlengine.strategy;
 
 import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.enums.JoinType;
 import com.sqlengine.manager.TableMetadataManager;
 import com.sqlengine.model.DatabaseConfig;
 import com.sqlengine.model.QueryTemplate;
 import com.sqlengine.model.query.JoinConfig;
 import com.sqlengine.model.query.QueryCondition;
-import com.sqlengine.utils.QueryParamCaster;
+import com.sqlengine.plan.BindSlot;
+import com.sqlengine.plan.ConditionRenderer;
+import com.sqlengine.plan.QueryPlan;
+import com.sqlengine.plan.QueryPlanCache;
+import com.sqlengine.service.ChunkedMutationService;
+import com.sqlengine.strategy.utils.ReturningEmulation;
+import com.sqlengine.strategy.utils.SqlDialectHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.Parameter;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Component("update")
@@ -25,8 +33,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class UpdateQueryExecutionStrategy implements QueryExecutionStrategy {
 
     private final TableMetadataManager tableMetadataManager;
+    private final QueryPlanCache planCache;
+    private final ChunkedMutationService chunkedMutationService;
     private static final int BATCH_THRESHOLD = 500;
-    private static final int PARALLELISM = 4;
+    /** Alias of the target table in joined UPDATEs, which join conditions refer to */
+    private static final String TARGET_ALIAS = "t0";
 
     @Override
     public String getType() {
@@ -35,79 +46,240 @@ public class UpdateQueryExecutionStrategy implements QueryExecutionStrategy {
 
     @Override
     public Mono<Object> execute(QueryTemplate template, DatabaseConfig config, DatabaseClient dbClient) {
-        return tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
-                .flatMap(columnTypes -> {
-                    DatabaseProvider provider = config.getProvider();
-                    Map<String, Object> params = new HashMap<>();
-                    StringBuilder sql = new StringBuilder();
-
-                    if (template.getJoins() != null && !template.getJoins().isEmpty()) {
-                        return emulateJoinUpdateForAllDBs(template, config, dbClient, columnTypes);
-                    } else {
-                        sql.append(buildSimpleUpdateSQL(template, columnTypes, params));
-                        log.debug("🔄 Generated UPDATE SQL: {}", sql);
-                        DatabaseClient.GenericExecuteSpec spec = dbClient.sql(sql.toString());
-                        for (Map.Entry<String, Object> entry : params.entrySet()) {
-                            spec = spec.bind(entry.getKey(), Parameter.fromOrEmpty(entry.getValue(), Object.class));
-                        }
-
-                        return spec.fetch().rowsUpdated()
-                                .flatMap(rowsUpdated -> {
-                                    if (template.getReturningFields() == null || template.getReturningFields().isEmpty()) {
-                                        return Mono.just(Map.of("rowsUpdated", rowsUpdated));
-                                    }
-                                    return emulateReturning(
-                                            template.getTableName(),
-                                            template.getReturningFields(),
-                                            template.getPrimaryKeyField() != null ? template.getPrimaryKeyField() : "id",
-                                            getWhereParamIds(params),
-                                            dbClient
-                                    ).map(returned -> Map.of(
-                                            "rowsUpdated", rowsUpdated,
-                                            "returning", returned
-                                    ));
-                                });
+        if (template.isChunked()) {
+            return chunkedMutationService.execute(getType(), template, config, dbClient);
+        }
+
+        if (template.getJoins() != null && !template.getJoins().isEmpty()) {
+            if (!supportsNativeJoinUpdate(template, config.getProvider())) {
+                return tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
+                        .flatMap(columnTypes -> emulateJoinUpdateForAllDBs(template, config, dbClient, columnTypes));
+            }
+            return planCache.getOrCompile("UPDATE_JOIN", template, config, () ->
+                            tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
+                                    .map(columnTypes -> compileNativeJoinUpdate(template, config, columnTypes)))
+                    .flatMap(plan -> plan.bind(dbClient.sql(plan.sql()), plan.bindValues(template))
+                            .fetch().rowsUpdated())
+                    .map(rowsUpdated -> Map.of("rowsUpdated", rowsUpdated));
+        }
+
+        boolean returning = template.getReturningFields() != null && !template.getReturningFields().isEmpty();
+        if (returning && !ReturningEmulation.supportsReturning(config.getProvider())) {
+            return tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
+                    .flatMap(columnTypes -> emulateUpdateReturning(template, config, dbClient, columnTypes));
+        }
+
+        return planCache.getOrCompile(returning ? "UPDATE_RETURNING" : getType(), template, config, () ->
+                        tableMetadataManager.getColumnTypesReactive(config, dbClient, template.getTableName())
+                                .map(columnTypes -> compileSimpleUpdate(template, config, columnTypes)))
+                .flatMap(plan -> {
+                    log.debug("🔄 Generated UPDATE SQL: {}", plan.sql());
+                    DatabaseClient.GenericExecuteSpec spec = plan.bind(dbClient.sql(plan.sql()), plan.bindValues(template));
+
+                    if (returning) {
+                        return spec.fetch().all().collectList()
+                                .map(returned -> Map.of("rowsUpdated", returned.size(), "returning", returned));
                     }
+                    return spec.fetch().rowsUpdated()
+                            .map(rowsUpdated -> Map.of("rowsUpdated", rowsUpdated));
                 });
     }
 
-    private String buildSimpleUpdateSQL(QueryTemplate template, Map<String, Integer> columnTypes, Map<String, Object> params) {
+    private QueryPlan compileSimpleUpdate(QueryTemplate template, DatabaseConfig config, Map<String, Integer> columnTypes) {
+        List<BindSlot> slots = new ArrayList<>();
         StringBuilder sql = new StringBuilder("UPDATE ");
         sql.append(template.getTableName()).append(" SET ");
-        sql.append(buildSetClause(template, columnTypes, params));
+        sql.append(buildSetClause(template, columnTypes, slots));
 
         if (template.getConditions() != null && !template.getConditions().isEmpty()) {
-            sql.append(" WHERE ").append(buildWhereClause(template, columnTypes, params));
+            sql.append(" WHERE ").append(buildWhereClause(template, config.getProvider(), columnTypes, slots));
+        }
+
+        if (template.getReturningFields() != null && !template.getReturningFields().isEmpty()) {
+            sql.append(" RETURNING ").append(String.join(", ", template.getReturningFields()));
+        }
+
+        return new QueryPlan(sql.toString(), slots, columnTypes, Set.of(template.getTableName().toLowerCase()));
+    }
+
+    /**
+     * UPDATE ... RETURNING for dialects without it, in one transaction: lock and read the keys of the
+     * matching rows, update exactly those rows by key, then read the returning fields back by key.
+     */
+    private Mono<Object> emulateUpdateReturning(QueryTemplate template,
+                                                DatabaseConfig config,
+                                                DatabaseClient dbClient,
+                                                Map<String, Integer> columnTypes) {
+        String table = template.getTableName();
+        String primaryKey = template.getPrimaryKeyField() != null ? template.getPrimaryKeyField() : "id";
+        DatabaseProvider provider = config.getProvider();
+
+        List<BindSlot> whereSlots = new ArrayList<>();
+        String where = template.getConditions() != null && !template.getConditions().isEmpty()
+                ? buildWhereClause(template, provider, columnTypes, whereSlots)
+                : "";
+        String selectSql = "SELECT " + primaryKey + " FROM " + table + ReturningEmulation.lockHint(provider)
+                + (where.isBlank() ? "" : " WHERE " + where) + ReturningEmulation.forUpdateClause(provider);
+        QueryPlan selectPlan = new QueryPlan(selectSql, whereSlots, columnTypes, Set.of(table.toLowerCase()));
+
+        List<BindSlot> setSlots = new ArrayList<>();
+        String updateSql = "UPDATE " + table + " SET " + buildSetClause(template, columnTypes, setSlots)
+                + " WHERE " + primaryKey + " IN (:ids)";
+        QueryPlan updatePlan = new QueryPlan(updateSql, setSlots, columnTypes, Set.of(table.toLowerCase()));
+        Map<String, Object> setValues = updatePlan.bindValues(template);
+        log.debug("📤 Emulating UPDATE RETURNING via keys: {} / {}", selectSql, updateSql);
+
+        TransactionalOperator transactional = TransactionalOperator.create(new R2dbcTransactionManager(dbClient.getConnectionFactory()));
+
+        return selectPlan.bind(dbClient.sql(selectSql), selectPlan.bindValues(template))
+                .fetch().all()
+                .mapNotNull(row -> ReturningEmulation.keyOf(row, primaryKey))
+                .collectList()
+                .flatMap(ids -> {
+                    if (ids.isEmpty()) {
+                        return Mono.just(Map.<String, Object>of("rowsUpdated", 0L, "returning", List.of()));
+                    }
+                    return Flux.fromIterable(ReturningEmulation.partition(ids))
+                            .concatMap(batch -> {
+                                Map<String, Object> params = new HashMap<>(setValues);
+                                params.put("ids", batch);
+                                return updatePlan.bind(dbClient.sql(updateSql), params).fetch().rowsUpdated();
+                            })
+                            .reduce(0L, Long::sum)
+                            .flatMap(updated -> ReturningEmulation.selectByKeys(dbClient, table, template.getReturningFields(), primaryKey, ids)
+                                    .map(returned -> Map.<String, Object>of("rowsUpdated", updated, "returning", returned)));
+                })
+                .as(transactional::transactional)
+                .cast(Object.class);
+    }
+
+    /**
+     * One joined UPDATE in the dialect's own syntax, the target aliased {@value #TARGET_ALIAS} as in the
+     * keyset fallback so {@code onCondition}s work on every dialect:
+     * <ul>
+     *     <li>MySQL / MariaDB: {@code UPDATE t t0 JOIN j ON ... SET t0.c = :v WHERE ...}</li>
+     *     <li>SQL Server: {@code UPDATE t0 SET t0.c = :v FROM t t0 JOIN j ON ... WHERE ...}</li>
+     *     <li>PostgreSQL / SQLite: {@code UPDATE t AS t0 SET c = :v FROM j WHERE <join conditions> AND ...}</li>
+     *     <li>Oracle: {@code MERGE INTO t USING (SELECT DISTINCT t0.ROWID ... FROM t t0 JOIN ...) ON (ROWID) WHEN MATCHED THEN UPDATE}</li>
+     * </ul>
+     * Condition columns are qualified with the alias, so a joined table's column of the same name is not ambiguous.
+     */
+    private QueryPlan compileNativeJoinUpdate(QueryTemplate template, DatabaseConfig config, Map<String, Integer> columnTypes) {
+        List<BindSlot> slots = new ArrayList<>();
+        String table = template.getTableName();
+        DatabaseProvider provider = config.getProvider();
+        boolean hasConditions = template.getConditions() != null && !template.getConditions().isEmpty();
+        StringBuilder sql = new StringBuilder();
+
+        switch (provider) {
+            case MYSQL, MARIADB -> {
+                sql.append("UPDATE ").append(table).append(" ").append(TARGET_ALIAS).append(joinClauses(template))
+                        .append(" SET ").append(buildSetClause(template, columnTypes, slots, TARGET_ALIAS + "."));
+                if (hasConditions) {
+                    sql.append(" WHERE ").append(buildWhereClause(template, provider, columnTypes, slots, TARGET_ALIAS + "."));
+                }
+            }
+            case MSSQL -> {
+                sql.append("UPDATE ").append(TARGET_ALIAS)
+                        .append(" SET ").append(buildSetClause(template, columnTypes, slots, TARGET_ALIAS + "."))
+                        .append(" FROM ").append(table).append(" ").append(TARGET_ALIAS).append(joinClauses(template));
+                if (hasConditions) {
+                    sql.append(" WHERE ").append(buildWhereClause(template, provider, columnTypes, slots, TARGET_ALIAS + "."));
+                }
+            }
+            case POSTGRESQL, SQLITE -> {
+                // Only inner joins fit UPDATE ... FROM: their ON conditions become WHERE terms
+                StringJoiner from = new StringJoiner(", ");
+                StringJoiner where = new StringJoiner(" AND ");
+                for (JoinConfig join : template.getJoins()) {
+                    from.add(join.getTable() + (StringUtils.hasText(join.getAlias()) ? " " + join.getAlias() : ""));
+                    if (join.getJoinType() != JoinType.CROSS) {
+                        where.add("(" + join.getOnCondition() + ")");
+                    }
+                }
+                if (hasConditions) {
+                    where.add("(" + buildWhereClause(template, provider, columnTypes, slots, TARGET_ALIAS + ".") + ")");
+                }
+                // SET targets cannot be qualified here; the alias serves the join and WHERE terms
+                sql.append("UPDATE ").append(table).append(" AS ").append(TARGET_ALIAS)
+                        .append(" SET ").append(buildSetClause(template, columnTypes, slots, ""))
+                        .append(" FROM ").append(from);
+                if (where.length() > 0) {
+                    sql.append(" WHERE ").append(where);
+                }
+            }
+            case ORACLE -> {
+                // DISTINCT keeps one source row per target row when a join fans out (ORA-30926 otherwise)
+                sql.append("MERGE INTO ").append(table).append(" tgt USING (SELECT DISTINCT ").append(TARGET_ALIAS)
+                        .append(".ROWID AS rid FROM ").append(table).append(" ").append(TARGET_ALIAS).append(joinClauses(template));
+                if (hasConditions) {
+                    sql.append(" WHERE ").append(buildWhereClause(template, provider, columnTypes, slots, TARGET_ALIAS + "."));
+                }
+                sql.append(") src ON (tgt.ROWID = src.rid) WHEN MATCHED THEN UPDATE SET ")
+                        .append(buildSetClause(template, columnTypes, slots, "tgt."));
+            }
+            default -> throw new UnsupportedOperationException("Unsupported provider: " + provider);
+        }
+
+        log.debug("🔗 Native UPDATE WITH JOIN SQL: {}", sql);
+        return new QueryPlan(sql.toString(), slots, columnTypes, Set.of(table.toLowerCase()));
+    }
+
+    private String joinClauses(QueryTemplate template) {
+        StringBuilder joins = new StringBuilder();
+        for (JoinConfig join : template.getJoins()) {
+            joins.append(" ").append(join.getJoinType().name()).append(" JOIN ").append(join.getTable());
+            if (StringUtils.hasText(join.getAlias())) {
+                joins.append(" ").append(join.getAlias());
+            }
+            if (join.getJoinType() != JoinType.CROSS) {
+                joins.append(" ON ").append(join.getOnCondition());
+            }
+        }
+        return joins.toString();
+    }
+
+    private boolean supportsNativeJoinUpdate(QueryTemplate template, DatabaseProvider provider) {
+        if (provider == DatabaseProvider.POSTGRESQL || provider == DatabaseProvider.SQLITE) {
+            return template.getJoins().stream()
+                    .allMatch(join -> join.getJoinType() == JoinType.INNER || join.getJoinType() == JoinType.CROSS);
         }
+        return true;
+    }
 
-        return sql.toString();
+    private String buildSetClause(QueryTemplate template, Map<String, Integer> columnTypes, List<BindSlot> slots) {
+        return buildSetClause(template, columnTypes, slots, "");
     }
 
-    private String buildSetClause(QueryTemplate template, Map<String, Integer> columnTypes, Map<String, Object> params) {
+    private String buildSetClause(QueryTemplate template, Map<String, Integer> columnTypes, List<BindSlot> slots, String qualifier) {
         StringJoiner setJoiner = new StringJoiner(", ");
-        for (Map.Entry<String, Object> entry : template.getUpdatedValues().entrySet()) {
-            String column = entry.getKey();
-            Object value = entry.getValue();
+        for (String column : template.getUpdatedValues().keySet()) {
             if (!columnTypes.containsKey(column.toLowerCase())) {
                 throw new IllegalArgumentException("Invalid column in SET clause: " + column);
             }
 
             String paramKey = "set_" + column;
-            setJoiner.add(column + " = :" + paramKey);
-            params.put(paramKey, QueryParamCaster.cast(value, columnTypes.get(column.toLowerCase())));
+            setJoiner.add(qualifier + column + " = :" + paramKey);
+            slots.add(BindSlot.set(paramKey, column, columnTypes.get(column.toLowerCase())));
         }
         return setJoiner.toString();
     }
 
-    private String buildWhereClause(QueryTemplate template, Map<String, Integer> columnTypes, Map<String, Object> params) {
+    private String buildWhereClause(QueryTemplate template, DatabaseProvider provider, Map<String, Integer> columnTypes, List<BindSlot> slots) {
+        return buildWhereClause(template, provider, columnTypes, slots, "");
+    }
+
+    private String buildWhereClause(QueryTemplate template, DatabaseProvider provider, Map<String, Integer> columnTypes,
+                                    List<BindSlot> slots, String qualifier) {
         StringJoiner whereJoiner = new StringJoiner(" ");
-        for (QueryCondition condition : template.getConditions()) {
+        List<QueryCondition> conditions = template.getConditions();
+        for (int i = 0; i < conditions.size(); i++) {
+            QueryCondition condition = conditions.get(i);
             String field = condition.getFieldName().toLowerCase();
-            Object rawValue = condition.getValue();
             if (!columnTypes.containsKey(field)) continue;
             String paramKey = "where_" + field;
-            params.put(paramKey, QueryParamCaster.cast(rawValue, columnTypes.get(field)));
-            whereJoiner.add(field + " " + condition.getOperator().getSymbol() + " :" + paramKey);
+            BindSlot slot = BindSlot.condition(paramKey, i, qualifier + field, columnTypes.get(field));
+            whereJoiner.add(ConditionRenderer.render(condition, slot, provider, slots));
             if (condition.getFilterOperator() != null) {
                 whereJoiner.add(condition.getFilterOperator());
             }
@@ -115,115 +287,93 @@ public class UpdateQueryExecutionStrategy implements QueryExecutionStrategy {
         return whereJoiner.toString();
     }
 
+    /**
+     * Fallback for joins the dialect cannot express in one UPDATE: walks the matching primary keys in
+     * pages of {@value #BATCH_THRESHOLD} (keyset on the key, so no id list is held beyond one page) and
+     * updates each page by id, all inside one transaction so the update is still all-or-nothing.
+     */
     private Mono<Object> emulateJoinUpdateForAllDBs(QueryTemplate template,
                                                     DatabaseConfig config,
                                                     DatabaseClient dbClient,
                                                     Map<String, Integer> columnTypes) {
         String primaryKey = template.getPrimaryKeyField() != null ? template.getPrimaryKeyField() : "id";
-        String aliasMain = "t0";
+        String aliasMain = TARGET_ALIAS;
 
         StringJoiner joinSql = new StringJoiner(" ");
-        joinSql.add("SELECT").add(aliasMain + "." + primaryKey);
+        joinSql.add("SELECT DISTINCT").add(aliasMain + "." + primaryKey);
         joinSql.add("FROM").add(template.getTableName()).add(aliasMain);
 
         for (int i = 0; i < template.getJoins().size(); i++) {
             JoinConfig join = template.getJoins().get(i);
             String alias = join.getAlias() != null ? join.getAlias() : "j" + i;
-            joinSql.add(join.getJoinType().name()).add("JOIN").add(join.getTable()).add(alias)
-                    .add("ON").add(join.getOnCondition());
-        }
-
-        Map<String, Object> params = new HashMap<>();
-        if (template.getConditions() != null && !template.getConditions().isEmpty()) {
-            joinSql.add("WHERE").add(buildWhereClause(template, columnTypes, params));
+            joinSql.add(join.getJoinType().name()).add("JOIN").add(join.getTable()).add(alias);
+            if (join.getJoinType() != JoinType.CROSS) {
+                joinSql.add("ON").add(join.getOnCondition());
+            }
         }
 
-        String selectSql = joinSql.toString();
-        log.debug("🕵️ Emulating JOIN via SELECT: {}", selectSql);
+        List<BindSlot> slots = new ArrayList<>();
+        String conditions = template.getConditions() != null && !template.getConditions().isEmpty()
+                ? buildWhereClause(template, config.getProvider(), columnTypes, slots, aliasMain + ".")
+                : "";
+        String where = conditions.isBlank() ? null : "(" + conditions + ")";
+        String order = " ORDER BY " + aliasMain + "." + primaryKey
+                + SqlDialectHelper.buildLimitOffsetClause(config.getProvider(), BATCH_THRESHOLD, null);
+        String firstPageSql = joinSql + (where != null ? " WHERE " + where : "") + order;
+        String nextPageSql = joinSql + " WHERE " + (where != null ? where + " AND " : "")
+                + aliasMain + "." + primaryKey + " > :after_id" + order;
+        log.debug("🕵️ Emulating JOIN via keyset SELECT: {}", nextPageSql);
+
+        QueryPlan selectPlan = new QueryPlan(firstPageSql, slots, columnTypes, Set.of(template.getTableName().toLowerCase()));
+        Map<String, Object> selectParams = selectPlan.bindValues(template);
+
+        List<BindSlot> setSlots = new ArrayList<>();
+        String updateSql = "UPDATE " + template.getTableName() +
+                " SET " + buildSetClause(template, columnTypes, setSlots) +
+                " WHERE " + primaryKey + " IN (:ids)";
+        QueryPlan updatePlan = new QueryPlan(updateSql, setSlots, columnTypes, Set.of(template.getTableName().toLowerCase()));
+        Map<String, Object> setValues = updatePlan.bindValues(template);
+
+        TransactionalOperator transactional = TransactionalOperator.create(new R2dbcTransactionManager(dbClient.getConnectionFactory()));
+
+        return updatePage(null, firstPageSql, nextPageSql, selectPlan, selectParams, updatePlan, setValues, primaryKey, dbClient)
+                .expand(page -> page.ids().size() < BATCH_THRESHOLD
+                        ? Mono.empty()
+                        : updatePage(page.ids().get(page.ids().size() - 1), firstPageSql, nextPageSql,
+                        selectPlan, selectParams, updatePlan, setValues, primaryKey, dbClient))
+                .map(IdPage::updated)
+                .reduce(0L, Long::sum)
+                .as(transactional::transactional)
+                .map(rowsUpdated -> Map.of("rowsUpdated", rowsUpdated));
+    }
 
-        DatabaseClient.GenericExecuteSpec spec = dbClient.sql(selectSql);
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            spec = spec.bind(entry.getKey(), Parameter.fromOrEmpty(entry.getValue(), Object.class));
+    /**
+     * Selects the next page of matching keys after {@code afterId} and updates those rows.
+     */
+    private Mono<IdPage> updatePage(Object afterId, String firstPageSql, String nextPageSql,
+                                    QueryPlan selectPlan, Map<String, Object> selectParams,
+                                    QueryPlan updatePlan, Map<String, Object> setValues,
+                                    String primaryKey, DatabaseClient dbClient) {
+        DatabaseClient.GenericExecuteSpec select = selectPlan.bind(dbClient.sql(afterId == null ? firstPageSql : nextPageSql), selectParams);
+        if (afterId != null) {
+            select = select.bind("after_id", afterId);
         }
 
-        return spec.fetch().all()
+        return select.fetch().all()
                 .map(row -> row.get(primaryKey))
                 .collectList()
                 .flatMap(ids -> {
-                    if (ids.isEmpty()) return Mono.just(Map.of("rowsUpdated", 0));
-                    return batchUpdateByIds(template.getTableName(), template, dbClient, columnTypes, ids, primaryKey)
-                            .reduce(new AtomicInteger(0), (acc, count) -> {
-                                acc.addAndGet(count);
-                                return acc;
-                            })
-                            .map(acc -> Map.of("rowsUpdated", acc.get()));
+                    if (ids.isEmpty()) return Mono.just(new IdPage(ids, 0));
+
+                    Map<String, Object> params = new HashMap<>(setValues);
+                    params.put("ids", ids);
+                    return updatePlan.bind(dbClient.sql(updatePlan.sql()), params)
+                            .fetch().rowsUpdated()
+                            .doOnNext(updated -> log.info("✅ Batch Updated Rows: {}", updated))
+                            .map(updated -> new IdPage(ids, updated));
                 });
     }
 
-    private Flux<Integer> batchUpdateByIds(String tableName,
-                                           QueryTemplate template,
-                                           DatabaseClient dbClient,
-                                           Map<String, Integer> columnTypes,
-                                           List<Object> allIds,
-                                           String primaryKeyField) {
-        List<List<Object>> batches = partitionList(allIds, BATCH_THRESHOLD);
-
-        return Flux.fromIterable(batches)
-                .filter(batch -> !batch.isEmpty())
-                .flatMap(batch -> {
-                    Map<String, Object> params = new HashMap<>();
-                    String sql = "UPDATE " + tableName +
-                            " SET " + buildSetClause(template, columnTypes, params) +
-                            " WHERE " + primaryKeyField + " IN (:ids)";
-                    params.put("ids", batch);
-
-                    log.info("⚙️ Running UPDATE ({} rows): {}", batch.size(), sql);
-
-                    DatabaseClient.GenericExecuteSpec spec = dbClient.sql(sql);
-                    for (Map.Entry<String, Object> entry : params.entrySet()) {
-                        spec = spec.bind(entry.getKey(), Parameter.fromOrEmpty(entry.getValue(), Object.class));
-                    }
-
-                    return spec.fetch().rowsUpdated().map(Long::intValue)
-                            .doOnNext(updated -> log.info("✅ Batch Updated Rows: {}", updated));
-                }, PARALLELISM);
-    }
-
-    private List<Object> getWhereParamIds(Map<String, Object> params) {
-        Object value = params.get("where_id");
-        if (value instanceof Collection) return new ArrayList<>((Collection<?>) value);
-        if (value != null) return List.of(value);
-        return List.of();
-    }
-
-    private Mono<List<Map<String, Object>>> emulateReturning(
-            String tableName,
-            List<String> returningFields,
-            String primaryKey,
-            List<Object> ids,
-            DatabaseClient dbClient
-    ) {
-        if (ids == null || ids.isEmpty() || returningFields == null || returningFields.isEmpty()) {
-            return Mono.just(List.of());
-        }
-
-        String sql = "SELECT " + String.join(", ", returningFields) +
-                " FROM " + tableName +
-                " WHERE " + primaryKey + " IN (:ids)";
-        log.debug("📤 Emulating RETURNING via SELECT: {}", sql);
-
-        return dbClient.sql(sql)
-                .bind("ids", ids)
-                .fetch()
-                .all()
-                .collectList();
-    }
-
-    private <T> List<List<T>> partitionList(List<T> list, int size) {
-        List<List<T>> partitions = new ArrayList<>();
-        for (int i = 0; i < list.size(); i += size) {
-            partitions.add(list.subList(i, Math.min(i + size, list.size())));
-        }
-        return partitions;
+    private record IdPage(List<Object> ids, long updated) {
     }
 }
@@ -0,0 +1,277 @@
+package com.sqlengine.strategy.utils;
+
+import com.google.protobuf.ByteString;
+import com.sqlengine.grpc.BoolVector;
+import com.sqlengine.grpc.ColumnHeader;
+import com.sqlengine.grpc.ColumnVector;
+import com.sqlengine.grpc.DoubleVector;
+import com.sqlengine.grpc.Int64Vector;
+import com.sqlengine.grpc.ResultBlock;
+import com.sqlengine.grpc.StringVector;
+import io.r2dbc.spi.ColumnMetadata;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.JDBCType;
+import java.sql.Types;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Encodes result rows into column-oriented {@link ResultBlock}s: one header per column and one typed
+ * vector per column, instead of a map per row.
+ */
+public class ResultBlockEncoder {
+
+    private enum VectorKind { INT64, DOUBLE, BOOL, STRING }
+
+    /**
+     * Reads rows positionally from R2DBC {@code Row}s and emits one block per {@code batchSize} rows.
+     * SQL types come from the table metadata where the column is known, otherwise from the driver's Java type.
+     */
+    public static Flux<ResultBlock> encode(DatabaseClient.GenericExecuteSpec spec, Map<String, Integer> columnTypes, int batchSize) {
+        AtomicReference<List<ColumnHeader>> header = new AtomicReference<>();
+        return spec.map((row, metadata) -> {
+                    List<? extends ColumnMetadata> columns = metadata.getColumnMetadatas();
+                    if (header.get() == null) {
+                        header.compareAndSet(null, buildHeader(columns, columnTypes));
+                    }
+                    Object[] values = new Object[columns.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = row.get(i);
+                    }
+                    return values;
+                })
+                .all()
+                .buffer(batchSize)
+                .map(batch -> toBlock(header.get(), batch));
+    }
+
+    /**
+     * Encodes rows that were already materialised as maps (non-SELECT strategies, emulated results).
+     * Column names and types are inferred once, from the first block, and every later block reuses that
+     * header so a client decoding the stream sees one schema; a later value that does not fit the inferred
+     * type goes out in a string vector, as with driver types in {@link #encode}.
+     */
+    public static Flux<ResultBlock> encodeMaps(Flux<Map<String, Object>> rows, int batchSize) {
+        AtomicReference<List<String>> names = new AtomicReference<>();
+        AtomicReference<List<ColumnHeader>> header = new AtomicReference<>();
+        return rows.map(row -> {
+                    if (names.get() == null) {
+                        names.compareAndSet(null, new ArrayList<>(row.keySet()));
+                    }
+                    List<String> columns = names.get();
+                    Object[] values = new Object[columns.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = row.get(columns.get(i));
+                    }
+                    return values;
+                })
+                .buffer(batchSize)
+                .map(batch -> {
+                    if (header.get() == null) {
+                        header.compareAndSet(null, inferHeader(names.get(), batch));
+                    }
+                    return toBlock(header.get(), batch);
+                });
+    }
+
+    private static List<ColumnHeader> buildHeader(List<? extends ColumnMetadata> columns, Map<String, Integer> columnTypes) {
+        List<ColumnHeader> header = new ArrayList<>(columns.size());
+        for (ColumnMetadata column : columns) {
+            Integer jdbcType = columnTypes.get(column.getName().toLowerCase());
+            if (jdbcType == null) {
+                jdbcType = jdbcTypeOf(column.getJavaType());
+            }
+            header.add(header(column.getName(), jdbcType));
+        }
+        return header;
+    }
+
+    private static List<ColumnHeader> inferHeader(List<String> names, List<Object[]> batch) {
+        List<ColumnHeader> header = new ArrayList<>(names.size());
+        for (int c = 0; c < names.size(); c++) {
+            Class<?> javaType = null;
+            for (Object[] row : batch) {
+                if (row[c] != null) {
+                    javaType = row[c].getClass();
+                    break;
+                }
+            }
+            header.add(header(names.get(c), jdbcTypeOf(javaType)));
+        }
+        return header;
+    }
+
+    private static ColumnHeader header(String name, int jdbcType) {
+        String sqlType;
+        try {
+            sqlType = JDBCType.valueOf(jdbcType).getName();
+        } catch (IllegalArgumentException e) {
+            sqlType = JDBCType.OTHER.getName();
+        }
+        return ColumnHeader.newBuilder()
+                .setName(name)
+                .setSqlType(sqlType)
+                .setJdbcType(jdbcType)
+                .build();
+    }
+
+    private static int jdbcTypeOf(Class<?> javaType) {
+        if (javaType == null) return Types.OTHER;
+        if (javaType == Long.class) return Types.BIGINT;
+        if (javaType == Integer.class || javaType == Short.class || javaType == Byte.class) return Types.INTEGER;
+        if (javaType == Double.class || javaType == Float.class) return Types.DOUBLE;
+        if (javaType == Boolean.class) return Types.BOOLEAN;
+        if (BigDecimal.class.isAssignableFrom(javaType)) return Types.DECIMAL;
+        if (CharSequence.class.isAssignableFrom(javaType)) return Types.VARCHAR;
+        if (TemporalAccessor.class.isAssignableFrom(javaType)) return Types.TIMESTAMP;
+        return Types.OTHER;
+    }
+
+    private static ResultBlock toBlock(List<ColumnHeader> header, List<Object[]> batch) {
+        ResultBlock.Builder block = ResultBlock.newBuilder()
+                .addAllColumns(header)
+                .setRowCount(batch.size());
+        for (int c = 0; c < header.size(); c++) {
+            block.addVectors(toVector(header.get(c).getJdbcType(), batch, c));
+        }
+        return block.build();
+    }
+
+    private static ColumnVector toVector(int jdbcType, List<Object[]> batch, int column) {
+        int rows = batch.size();
+        byte[] nullBitmap = new byte[(rows + 7) / 8];
+        boolean hasNulls = false;
+        ColumnVector.Builder vector = ColumnVector.newBuilder();
+
+        switch (vectorKind(jdbcType, batch, column)) {
+            case INT64 -> {
+                Int64Vector.Builder values = Int64Vector.newBuilder();
+                for (int r = 0; r < rows; r++) {
+                    Object value = batch.get(r)[column];
+                    if (value == null) {
+                        markNull(nullBitmap, r);
+                        hasNulls = true;
+                        values.addValues(0L);
+                    } else {
+                        values.addValues(((Number) value).longValue());
+                    }
+                }
+                vector.setInt64Values(values);
+            }
+            case DOUBLE -> {
+                DoubleVector.Builder values = DoubleVector.newBuilder();
+                for (int r = 0; r < rows; r++) {
+                    Object value = batch.get(r)[column];
+                    if (value == null) {
+                        markNull(nullBitmap, r);
+                        hasNulls = true;
+                        values.addValues(0d);
+                    } else {
+                        values.addValues(((Number) value).doubleValue());
+                    }
+                }
+                vector.setDoubleValues(values);
+            }
+            case BOOL -> {
+                BoolVector.Builder values = BoolVector.newBuilder();
+                for (int r = 0; r < rows; r++) {
+                    Object value = batch.get(r)[column];
+                    if (value == null) {
+                        markNull(nullBitmap, r);
+                        hasNulls = true;
+                        values.addValues(false);
+                    } else {
+                        values.addValues((Boolean) value);
+                    }
+                }
+                vector.setBoolValues(values);
+            }
+            default -> {
+                StringVector.Builder values = StringVector.newBuilder();
+                Map<String, Integer> dictionary = new HashMap<>();
+                for (int r = 0; r < rows; r++) {
+                    Object value = batch.get(r)[column];
+                    if (value == null) {
+                        markNull(nullBitmap, r);
+                        hasNulls = true;
+                        values.addIndices(0);
+                        continue;
+                    }
+                    String text = asString(value);
+                    Integer index = dictionary.get(text);
+                    if (index == null) {
+                        index = dictionary.size();
+                        dictionary.put(text, index);
+                        values.addDictionary(text);
+                    }
+                    values.addIndices(index);
+                }
+                vector.setStringValues(values);
+            }
+        }
+
+        if (hasNulls) {
+            vector.setNullBitmap(ByteString.copyFrom(nullBitmap));
+        }
+        return vector.build();
+    }
+
+    /**
+     * Picks the vector from the declared SQL type, falling back to strings when a driver hands back
+     * a Java type that does not fit (e.g. BIT(8) as bytes, unsigned BIGINT as BigInteger).
+     */
+    private static VectorKind vectorKind(int jdbcType, List<Object[]> batch, int column) {
+        VectorKind kind = switch (jdbcType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> VectorKind.INT64;
+            case Types.FLOAT, Types.REAL, Types.DOUBLE -> VectorKind.DOUBLE;
+            case Types.BOOLEAN, Types.BIT -> VectorKind.BOOL;
+            default -> VectorKind.STRING;
+        };
+        if (kind == VectorKind.STRING) {
+            return kind;
+        }
+        for (Object[] row : batch) {
+            Object value = row[column];
+            if (value == null) continue;
+            boolean fits = switch (kind) {
+                case INT64 -> value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+                case DOUBLE -> value instanceof Double || value instanceof Float;
+                case BOOL -> value instanceof Boolean;
+                default -> true;
+            };
+            if (!fits) {
+                return VectorKind.STRING;
+            }
+        }
+        return kind;
+    }
+
+    private static void markNull(byte[] nullBitmap, int row) {
+        nullBitmap[row >>> 3] |= (byte) (1 << (row & 7));
+    }
+
+    private static String asString(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof byte[] bytes) {
+            return Base64.getEncoder().encodeToString(bytes);
+        }
+        if (value instanceof ByteBuffer buffer) {
+            ByteBuffer copy = buffer.duplicate();
+            byte[] bytes = new byte[copy.remaining()];
+            copy.get(bytes);
+            return Base64.getEncoder().encodeToString(bytes);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.sqlengine.strategy.utils;
+
+import com.sqlengine.enums.DatabaseProvider;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RETURNING for dialects without it: the affected rows are identified by primary key (generated keys
+ * for inserts, a locked key SELECT for updates) and read back with a point lookup on those keys.
+ * Callers run the write and the lookup in one transaction so the lookup sees exactly the written rows.
+ */
+public class ReturningEmulation {
+
+    /** Keys per lookup statement, well under every dialect's IN-list and bind limits */
+    public static final int LOOKUP_BATCH_SIZE = 500;
+
+    /**
+     * Whether {@code ... RETURNING cols} can be appended to INSERT/UPDATE. Oracle's RETURNING ... INTO
+     * needs OUT parameters and SQL Server uses OUTPUT, so both go through the emulation.
+     */
+    public static boolean supportsReturning(DatabaseProvider provider) {
+        return provider == DatabaseProvider.POSTGRESQL;
+    }
+
+    /**
+     * Row-locking suffix for the key SELECT that precedes an emulated UPDATE ... RETURNING.
+     */
+    public static String forUpdateClause(DatabaseProvider provider) {
+        return switch (provider) {
+            case MYSQL, MARIADB, POSTGRESQL, ORACLE -> " FOR UPDATE";
+            default -> "";
+        };
+    }
+
+    /**
+     * Table hint for the same purpose on SQL Server, which has no FOR UPDATE.
+     */
+    public static String lockHint(DatabaseProvider provider) {
+        return provider == DatabaseProvider.MSSQL ? " WITH (UPDLOCK, ROWLOCK)" : "";
+    }
+
+    /**
+     * Key value of a generated-keys row. Drivers name the column after the requested key or use their
+     * own name (e.g. {@code GENERATED_KEY}), so a single-column row is read positionally.
+     */
+    public static Object keyOf(Map<String, Object> row, String primaryKey) {
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(primaryKey)) {
+                return entry.getValue();
+            }
+        }
+        return row.size() == 1 ? row.values().iterator().next() : null;
+    }
+
+    /**
+     * {@code SELECT fields FROM table WHERE pk IN (:ids)}, in batches of {@link #LOOKUP_BATCH_SIZE} keys.
+     */
+    public static Mono<List<Map<String, Object>>> selectByKeys(DatabaseClient dbClient, String table, List<String> fields,
+                                                               String primaryKey, List<Object> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        String sql = "SELECT " + String.join(", ", fields) + " FROM " + table + " WHERE " + primaryKey + " IN (:ids)";
+        return Flux.fromIterable(partition(ids))
+                .concatMap(batch -> dbClient.sql(sql).bind("ids", batch).fetch().all())
+                .collectList();
+    }
+
+    public static List<List<Object>> partition(List<Object> ids) {
+        List<List<Object>> batches = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += LOOKUP_BATCH_SIZE) {
+            batches.add(ids.subList(i, Math.min(i + LOOKUP_BATCH_SIZE, ids.size())));
+        }
+        return batches;
+    }
+}
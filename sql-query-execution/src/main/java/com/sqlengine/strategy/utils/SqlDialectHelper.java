@@ -1,6 +1,10 @@
 package com.sqlengine.strategy.utils;
 
 import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.enums.SortDirection;
+
+import java.util.List;
+import java.util.StringJoiner;
 
 public class SqlDialectHelper {
 
@@ -49,4 +53,93 @@ public class SqlDialectHelper {
         }
         return "";
     }
+
+    /**
+     * Whether a list can be bound as a single array parameter ({@code = ANY(:values)}).
+     */
+    public static boolean supportsArrayBinding(DatabaseProvider provider) {
+        return provider == DatabaseProvider.POSTGRESQL;
+    }
+
+    /**
+     * Most expressions a single IN list may hold; longer lists are split into several IN groups.
+     */
+    public static int maxInListSize(DatabaseProvider provider) {
+        return provider == DatabaseProvider.ORACLE ? 1000 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Most bind parameters one statement may carry.
+     */
+    public static int maxBindParameters(DatabaseProvider provider) {
+        return switch (provider) {
+            case MSSQL -> 2100;
+            case SQLITE -> 999;
+            default -> 65535;
+        };
+    }
+
+    /**
+     * Subquery returning the elements of a JSON array bound to {@code :param}, one row per element, for
+     * IN lists too long to expand into placeholders. Needs SQL Server 2016+, SQLite's JSON1 functions,
+     * MySQL 8.0 / MariaDB 10.6 or Oracle 12c; PostgreSQL binds such lists as arrays instead.
+     */
+    public static String jsonListSource(DatabaseProvider provider, String param) {
+        return switch (provider) {
+            case MSSQL -> "SELECT value FROM OPENJSON(:" + param + ")";
+            case SQLITE -> "SELECT value FROM json_each(:" + param + ")";
+            case MYSQL, MARIADB -> "SELECT v FROM JSON_TABLE(:" + param + ", '$[*]' COLUMNS (v VARCHAR(4000) PATH '$')) jl";
+            case ORACLE -> "SELECT v FROM JSON_TABLE(:" + param + ", '$[*]' COLUMNS (v VARCHAR2(4000) PATH '$'))";
+            default -> throw new UnsupportedOperationException("Unsupported provider: " + provider);
+        };
+    }
+
+    /**
+     * Whether {@code INSERT ... VALUES (...), (...)} is supported; otherwise rows are sent as a
+     * parameter batch of a single-row statement.
+     */
+    public static boolean supportsMultiRowValues(DatabaseProvider provider) {
+        return provider != DatabaseProvider.ORACLE;
+    }
+
+    /**
+     * Most rows one VALUES list may hold.
+     */
+    public static int maxValuesRows(DatabaseProvider provider) {
+        return provider == DatabaseProvider.MSSQL ? 1000 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Seek predicate selecting the rows after the given key values in the given sort order.
+     * Uses a row-value comparison {@code (k1, k2) > (:a, :b)} where the dialect supports it and all
+     * keys sort the same way, otherwise the expanded {@code k1 > :a OR (k1 = :a AND k2 > :b)} form.
+     */
+    public static String buildSeekPredicate(DatabaseProvider provider, List<String> columns,
+                                            List<SortDirection> directions, List<String> params) {
+        boolean uniform = directions.stream().distinct().count() == 1;
+        if (uniform && supportsRowValueComparison(provider)) {
+            String operator = directions.get(0) == SortDirection.DESC ? " < " : " > ";
+            return "(" + String.join(", ", columns) + ")" + operator
+                    + "(:" + String.join(", :", params) + ")";
+        }
+
+        StringJoiner alternatives = new StringJoiner(" OR ", "(", ")");
+        for (int i = 0; i < columns.size(); i++) {
+            StringJoiner terms = new StringJoiner(" AND ", "(", ")");
+            for (int j = 0; j < i; j++) {
+                terms.add(columns.get(j) + " = :" + params.get(j));
+            }
+            String operator = directions.get(i) == SortDirection.DESC ? " < :" : " > :";
+            terms.add(columns.get(i) + operator + params.get(i));
+            alternatives.add(terms.toString());
+        }
+        return alternatives.toString();
+    }
+
+    private static boolean supportsRowValueComparison(DatabaseProvider provider) {
+        return provider == DatabaseProvider.POSTGRESQL
+                || provider == DatabaseProvider.MYSQL
+                || provider == DatabaseProvider.MARIADB
+                || provider == DatabaseProvider.SQLITE;
+    }
 }
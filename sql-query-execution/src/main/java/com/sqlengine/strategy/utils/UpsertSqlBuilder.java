@@ -0,0 +1,147 @@
+package com.sqlengine.strategy.utils;
+
+import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.model.QueryTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds single-statement upserts for INSERT templates that set {@code conflictColumns},
+ * {@code upsertValues}, {@code useReplace} or {@code useMerge}:
+ * <ul>
+ *     <li>PostgreSQL / SQLite: {@code INSERT ... ON CONFLICT (keys) DO UPDATE} ({@code INSERT OR REPLACE} on SQLite with useReplace)</li>
+ *     <li>MySQL / MariaDB: {@code INSERT ... ON DUPLICATE KEY UPDATE} (reading the incoming row through the
+ *     {@code AS new} row alias on MySQL 8.0.19+, {@code VALUES(col)} on MariaDB), or {@code REPLACE INTO} with useReplace</li>
+ *     <li>Oracle / SQL Server: {@code MERGE} on the conflict columns</li>
+ * </ul>
+ * On conflict, the {@code upsertValues} columns are set to their bound values; without upsertValues
+ * every inserted non-key column takes the incoming row's value.
+ */
+public class UpsertSqlBuilder {
+
+    public static boolean isUpsert(QueryTemplate template) {
+        return (template.getConflictColumns() != null && !template.getConflictColumns().isEmpty())
+                || (template.getUpsertValues() != null && !template.getUpsertValues().isEmpty())
+                || template.isUseReplace()
+                || template.isUseMerge();
+    }
+
+    /**
+     * @param rowParams    bind parameter names per row, one per column
+     * @param updateParams bind parameter name per {@code upsertValues} column, in SET order
+     */
+    public static String build(DatabaseProvider provider, QueryTemplate template, List<String> columns,
+                               List<List<String>> rowParams, Map<String, String> updateParams) {
+        String table = template.getTableName();
+        List<String> conflictColumns = template.getConflictColumns() != null ? template.getConflictColumns() : List.of();
+
+        switch (provider) {
+            case POSTGRESQL:
+            case SQLITE:
+                if (provider == DatabaseProvider.SQLITE && template.isUseReplace()) {
+                    return "INSERT OR REPLACE INTO " + table + " (" + String.join(", ", columns) + ") VALUES " + values(rowParams);
+                }
+                requireConflictColumns(provider, conflictColumns, columns, false);
+                String assignments = assignments(columns, conflictColumns, updateParams, "", column -> "EXCLUDED." + column);
+                return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES " + values(rowParams)
+                        + " ON CONFLICT (" + String.join(", ", conflictColumns) + ")"
+                        + (assignments.isEmpty() ? " DO NOTHING" : " DO UPDATE SET " + assignments);
+
+            case MYSQL:
+            case MARIADB:
+                // Conflicts are detected on every unique key of the table; conflictColumns cannot narrow that
+                if (template.isUseReplace()) {
+                    return "REPLACE INTO " + table + " (" + String.join(", ", columns) + ") VALUES " + values(rowParams);
+                }
+                // MySQL 8.0.19+ names the incoming row with an alias (VALUES() is deprecated there); MariaDB has no row alias
+                boolean rowAlias = provider == DatabaseProvider.MYSQL;
+                String updates = assignments(columns, conflictColumns, updateParams, "",
+                        column -> rowAlias ? "new." + column : "VALUES(" + column + ")");
+                return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES " + values(rowParams)
+                        + (rowAlias ? " AS new" : "")
+                        + " ON DUPLICATE KEY UPDATE " + (updates.isEmpty() ? columns.get(0) + " = " + columns.get(0) : updates);
+
+            case ORACLE:
+            case MSSQL:
+                requireConflictColumns(provider, conflictColumns, columns, true);
+                return merge(provider, table, columns, rowParams, conflictColumns, updateParams);
+
+            default:
+                throw new UnsupportedOperationException("Unsupported provider: " + provider);
+        }
+    }
+
+    private static String merge(DatabaseProvider provider, String table, List<String> columns, List<List<String>> rowParams,
+                                List<String> conflictColumns, Map<String, String> updateParams) {
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(table);
+        if (provider == DatabaseProvider.MSSQL) {
+            // HOLDLOCK keeps the match and the insert atomic against concurrent upserts of the same key
+            sql.append(" WITH (HOLDLOCK) AS tgt USING (VALUES ").append(values(rowParams)).append(") AS src (")
+                    .append(String.join(", ", columns)).append(")");
+        } else {
+            StringJoiner selects = new StringJoiner(" UNION ALL ");
+            for (List<String> row : rowParams) {
+                StringJoiner select = new StringJoiner(", ", "SELECT ", " FROM dual");
+                for (int c = 0; c < columns.size(); c++) {
+                    select.add(":" + row.get(c) + " AS " + columns.get(c));
+                }
+                selects.add(select.toString());
+            }
+            sql.append(" tgt USING (").append(selects).append(") src");
+        }
+
+        StringJoiner on = new StringJoiner(" AND ", " ON (", ")");
+        conflictColumns.forEach(key -> on.add("tgt." + key + " = src." + key));
+        sql.append(on);
+
+        String assignments = assignments(columns, conflictColumns, updateParams, "tgt.", column -> "src." + column);
+        if (!assignments.isEmpty()) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ").append(assignments);
+        }
+        sql.append(" WHEN NOT MATCHED THEN INSERT (").append(String.join(", ", columns)).append(")")
+                .append(columns.stream().map(column -> "src." + column).collect(Collectors.joining(", ", " VALUES (", ")")));
+        if (provider == DatabaseProvider.MSSQL) {
+            sql.append(";");
+        }
+        return sql.toString();
+    }
+
+    private static String assignments(List<String> columns, List<String> conflictColumns, Map<String, String> updateParams,
+                                      String targetPrefix, Function<String, String> incoming) {
+        StringJoiner set = new StringJoiner(", ");
+        if (updateParams != null && !updateParams.isEmpty()) {
+            updateParams.forEach((column, param) -> set.add(targetPrefix + column + " = :" + param));
+            return set.toString();
+        }
+        for (String column : columns) {
+            if (conflictColumns.stream().noneMatch(column::equalsIgnoreCase)) {
+                set.add(targetPrefix + column + " = " + incoming.apply(column));
+            }
+        }
+        return set.toString();
+    }
+
+    private static String values(List<List<String>> rowParams) {
+        return rowParams.stream()
+                .map(row -> row.stream().map(param -> ":" + param).collect(Collectors.joining(", ", "(", ")")))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static void requireConflictColumns(DatabaseProvider provider, List<String> conflictColumns,
+                                               List<String> columns, boolean mustBeInserted) {
+        if (conflictColumns.isEmpty()) {
+            throw new IllegalArgumentException("❌ conflictColumns are required for upserts on " + provider);
+        }
+        if (mustBeInserted) {
+            for (String key : conflictColumns) {
+                if (columns.stream().noneMatch(key::equalsIgnoreCase)) {
+                    throw new IllegalArgumentException("❌ Conflict column '" + key + "' must be one of the inserted columns");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.sqlengine.adapter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JdbcStatementTest {
+
+    @Test
+    void namedMarkersBecomePositional() {
+        Map<String, List<Integer>> markers = new HashMap<>();
+        String sql = JdbcStatement.parseNamedMarkers("SELECT * FROM t WHERE a = :a AND b_2 = :b_2", markers);
+
+        assertEquals("SELECT * FROM t WHERE a = ? AND b_2 = ?", sql);
+        assertEquals(Map.of("a", List.of(0), "b_2", List.of(1)), markers);
+        assertEquals(2, JdbcStatement.countMarkers(sql));
+    }
+
+    @Test
+    void repeatedNamesRecordEveryPosition() {
+        Map<String, List<Integer>> markers = new HashMap<>();
+        String sql = JdbcStatement.parseNamedMarkers("WHERE a = :v OR b = :v AND c = :w OR d = :v", markers);
+
+        assertEquals("WHERE a = ? OR b = ? AND c = ? OR d = ?", sql);
+        assertEquals(Map.of("v", List.of(0, 1, 3), "w", List.of(2)), markers);
+        assertEquals(4, JdbcStatement.countMarkers(sql));
+    }
+
+    @Test
+    void plainMarkersKeepTheirPositions() {
+        Map<String, List<Integer>> markers = new HashMap<>();
+        String sql = JdbcStatement.parseNamedMarkers("WHERE a = ? AND b = :b AND c = ?", markers);
+
+        assertEquals("WHERE a = ? AND b = ? AND c = ?", sql);
+        assertEquals(Map.of("b", List.of(1)), markers);
+        assertEquals(3, JdbcStatement.countMarkers(sql));
+    }
+
+    @Test
+    void literalsAreLeftAlone() {
+        Map<String, List<Integer>> markers = new HashMap<>();
+        String source = "SELECT ':x', 'it''s :y?', \"?col\", `:z` FROM t WHERE a = :a";
+        String sql = JdbcStatement.parseNamedMarkers(source, markers);
+
+        assertEquals("SELECT ':x', 'it''s :y?', \"?col\", `:z` FROM t WHERE a = ?", sql);
+        assertEquals(Map.of("a", List.of(0)), markers);
+        assertEquals(1, JdbcStatement.countMarkers(sql));
+    }
+
+    @Test
+    void commentsAreLeftAlone() {
+        Map<String, List<Integer>> markers = new HashMap<>();
+        String source = "SELECT a -- :skipped ?\nFROM t /* :also ? */ WHERE b = :b";
+        String sql = JdbcStatement.parseNamedMarkers(source, markers);
+
+        assertEquals("SELECT a -- :skipped ?\nFROM t /* :also ? */ WHERE b = ?", sql);
+        assertEquals(Map.of("b", List.of(0)), markers);
+        assertEquals(1, JdbcStatement.countMarkers(sql));
+    }
+
+    @Test
+    void castsAndAssignmentsAreNotMarkers() {
+        Map<String, List<Integer>> markers = new HashMap<>();
+        String sql = JdbcStatement.parseNamedMarkers("SELECT :v::text, x::int, @n := 1 FROM t WHERE y = :y", markers);
+
+        assertEquals("SELECT ?::text, x::int, @n := 1 FROM t WHERE y = ?", sql);
+        assertEquals(Map.of("v", List.of(0), "y", List.of(1)), markers);
+        assertEquals(2, JdbcStatement.countMarkers(sql));
+    }
+
+    @Test
+    void unterminatedLiteralRunsToTheEnd() {
+        Map<String, List<Integer>> markers = new HashMap<>();
+        String sql = JdbcStatement.parseNamedMarkers("SELECT :a, 'open :b ?", markers);
+
+        assertEquals("SELECT ?, 'open :b ?", sql);
+        assertEquals(Map.of("a", List.of(0)), markers);
+        assertEquals(1, JdbcStatement.countMarkers(sql));
+    }
+}
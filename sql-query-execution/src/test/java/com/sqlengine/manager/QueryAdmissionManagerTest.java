@@ -0,0 +1,189 @@
+package com.sqlengine.manager;
+
+import com.sqlengine.mapper.GrpcModelMapper;
+import com.sqlengine.model.DatabaseConfig;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryAdmissionManagerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void backloggedTenantsShareSlotsByWeight() {
+        QueryAdmissionManager admission = new QueryAdmissionManager(meterRegistry, 1, 16, 100, 600_000);
+        Sinks.Empty<Void> blocker = hold(admission, config("blocker", Map.of()));
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        DatabaseConfig heavy = config("heavy", Map.of("queryWeight", 2));
+        DatabaseConfig light = config("light", Map.of("queryWeight", 1));
+        for (int i = 0; i < 4; i++) {
+            admission.admit(heavy, Mono.fromRunnable(() -> order.add("heavy"))).subscribe();
+            admission.admit(light, Mono.fromRunnable(() -> order.add("light"))).subscribe();
+        }
+        assertTrue(order.isEmpty(), "nothing runs while the only slot is held");
+        assertEquals(4.0, gauge("query.admission.queued", "heavy").value());
+
+        blocker.tryEmitEmpty();
+
+        assertEquals(8, order.size());
+        // Twice the weight, twice the admissions while both are backlogged, whichever wins the first tie
+        assertEquals(2, count(order.subList(0, 3), "heavy"));
+        assertEquals(4, count(order.subList(0, 6), "heavy"));
+        assertEquals(0.0, gauge("query.admission.queued", "heavy").value());
+        assertEquals(0.0, gauge("query.admission.running", "light").value());
+    }
+
+    @Test
+    void fullQueueIsRejectedWithResourceExhausted() {
+        QueryAdmissionManager admission = new QueryAdmissionManager(meterRegistry, 1, 16, 100, 600_000);
+        DatabaseConfig tenant = config("tenant", Map.of("maxQueuedQueries", 2));
+        Sinks.Empty<Void> blocker = hold(admission, tenant);
+
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 3; i++) {
+            int query = i;
+            admission.admit(tenant, Mono.just(query)).subscribe(results::add, errors::add);
+        }
+
+        assertEquals(1, errors.size());
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(errors.get(0)).getCode());
+        assertEquals(1.0, meterRegistry.get("query.admission.rejected").tag("config", "tenant").counter().count());
+
+        blocker.tryEmitEmpty();
+        assertEquals(List.of(0, 1), results);
+    }
+
+    @Test
+    void cancelledWaiterFreesItsPlace() {
+        QueryAdmissionManager admission = new QueryAdmissionManager(meterRegistry, 1, 16, 100, 600_000);
+        DatabaseConfig tenant = config("tenant", Map.of("maxQueuedQueries", 1));
+        Sinks.Empty<Void> blocker = hold(admission, tenant);
+
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        Disposable cancelled = admission.admit(tenant, Mono.fromRunnable(() -> ran.add("cancelled"))).subscribe();
+        cancelled.dispose();
+        assertEquals(0.0, gauge("query.admission.queued", "tenant").value());
+
+        // The queue holds one waiter, so this is only accepted because the cancelled one left
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        admission.admit(tenant, Mono.fromRunnable(() -> ran.add("next"))).subscribe(null, errors::add);
+        assertTrue(errors.isEmpty());
+
+        blocker.tryEmitEmpty();
+        assertEquals(List.of("next"), ran);
+    }
+
+    @Test
+    void cancelledRunningQueryFreesItsSlot() {
+        QueryAdmissionManager admission = new QueryAdmissionManager(meterRegistry, 1, 16, 100, 600_000);
+        DatabaseConfig tenant = config("tenant", Map.of());
+        Disposable running = admission.admit(tenant, Mono.never()).subscribe();
+        assertEquals(1.0, gauge("query.admission.running", "tenant").value());
+
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        admission.admit(tenant, Mono.fromRunnable(() -> ran.add("next"))).subscribe();
+        assertTrue(ran.isEmpty());
+
+        running.dispose();
+        assertEquals(List.of("next"), ran);
+        assertEquals(0.0, gauge("query.admission.running", "tenant").value());
+    }
+
+    @Test
+    void inlineConfigsAreSeparateTenants() {
+        QueryAdmissionManager admission = new QueryAdmissionManager(meterRegistry, 4, 16, 100, 600_000);
+        admission.admit(inline("jdbc:postgresql://a/db", Map.of()), Mono.just(1)).block();
+        admission.admit(inline("jdbc:postgresql://b/db", Map.of()), Mono.just(1)).block();
+        admission.admit(inline("jdbc:postgresql://a/db", Map.of()), Mono.just(1)).block();
+
+        Set<String> tenants = meterRegistry.find("query.admission.running").gauges().stream()
+                .map(gauge -> gauge.getId().getTag("config"))
+                .collect(Collectors.toSet());
+        assertEquals(2, tenants.size());
+        assertTrue(tenants.stream().allMatch(tenant -> tenant.startsWith("inline-")));
+    }
+
+    @Test
+    void inlineConfigOptionsAreReadFromStrings() {
+        QueryAdmissionManager admission = new QueryAdmissionManager(meterRegistry, 4, 16, 100, 600_000);
+        DatabaseConfig tenant = inline("jdbc:postgresql://a/db", Map.of("maxConcurrentQueries", "1", "maxQueuedQueries", "1"));
+        Sinks.Empty<Void> blocker = hold(admission, tenant);
+
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        admission.admit(tenant, Mono.just(1)).subscribe(null, errors::add);
+        admission.admit(tenant, Mono.just(2)).subscribe(null, errors::add);
+
+        // One running, one queued, the third rejected: both limits came from the string values
+        assertEquals(1, errors.size());
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(errors.get(0)).getCode());
+        blocker.tryEmitEmpty();
+    }
+
+    @Test
+    void idleTenantsAreEvictedWithTheirMeters() {
+        QueryAdmissionManager admission = new QueryAdmissionManager(meterRegistry, 4, 16, 100, 0);
+        admission.admit(config("idle", Map.of()), Mono.just(1)).block();
+        Sinks.Empty<Void> busy = hold(admission, config("busy", Map.of()));
+
+        admission.evictIdleTenants();
+
+        assertNull(meterRegistry.find("query.admission.queued").tag("config", "idle").gauge());
+        assertNull(meterRegistry.find("query.admission.wait").tag("config", "idle").timer());
+        assertNotNull(meterRegistry.find("query.admission.running").tag("config", "busy").gauge());
+        busy.tryEmitEmpty();
+    }
+
+    /**
+     * Admits a query that runs until the returned sink completes.
+     */
+    private static Sinks.Empty<Void> hold(QueryAdmissionManager admission, DatabaseConfig config) {
+        Sinks.Empty<Void> gate = Sinks.empty();
+        admission.admit(config, gate.asMono()).subscribe();
+        return gate;
+    }
+
+    private Gauge gauge(String name, String tenant) {
+        return meterRegistry.get(name).tag("config", tenant).gauge();
+    }
+
+    private static long count(List<String> order, String tenant) {
+        return order.stream().filter(tenant::equals).count();
+    }
+
+    /**
+     * An inline config as the execution node sees it: mapped from the request proto, so the id is "".
+     */
+    private static DatabaseConfig inline(String url, Map<String, String> options) {
+        return GrpcModelMapper.toInternal(com.sqlengine.grpc.DatabaseConfig.newBuilder()
+                .setProvider("POSTGRESQL")
+                .putConfig("url", url)
+                .putAllConfig(options)
+                .build());
+    }
+
+    private static DatabaseConfig config(String id, Map<String, Object> cfg) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setId(id);
+        config.setConfig(cfg);
+        return config;
+    }
+}
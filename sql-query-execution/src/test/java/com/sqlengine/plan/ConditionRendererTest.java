@@ -0,0 +1,155 @@
+package com.sqlengine.plan;
+
+import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.enums.QueryOperator;
+import com.sqlengine.model.QueryTemplate;
+import com.sqlengine.model.query.QueryCondition;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionRendererTest {
+
+    @Test
+    void postgresBindsTheListAsOneArray() {
+        Rendered in = render(DatabaseProvider.POSTGRESQL, QueryOperator.IN, "[1, 2, 3]");
+        assertEquals("id = ANY(:id)", in.sql());
+        assertEquals(1, in.slots().size());
+        assertArrayEquals(new Integer[]{1, 2, 3}, (Object[]) in.values().get(0));
+
+        Rendered notIn = render(DatabaseProvider.POSTGRESQL, QueryOperator.NOT_IN, "[1, 2, 3]");
+        assertEquals("id <> ALL(:id)", notIn.sql());
+
+        Rendered empty = render(DatabaseProvider.POSTGRESQL, QueryOperator.IN, "[]");
+        assertEquals("id = ANY(:id)", empty.sql());
+        assertArrayEquals(new Integer[0], (Object[]) empty.values().get(0));
+        assertEquals("", ConditionRenderer.shapeOf(condition(QueryOperator.IN, "[1, 2, 3]"), DatabaseProvider.POSTGRESQL));
+    }
+
+    @Test
+    void emptyListsRenderConstantPredicatesWithoutBinds() {
+        for (DatabaseProvider provider : List.of(DatabaseProvider.MYSQL, DatabaseProvider.MSSQL, DatabaseProvider.ORACLE, DatabaseProvider.SQLITE)) {
+            Rendered in = render(provider, QueryOperator.IN, "[]");
+            assertEquals("1 = 0", in.sql());
+            assertTrue(in.slots().isEmpty());
+
+            Rendered notIn = render(provider, QueryOperator.NOT_IN, "[]");
+            assertEquals("1 = 1", notIn.sql());
+            assertTrue(notIn.slots().isEmpty());
+        }
+    }
+
+    @Test
+    void listAtABucketBoundaryIsNotPadded() {
+        Rendered in = render(DatabaseProvider.MYSQL, QueryOperator.IN, list(1, 4));
+        assertEquals("id IN (:id_0, :id_1, :id_2, :id_3)", in.sql());
+        assertEquals(List.of(1, 2, 3, 4), in.values());
+
+        Rendered sixtyFour = render(DatabaseProvider.MSSQL, QueryOperator.NOT_IN, list(1, 64));
+        assertEquals(64, sixtyFour.slots().size());
+        assertTrue(sixtyFour.sql().startsWith("id NOT IN (:id_0, "));
+        assertEquals(IntStream.rangeClosed(1, 64).boxed().toList(), sixtyFour.values());
+    }
+
+    @Test
+    void listOverABucketBoundaryIsPaddedWithItsLastValue() {
+        Rendered in = render(DatabaseProvider.MYSQL, QueryOperator.IN, list(1, 5));
+        assertEquals(8, in.slots().size());
+        assertEquals(List.of(1, 2, 3, 4, 5, 5, 5, 5), in.values());
+        assertEquals("#8", ConditionRenderer.shapeOf(condition(QueryOperator.IN, list(1, 5)), DatabaseProvider.MYSQL));
+
+        // Repeating a value NOT IN already excludes leaves the predicate unchanged
+        Rendered notIn = render(DatabaseProvider.SQLITE, QueryOperator.NOT_IN, "[1, 2, 3]");
+        assertEquals("id NOT IN (:id_0, :id_1, :id_2, :id_3)", notIn.sql());
+        assertEquals(List.of(1, 2, 3, 3), notIn.values());
+
+        Rendered sixtyFive = render(DatabaseProvider.MARIADB, QueryOperator.IN, list(1, 65));
+        assertEquals(128, sixtyFive.slots().size());
+        assertEquals(65, sixtyFive.values().get(127));
+    }
+
+    @Test
+    void paddingNeverIntroducesNullIntoNotIn() {
+        // A NULL only pads a list that already ends in NULL, where NOT IN already matches nothing
+        Rendered leadingNull = render(DatabaseProvider.MYSQL, QueryOperator.NOT_IN, "[null, 1, 2]");
+        assertEquals(Arrays.asList(null, 1, 2, 2), leadingNull.values());
+
+        Rendered trailingNull = render(DatabaseProvider.MYSQL, QueryOperator.NOT_IN, "[1, 2, null]");
+        assertEquals(Arrays.asList(1, 2, null, null), trailingNull.values());
+    }
+
+    @Test
+    void oracleSplitsListsPastOneThousandExpressions() {
+        Rendered in = render(DatabaseProvider.ORACLE, QueryOperator.IN, list(1, 1001));
+        assertEquals(1024, in.slots().size());
+        assertTrue(in.sql().startsWith("(id IN (:id_0, "));
+        assertTrue(in.sql().contains(":id_999) OR id IN (:id_1000, "));
+        assertTrue(in.sql().endsWith(":id_1023))"));
+
+        Rendered notIn = render(DatabaseProvider.ORACLE, QueryOperator.NOT_IN, list(1, 1001));
+        assertTrue(notIn.sql().contains(":id_999) AND id NOT IN (:id_1000, "));
+        assertEquals(1001, notIn.values().get(1023));
+    }
+
+    @Test
+    void listOverTheBindParameterCapIsBoundAsJson() {
+        Rendered sqlite = render(DatabaseProvider.SQLITE, QueryOperator.IN, list(1, 900));
+        assertEquals("id IN (SELECT value FROM json_each(:id))", sqlite.sql());
+        assertEquals(1, sqlite.slots().size());
+        assertEquals(IntStream.rangeClosed(1, 900).mapToObj(String::valueOf).collect(Collectors.joining(",", "[", "]")),
+                sqlite.values().get(0));
+
+        Rendered mssql = render(DatabaseProvider.MSSQL, QueryOperator.NOT_IN, "[1, null, 3]", 2000);
+        assertEquals("id NOT IN (SELECT value FROM OPENJSON(:id))", mssql.sql());
+        assertEquals("[1,null,3]", mssql.values().get(0));
+    }
+
+    @Test
+    void slotsAlreadyPlacedCountTowardsTheCap() {
+        String values = list(1, 1900);
+        assertEquals(1920, render(DatabaseProvider.MSSQL, QueryOperator.IN, values, 0).slots().size());
+        assertEquals("id IN (SELECT value FROM OPENJSON(:id))", render(DatabaseProvider.MSSQL, QueryOperator.IN, values, 100).sql());
+    }
+
+    private static Rendered render(DatabaseProvider provider, QueryOperator operator, String value) {
+        return render(provider, operator, value, 0);
+    }
+
+    /**
+     * Renders the condition after {@code placed} unrelated slots and reads back the values its own slots bind.
+     */
+    private static Rendered render(DatabaseProvider provider, QueryOperator operator, String value, int placed) {
+        QueryTemplate template = new QueryTemplate();
+        template.setConditions(List.of(condition(operator, value)));
+        List<BindSlot> slots = new ArrayList<>(Collections.nCopies(placed, BindSlot.constant("other", 0)));
+        String sql = ConditionRenderer.render(template.getConditions().get(0), BindSlot.condition("id", 0, "id", Types.INTEGER),
+                provider, slots);
+        List<BindSlot> own = slots.subList(placed, slots.size());
+        return new Rendered(sql, own, own.stream().map(slot -> slot.value(template)).collect(Collectors.toList()));
+    }
+
+    private static QueryCondition condition(QueryOperator operator, String value) {
+        QueryCondition condition = new QueryCondition();
+        condition.setFieldName("id");
+        condition.setOperator(operator);
+        condition.setValue(value);
+        return condition;
+    }
+
+    private static String list(int from, int to) {
+        return IntStream.rangeClosed(from, to).mapToObj(String::valueOf).collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private record Rendered(String sql, List<BindSlot> slots, List<Object> values) {
+    }
+}
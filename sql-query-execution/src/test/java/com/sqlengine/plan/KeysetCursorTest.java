@@ -0,0 +1,118 @@
+package com.sqlengine.plan;
+
+import com.sqlengine.enums.PaginationMode;
+import com.sqlengine.enums.SortDirection;
+import com.sqlengine.model.QueryTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    @Test
+    void primaryKeyBreaksTiesInTheLastDirection() {
+        QueryTemplate template = template(orderBy("created_at", SortDirection.ASC, "score", SortDirection.DESC));
+        assertEquals(List.of("created_at", "score", "id"), List.copyOf(KeysetCursor.keys(template).keySet()));
+        assertEquals(List.of(SortDirection.ASC, SortDirection.DESC, SortDirection.DESC),
+                List.copyOf(KeysetCursor.keys(template).values()));
+    }
+
+    @Test
+    void primaryKeyIsNotRepeatedWhenAlreadyOrderedBy() {
+        QueryTemplate template = template(orderBy("t.ID", SortDirection.DESC));
+        assertEquals(Map.of("t.ID", SortDirection.DESC), KeysetCursor.keys(template));
+
+        QueryTemplate unordered = template(null);
+        unordered.setPrimaryKeyField("order_id");
+        assertEquals(Map.of("order_id", SortDirection.ASC), KeysetCursor.keys(unordered));
+    }
+
+    @Test
+    void tokenRoundTripsTheLastRowKeys() {
+        QueryTemplate template = template(orderBy("t.created_at", SortDirection.DESC));
+        List<Map<String, Object>> page = List.of(
+                Map.of("created_at", "2024-03-02T10:00", "id", 9),
+                Map.of("created_at", "2024-03-01T08:30", "id", 4));
+
+        Optional<String> token = KeysetCursor.nextToken(template, page);
+        assertTrue(token.isPresent());
+        assertTrue(token.get().matches("[A-Za-z0-9_-]+"), "token is URL-safe Base64 without padding");
+
+        template.setContinuationToken(token.get());
+        assertTrue(KeysetCursor.hasSeek(template));
+        assertEquals(List.of("2024-03-01T08:30", "4"), KeysetCursor.decode(template));
+    }
+
+    @Test
+    void noTokenAfterTheLastPage() {
+        QueryTemplate template = template(orderBy("created_at", SortDirection.ASC));
+        assertEquals(Optional.empty(), KeysetCursor.nextToken(template, List.of(Map.of("created_at", "2024-03-01", "id", 1))));
+        assertEquals(Optional.empty(), KeysetCursor.nextToken(template, List.of()));
+
+        QueryTemplate offset = template(orderBy("created_at", SortDirection.ASC));
+        offset.setPaginationMode(PaginationMode.OFFSET);
+        assertEquals(Optional.empty(), KeysetCursor.nextToken(offset, List.of(
+                Map.of("created_at", "2024-03-01", "id", 1), Map.of("created_at", "2024-03-02", "id", 2))));
+        offset.setContinuationToken("ignored");
+        assertFalse(KeysetCursor.hasSeek(offset));
+    }
+
+    @Test
+    void nullKeyInTheLastRowIsRejected() {
+        QueryTemplate template = template(orderBy("created_at", SortDirection.ASC));
+        Map<String, Object> last = new LinkedHashMap<>();
+        last.put("created_at", null);
+        last.put("id", 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.nextToken(template, List.of(Map.of("created_at", "2024-03-01", "id", 1), last)));
+    }
+
+    @Test
+    void nullableSortKeysAreRejectedAtCompileTime() {
+        QueryTemplate template = template(orderBy("t.deleted_at", SortDirection.ASC));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.requireNonNullKeys(template, Set.of("deleted_at")));
+        assertDoesNotThrow(() -> KeysetCursor.requireNonNullKeys(template, Set.of("note")));
+    }
+
+    @Test
+    void tokenForOtherKeysOrGarbageIsRejected() {
+        QueryTemplate byDate = template(orderBy("created_at", SortDirection.ASC));
+        String token = KeysetCursor.nextToken(byDate, List.of(
+                Map.of("created_at", "2024-03-01", "id", 1), Map.of("created_at", "2024-03-02", "id", 2))).orElseThrow();
+
+        QueryTemplate byScore = template(orderBy("score", SortDirection.ASC));
+        byScore.setContinuationToken(token);
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(byScore));
+
+        byDate.setContinuationToken("not a token!");
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(byDate));
+    }
+
+    private static QueryTemplate template(Map<String, SortDirection> orderBy) {
+        QueryTemplate template = new QueryTemplate();
+        template.setQueryType("SELECT");
+        template.setTableName("orders");
+        template.setPaginationMode(PaginationMode.KEYSET);
+        template.setOrderBy(orderBy);
+        template.setLimit(2);
+        return template;
+    }
+
+    private static Map<String, SortDirection> orderBy(Object... keysAndDirections) {
+        Map<String, SortDirection> orderBy = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndDirections.length; i += 2) {
+            orderBy.put((String) keysAndDirections[i], (SortDirection) keysAndDirections[i + 1]);
+        }
+        return orderBy;
+    }
+}
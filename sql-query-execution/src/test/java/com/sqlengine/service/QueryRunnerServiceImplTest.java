@@ -0,0 +1,81 @@
+package com.sqlengine.service;
+
+import com.sqlengine.grpc.QueryRunRequest;
+import com.sqlengine.grpc.QueryRunResponse;
+import com.sqlengine.grpc.QueryTemplate;
+import com.sqlengine.manager.DatabaseConnectionPoolManager;
+import com.sqlengine.manager.JdbcExecutorManager;
+import com.sqlengine.manager.PreparedTemplateRegistry;
+import com.sqlengine.manager.QueryAdmissionManager;
+import com.sqlengine.model.DatabaseConfig;
+import com.sqlengine.repository.DatabaseConfigRepository;
+import com.sqlengine.strategy.QueryExecutionStrategy;
+import com.sqlengine.strategy.QueryExecutionStrategyFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryRunnerServiceImplTest {
+
+    @Test
+    void queuedQueryRunsOnThePoolCurrentWhenItIsAdmitted() {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setId("tenant");
+        config.setConfig(Map.of());
+
+        DatabaseConnectionPoolManager poolManager = mock(DatabaseConnectionPoolManager.class);
+        DatabaseClient retired = mock(DatabaseClient.class);
+        DatabaseClient swapped = mock(DatabaseClient.class);
+        when(poolManager.getDatabaseConfig("tenant")).thenReturn(Mono.just(config));
+        when(poolManager.getDatabaseClient(config)).thenReturn(retired);
+
+        List<DatabaseClient> used = Collections.synchronizedList(new ArrayList<>());
+        QueryExecutionStrategy strategy = mock(QueryExecutionStrategy.class);
+        when(strategy.execute(any(), eq(config), any())).thenAnswer(invocation -> {
+            used.add(invocation.getArgument(2));
+            return Mono.just(List.of());
+        });
+        QueryExecutionStrategyFactory strategyFactory = mock(QueryExecutionStrategyFactory.class);
+        when(strategyFactory.getStrategy("SELECT")).thenReturn(strategy);
+
+        QueryAdmissionManager admission = new QueryAdmissionManager(new SimpleMeterRegistry(), 1, 16, 100, 600_000);
+        QueryRunnerServiceImpl service = new QueryRunnerServiceImpl(strategyFactory, poolManager,
+                mock(DatabaseConfigRepository.class), mock(PreparedTemplateRegistry.class), mock(BulkLoadService.class),
+                mock(JdbcExecutorManager.class), admission);
+
+        Sinks.Empty<Void> blocker = Sinks.empty();
+        admission.admit(config, blocker.asMono()).subscribe();
+
+        List<QueryRunResponse> responses = Collections.synchronizedList(new ArrayList<>());
+        service.runQuery(Mono.just(QueryRunRequest.newBuilder()
+                        .setConfigId("tenant")
+                        .setTemplate(QueryTemplate.newBuilder().setQueryType("SELECT").setTableName("orders"))
+                        .build()))
+                .subscribe(responses::add);
+        verify(poolManager, never()).getDatabaseClient(any());
+
+        // Config update while the query waits: the old pool retires, the new one serves from now on
+        when(poolManager.getDatabaseClient(config)).thenReturn(swapped);
+        blocker.tryEmitEmpty();
+
+        assertEquals(1, responses.size());
+        assertEquals(1, used.size());
+        assertSame(swapped, used.get(0));
+    }
+}
@@ -0,0 +1,48 @@
+package com.sqlengine.strategy.utils;
+
+import com.sqlengine.grpc.ResultBlock;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultBlockEncoderTest {
+
+    @Test
+    void mapRowsShareTheHeaderInferredFromTheFirstBlock() {
+        List<ResultBlock> blocks = ResultBlockEncoder.encodeMaps(Flux.just(
+                row(1L, null), row(2L, null),
+                row(3L, "late"), row(null, "text")), 2).collectList().block();
+
+        assertEquals(2, blocks.size());
+        assertEquals(blocks.get(0).getColumnsList(), blocks.get(1).getColumnsList());
+        assertEquals(Types.BIGINT, blocks.get(1).getColumns(0).getJdbcType());
+        // All-NULL in the first block: stays OTHER for the whole stream instead of turning VARCHAR later
+        assertEquals(Types.OTHER, blocks.get(1).getColumns(1).getJdbcType());
+        assertEquals(List.of(3L, 0L), blocks.get(1).getVectors(0).getInt64Values().getValuesList());
+        assertEquals(List.of("late", "text"), blocks.get(1).getVectors(1).getStringValues().getDictionaryList());
+    }
+
+    @Test
+    void valuesThatDoNotFitTheInferredTypeAreSentAsStrings() {
+        List<ResultBlock> blocks = ResultBlockEncoder.encodeMaps(Flux.just(
+                row(1L, "a"), row("two", "b")), 1).collectList().block();
+
+        assertEquals(Types.BIGINT, blocks.get(1).getColumns(0).getJdbcType());
+        assertTrue(blocks.get(1).getVectors(0).hasStringValues());
+        assertEquals(List.of("two"), blocks.get(1).getVectors(0).getStringValues().getDictionaryList());
+    }
+
+    private static Map<String, Object> row(Object id, Object name) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        return row;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sqlengine.strategy.utils;
+
+import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.enums.SortDirection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlDialectHelperTest {
+
+    private static final List<String> KEYS = List.of("created_at", "id");
+    private static final List<String> PARAMS = List.of("k0", "k1");
+
+    @Test
+    void uniformDirectionsUseRowValueComparison() {
+        for (DatabaseProvider provider : List.of(DatabaseProvider.POSTGRESQL, DatabaseProvider.MYSQL,
+                DatabaseProvider.MARIADB, DatabaseProvider.SQLITE)) {
+            assertEquals("(created_at, id) > (:k0, :k1)", SqlDialectHelper.buildSeekPredicate(provider, KEYS,
+                    List.of(SortDirection.ASC, SortDirection.ASC), PARAMS));
+            assertEquals("(created_at, id) < (:k0, :k1)", SqlDialectHelper.buildSeekPredicate(provider, KEYS,
+                    List.of(SortDirection.DESC, SortDirection.DESC), PARAMS));
+        }
+    }
+
+    @Test
+    void dialectsWithoutRowValuesUseTheExpandedForm() {
+        for (DatabaseProvider provider : List.of(DatabaseProvider.MSSQL, DatabaseProvider.ORACLE)) {
+            assertEquals("((created_at > :k0) OR (created_at = :k0 AND id > :k1))", SqlDialectHelper.buildSeekPredicate(provider,
+                    KEYS, List.of(SortDirection.ASC, SortDirection.ASC), PARAMS));
+            assertEquals("((created_at < :k0) OR (created_at = :k0 AND id < :k1))", SqlDialectHelper.buildSeekPredicate(provider,
+                    KEYS, List.of(SortDirection.DESC, SortDirection.DESC), PARAMS));
+        }
+    }
+
+    @Test
+    void mixedDirectionsUseTheExpandedFormOnEveryDialect() {
+        for (DatabaseProvider provider : DatabaseProvider.values()) {
+            assertEquals("((created_at < :k0) OR (created_at = :k0 AND id > :k1))", SqlDialectHelper.buildSeekPredicate(provider,
+                    KEYS, List.of(SortDirection.DESC, SortDirection.ASC), PARAMS));
+        }
+        assertEquals("((a > :k0) OR (a = :k0 AND b < :k1) OR (a = :k0 AND b = :k1 AND c > :k2))",
+                SqlDialectHelper.buildSeekPredicate(DatabaseProvider.POSTGRESQL, List.of("a", "b", "c"),
+                        List.of(SortDirection.ASC, SortDirection.DESC, SortDirection.ASC), List.of("k0", "k1", "k2")));
+    }
+
+    @Test
+    void singleKeySeek() {
+        assertEquals("(id) > (:k0)", SqlDialectHelper.buildSeekPredicate(DatabaseProvider.POSTGRESQL,
+                List.of("id"), List.of(SortDirection.ASC), List.of("k0")));
+        assertEquals("((id < :k0))", SqlDialectHelper.buildSeekPredicate(DatabaseProvider.MSSQL,
+                List.of("id"), List.of(SortDirection.DESC), List.of("k0")));
+    }
+}
@@ -0,0 +1,155 @@
+package com.sqlengine.strategy.utils;
+
+import com.sqlengine.enums.DatabaseProvider;
+import com.sqlengine.model.QueryTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpsertSqlBuilderTest {
+
+    private static final List<String> COLUMNS = List.of("id", "name", "email");
+    private static final List<List<String>> ROWS = List.of(
+            List.of("r0_c0", "r0_c1", "r0_c2"),
+            List.of("r1_c0", "r1_c1", "r1_c2"));
+    private static final String VALUES = "(:r0_c0, :r0_c1, :r0_c2), (:r1_c0, :r1_c1, :r1_c2)";
+
+    @Test
+    void postgresUpdatesNonKeyColumnsFromExcluded() {
+        assertEquals("INSERT INTO users (id, name, email) VALUES " + VALUES
+                        + " ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, email = EXCLUDED.email",
+                build(DatabaseProvider.POSTGRESQL, template(false), Map.of()));
+    }
+
+    @Test
+    void postgresSetsUpsertValues() {
+        assertEquals("INSERT INTO users (id, name, email) VALUES " + VALUES
+                        + " ON CONFLICT (id) DO UPDATE SET name = :u0",
+                build(DatabaseProvider.POSTGRESQL, template(false), updateParams()));
+    }
+
+    @Test
+    void postgresDoesNothingWhenOnlyKeysAreInserted() {
+        QueryTemplate template = template(false);
+        assertEquals("INSERT INTO users (id) VALUES (:r0_c0) ON CONFLICT (id) DO NOTHING",
+                UpsertSqlBuilder.build(DatabaseProvider.POSTGRESQL, template, List.of("id"), List.of(List.of("r0_c0")), Map.of()));
+    }
+
+    @Test
+    void postgresRequiresConflictColumns() {
+        QueryTemplate template = template(false);
+        template.setConflictColumns(null);
+        assertThrows(IllegalArgumentException.class, () -> build(DatabaseProvider.POSTGRESQL, template, updateParams()));
+    }
+
+    @Test
+    void sqliteUsesOnConflictOrInsertOrReplace() {
+        assertEquals("INSERT INTO users (id, name, email) VALUES " + VALUES
+                        + " ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, email = EXCLUDED.email",
+                build(DatabaseProvider.SQLITE, template(false), Map.of()));
+        assertEquals("INSERT INTO users (id, name, email) VALUES " + VALUES + " ON CONFLICT (id) DO UPDATE SET name = :u0",
+                build(DatabaseProvider.SQLITE, template(false), updateParams()));
+        assertEquals("INSERT OR REPLACE INTO users (id, name, email) VALUES " + VALUES,
+                build(DatabaseProvider.SQLITE, template(true), Map.of()));
+    }
+
+    @Test
+    void mysqlReadsTheIncomingRowThroughARowAlias() {
+        assertEquals("INSERT INTO users (id, name, email) VALUES " + VALUES
+                        + " AS new ON DUPLICATE KEY UPDATE name = new.name, email = new.email",
+                build(DatabaseProvider.MYSQL, template(false), Map.of()));
+        assertEquals("INSERT INTO users (id, name, email) VALUES " + VALUES + " AS new ON DUPLICATE KEY UPDATE name = :u0",
+                build(DatabaseProvider.MYSQL, template(false), updateParams()));
+    }
+
+    @Test
+    void mariaDbReadsTheIncomingRowThroughValues() {
+        assertEquals("INSERT INTO users (id, name, email) VALUES " + VALUES
+                        + " ON DUPLICATE KEY UPDATE name = VALUES(name), email = VALUES(email)",
+                build(DatabaseProvider.MARIADB, template(false), Map.of()));
+        assertEquals("INSERT INTO users (id, name, email) VALUES " + VALUES + " ON DUPLICATE KEY UPDATE name = :u0",
+                build(DatabaseProvider.MARIADB, template(false), updateParams()));
+    }
+
+    @Test
+    void mysqlAndMariaDbReplaceInto() {
+        for (DatabaseProvider provider : List.of(DatabaseProvider.MYSQL, DatabaseProvider.MARIADB)) {
+            assertEquals("REPLACE INTO users (id, name, email) VALUES " + VALUES,
+                    build(provider, template(true), Map.of()));
+            assertEquals("REPLACE INTO users (id, name, email) VALUES " + VALUES,
+                    build(provider, template(true), updateParams()));
+        }
+    }
+
+    @Test
+    void sqlServerMergesWithHoldlock() {
+        String merge = "MERGE INTO users WITH (HOLDLOCK) AS tgt USING (VALUES " + VALUES + ") AS src (id, name, email)"
+                + " ON (tgt.id = src.id)";
+        String insert = " WHEN NOT MATCHED THEN INSERT (id, name, email) VALUES (src.id, src.name, src.email);";
+        assertEquals(merge + " WHEN MATCHED THEN UPDATE SET tgt.name = src.name, tgt.email = src.email" + insert,
+                build(DatabaseProvider.MSSQL, template(false), Map.of()));
+        assertEquals(merge + " WHEN MATCHED THEN UPDATE SET tgt.name = :u0" + insert,
+                build(DatabaseProvider.MSSQL, template(false), updateParams()));
+    }
+
+    @Test
+    void oracleMergesFromDual() {
+        String merge = "MERGE INTO users tgt USING (SELECT :r0_c0 AS id, :r0_c1 AS name, :r0_c2 AS email FROM dual"
+                + " UNION ALL SELECT :r1_c0 AS id, :r1_c1 AS name, :r1_c2 AS email FROM dual) src ON (tgt.id = src.id)";
+        String insert = " WHEN NOT MATCHED THEN INSERT (id, name, email) VALUES (src.id, src.name, src.email)";
+        assertEquals(merge + " WHEN MATCHED THEN UPDATE SET tgt.name = src.name, tgt.email = src.email" + insert,
+                build(DatabaseProvider.ORACLE, template(false), Map.of()));
+        assertEquals(merge + " WHEN MATCHED THEN UPDATE SET tgt.name = :u0" + insert,
+                build(DatabaseProvider.ORACLE, template(false), updateParams()));
+    }
+
+    @Test
+    void mergeRequiresInsertedConflictColumns() {
+        QueryTemplate template = template(false);
+        template.setConflictColumns(List.of("tenant_id"));
+        assertThrows(IllegalArgumentException.class, () -> build(DatabaseProvider.ORACLE, template, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> build(DatabaseProvider.MSSQL, template, Map.of()));
+    }
+
+    @Test
+    void detectsUpsertTemplates() {
+        QueryTemplate plain = new QueryTemplate();
+        plain.setTableName("users");
+        assertFalse(UpsertSqlBuilder.isUpsert(plain));
+        assertTrue(UpsertSqlBuilder.isUpsert(template(false)));
+
+        QueryTemplate replace = new QueryTemplate();
+        replace.setUseReplace(true);
+        assertTrue(UpsertSqlBuilder.isUpsert(replace));
+
+        QueryTemplate withValues = new QueryTemplate();
+        withValues.setUpsertValues(Map.of("name", "x"));
+        assertTrue(UpsertSqlBuilder.isUpsert(withValues));
+    }
+
+    private static String build(DatabaseProvider provider, QueryTemplate template, Map<String, String> updateParams) {
+        return UpsertSqlBuilder.build(provider, template, COLUMNS, ROWS, updateParams);
+    }
+
+    private static QueryTemplate template(boolean useReplace) {
+        QueryTemplate template = new QueryTemplate();
+        template.setQueryType("INSERT");
+        template.setTableName("users");
+        template.setConflictColumns(List.of("id"));
+        template.setUseReplace(useReplace);
+        return template;
+    }
+
+    private static Map<String, String> updateParams() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("name", "u0");
+        return params;
+    }
+}